@@ -0,0 +1,9 @@
+package com.mdci.bankaccount.application.dto;
+
+import java.math.BigDecimal;
+
+public record AccountBalanceDTO(
+        String accountId,
+        BigDecimal balance
+) {
+}
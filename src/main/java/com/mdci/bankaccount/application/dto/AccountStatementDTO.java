@@ -6,13 +6,41 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Relevé exposé par l'API. {@code currentBalance} est le solde actuel du compte ; {@code closingBalance} son solde
+ * à la fin de la période, égal au solde actuel tant que la période n'est pas close ({@code periodClosed}).
+ */
 public record AccountStatementDTO(
         String accountId,
         AccountType accountType,
         BigDecimal currentBalance,
+        BigDecimal closingBalance,
+        boolean periodClosed,
         LocalDateTime issuedAt,
         LocalDateTime from,
         LocalDateTime to,
-        List<OperationDTO> recentOperations
+        List<OperationDTO> recentOperations,
+        BigDecimal totalDeposits,
+        BigDecimal totalWithdrawals
 ) {
+
+    /**
+     * Relevé d'une période en cours, dont les totaux sont calculés à partir des opérations fournies.
+     */
+    public AccountStatementDTO(String accountId, AccountType accountType, BigDecimal currentBalance, LocalDateTime issuedAt,
+                               LocalDateTime from, LocalDateTime to, List<OperationDTO> recentOperations) {
+        this(accountId, accountType, currentBalance, currentBalance, false, issuedAt, from, to, recentOperations,
+                sumOf(recentOperations, "DEPOSIT"), sumOf(recentOperations, "WITHDRAWAL"));
+    }
+
+    public BigDecimal netTotal() {
+        return totalDeposits.subtract(totalWithdrawals);
+    }
+
+    private static BigDecimal sumOf(List<OperationDTO> operations, String type) {
+        return operations.stream()
+                .filter(op -> type.equals(op.type()))
+                .map(OperationDTO::amount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
 }
@@ -0,0 +1,10 @@
+package com.mdci.bankaccount.application.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record BalancePointDTO(
+        LocalDate date,
+        BigDecimal balance
+) {
+}
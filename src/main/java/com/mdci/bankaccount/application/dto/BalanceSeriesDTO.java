@@ -0,0 +1,14 @@
+package com.mdci.bankaccount.application.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record BalanceSeriesDTO(
+        String accountId,
+        LocalDate from,
+        LocalDate to,
+        String granularity,
+        boolean downsampled,
+        List<BalancePointDTO> points
+) {
+}
@@ -0,0 +1,19 @@
+package com.mdci.bankaccount.application.dto;
+
+import com.mdci.bankaccount.domain.model.BankOperation;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+
+public record BatchOperationItemDTO(
+        @NotBlank(message = "{bank.batch.accountId.notblank}")
+        String accountId,
+        @NotNull(message = "{bank.batch.type.notnull}")
+        BankOperation.OperationType type,
+        @NotNull(message = "{bank.operation.amount.notnull}")
+        @Positive(message = "{bank.operation.amount.positive}")
+        BigDecimal amount
+) {
+}
@@ -0,0 +1,22 @@
+package com.mdci.bankaccount.application.dto;
+
+import com.mdci.bankaccount.domain.model.BatchMode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchOperationRequestDTO(
+        BatchMode mode,
+        @NotEmpty(message = "{bank.batch.operations.notempty}")
+        @Size(max = 10000, message = "{bank.batch.operations.size}")
+        List<@Valid BatchOperationItemDTO> operations
+) {
+    public BatchOperationRequestDTO {
+        // Par défaut, tout ou rien
+        if (mode == null) {
+            mode = BatchMode.ATOMIC;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.mdci.bankaccount.application.dto;
+
+import java.util.List;
+
+public record BatchOperationResponseDTO(
+        String mode,
+        int applied,
+        int rejected,
+        List<BatchOperationResultDTO> results
+) {
+}
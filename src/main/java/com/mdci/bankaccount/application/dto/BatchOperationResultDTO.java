@@ -0,0 +1,13 @@
+package com.mdci.bankaccount.application.dto;
+
+import java.math.BigDecimal;
+
+public record BatchOperationResultDTO(
+        int index,
+        String accountId,
+        String status,
+        String operationId,
+        BigDecimal balanceAfter,
+        String message
+) {
+}
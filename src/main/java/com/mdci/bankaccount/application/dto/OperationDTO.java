@@ -7,6 +7,7 @@ public record OperationDTO(
         String operationId,
         String type,
         BigDecimal amount,
-        LocalDateTime date
+        LocalDateTime date,
+        BigDecimal balanceAfter
 ) {
 }
@@ -0,0 +1,9 @@
+package com.mdci.bankaccount.application.dto;
+
+import java.util.List;
+
+public record OperationPageDTO(
+        List<OperationDTO> operations,
+        String nextCursor
+) {
+}
@@ -0,0 +1,23 @@
+package com.mdci.bankaccount.application.dto;
+
+import com.mdci.bankaccount.domain.model.AccountType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Première ligne d'un relevé en flux ; mêmes soldes que {@link AccountStatementDTO}.
+ */
+public record StatementHeaderDTO(
+        String accountId,
+        AccountType accountType,
+        BigDecimal currentBalance,
+        BigDecimal closingBalance,
+        boolean periodClosed,
+        LocalDateTime issuedAt,
+        LocalDateTime from,
+        LocalDateTime to,
+        BigDecimal totalDeposits,
+        BigDecimal totalWithdrawals
+) {
+}
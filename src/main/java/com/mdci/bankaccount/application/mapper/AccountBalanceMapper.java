@@ -0,0 +1,18 @@
+package com.mdci.bankaccount.application.mapper;
+
+import com.mdci.bankaccount.application.dto.AccountBalanceDTO;
+import com.mdci.bankaccount.domain.model.AccountBalance;
+import com.mdci.bankaccount.domain.model.Money;
+import org.mapstruct.Mapper;
+
+import java.math.BigDecimal;
+
+@Mapper(componentModel = "spring")
+public interface AccountBalanceMapper {
+
+    AccountBalanceDTO toDto(AccountBalance balance);
+
+    default BigDecimal map(Money balance) {
+        return balance != null ? balance.amountToTheCent() : null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.mdci.bankaccount.application.mapper;
+
+import com.mdci.bankaccount.application.dto.BalancePointDTO;
+import com.mdci.bankaccount.application.dto.BalanceSeriesDTO;
+import com.mdci.bankaccount.domain.model.BalancePoint;
+import com.mdci.bankaccount.domain.model.BalanceSeries;
+import com.mdci.bankaccount.domain.model.Money;
+import org.mapstruct.Mapper;
+
+import java.math.BigDecimal;
+
+@Mapper(componentModel = "spring")
+public interface BalanceSeriesMapper {
+
+    BalanceSeriesDTO toDto(BalanceSeries series);
+
+    BalancePointDTO toDto(BalancePoint point);
+
+    default BigDecimal map(Money balance) {
+        return balance != null ? balance.amountToTheCent() : null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.mdci.bankaccount.application.mapper;
+
+import com.mdci.bankaccount.application.dto.BatchOperationItemDTO;
+import com.mdci.bankaccount.application.dto.BatchOperationResponseDTO;
+import com.mdci.bankaccount.application.dto.BatchOperationResultDTO;
+import com.mdci.bankaccount.domain.model.BatchMode;
+import com.mdci.bankaccount.domain.model.BatchOperationCommand;
+import com.mdci.bankaccount.domain.model.BatchOperationResult;
+import com.mdci.bankaccount.domain.model.Money;
+import org.mapstruct.Mapper;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface BatchOperationMapper {
+
+    BatchOperationCommand toCommand(BatchOperationItemDTO item);
+
+    List<BatchOperationCommand> toCommands(List<BatchOperationItemDTO> items);
+
+    BatchOperationResultDTO toResultDTO(BatchOperationResult result);
+
+    List<BatchOperationResultDTO> toResultDTOs(List<BatchOperationResult> results);
+
+    default Money map(BigDecimal amount) {
+        return amount != null ? new Money(amount) : null;
+    }
+
+    default BatchOperationResponseDTO toResponseDTO(BatchMode mode, List<BatchOperationResult> results) {
+        int applied = (int) results.stream().filter(r -> r.status() == BatchOperationResult.Status.APPLIED).count();
+        int rejected = (int) results.stream().filter(r -> r.status() == BatchOperationResult.Status.REJECTED).count();
+        return new BatchOperationResponseDTO(mode.name(), applied, rejected, toResultDTOs(results));
+    }
+}
@@ -0,0 +1,31 @@
+package com.mdci.bankaccount.application.mapper;
+
+import com.mdci.bankaccount.application.dto.OperationDTO;
+import com.mdci.bankaccount.application.dto.OperationPageDTO;
+import com.mdci.bankaccount.domain.model.BankOperation;
+import com.mdci.bankaccount.domain.model.Money;
+import com.mdci.bankaccount.domain.model.OperationCursor;
+import com.mdci.bankaccount.domain.model.OperationPage;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.math.BigDecimal;
+
+@Mapper(componentModel = "spring")
+public interface OperationPageMapper {
+
+    @Mapping(target = "nextCursor", source = "next")
+    OperationPageDTO toDto(OperationPage page);
+
+    @Mapping(target = "operationId", source = "id")
+    @Mapping(target = "date", source = "timestamp")
+    OperationDTO toDto(BankOperation operation);
+
+    default BigDecimal map(Money amount) {
+        return amount != null ? amount.amount() : null;
+    }
+
+    default String map(OperationCursor cursor) {
+        return cursor != null ? cursor.encode() : null;
+    }
+}
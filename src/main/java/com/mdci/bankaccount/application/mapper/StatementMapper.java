@@ -2,7 +2,9 @@ package com.mdci.bankaccount.application.mapper;
 
 import com.mdci.bankaccount.application.dto.AccountStatementDTO;
 import com.mdci.bankaccount.application.dto.OperationDTO;
+import com.mdci.bankaccount.application.dto.StatementHeaderDTO;
 import com.mdci.bankaccount.domain.model.AccountStatement;
+import com.mdci.bankaccount.domain.model.AccountStatementSummary;
 import com.mdci.bankaccount.domain.model.BankOperation;
 
 import java.util.Comparator;
@@ -11,24 +13,49 @@ import java.util.List;
 public class StatementMapper {
 
     public AccountStatementDTO toDto(AccountStatement statement) {
-        List<OperationDTO> operations = statement.operations().stream()
+        // Plus récentes d'abord ; à date égale, dans l'ordre inverse de celui fourni (ordre d'enregistrement)
+        List<OperationDTO> operations = statement.operations().reversed().stream()
                 .sorted(Comparator.comparing(BankOperation::timestamp).reversed())
-                .map(op -> new OperationDTO(
-                        op.id(),
-                        op.type().name(),
-                        op.amount().amount(),
-                        op.timestamp()
-                ))
+                .map(this::toOperationDto)
                 .toList();
 
         return new AccountStatementDTO(
                 statement.accountId(),
                 statement.accountType(),
                 statement.currentBalance(),
+                statement.closingBalance(),
+                statement.periodClosed(),
                 statement.issuedAt(),
                 statement.from(),
                 statement.to(),
-                operations
+                operations,
+                statement.totals().deposits().amount(),
+                statement.totals().withdrawals().amount()
+        );
+    }
+
+    public StatementHeaderDTO toHeaderDto(AccountStatementSummary summary) {
+        return new StatementHeaderDTO(
+                summary.accountId(),
+                summary.accountType(),
+                summary.currentBalance(),
+                summary.closingBalance(),
+                summary.periodClosed(),
+                summary.issuedAt(),
+                summary.from(),
+                summary.to(),
+                summary.totals().deposits().amount(),
+                summary.totals().withdrawals().amount()
+        );
+    }
+
+    public OperationDTO toOperationDto(BankOperation op) {
+        return new OperationDTO(
+                op.id(),
+                op.type().name(),
+                op.amount().amount(),
+                op.timestamp(),
+                op.balanceAfter()
         );
     }
 }
@@ -0,0 +1,35 @@
+package com.mdci.bankaccount.application.port.out;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Encadre l'exécution d'une écriture sur un compte (chargement, vérification des règles, enregistrement).
+ */
+public interface AccountConcurrencyControl {
+
+    <T> T execute(String accountId, Supplier<T> action);
+
+    /**
+     * Encadre une écriture portant sur plusieurs comptes. Les protections sont prises dans un ordre
+     * indépendant de celui des identifiants fournis, pour que deux lots concurrents ne s'interbloquent pas.
+     */
+    <T> T executeAll(Collection<String> accountIds, Supplier<T> action);
+
+    /**
+     * Aucun contrôle : l'action s'exécute directement.
+     */
+    static AccountConcurrencyControl none() {
+        return new AccountConcurrencyControl() {
+            @Override
+            public <T> T execute(String accountId, Supplier<T> action) {
+                return action.get();
+            }
+
+            @Override
+            public <T> T executeAll(Collection<String> accountIds, Supplier<T> action) {
+                return action.get();
+            }
+        };
+    }
+}
@@ -1,5 +1,12 @@
 package com.mdci.bankaccount.application.port.out;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 public interface DocumentGenerator<T> {
-    byte[] generate(T dto);
-}
\ No newline at end of file
+
+    /**
+     * Écrit le document au fil de sa production dans {@code output}, sans le fermer.
+     */
+    void generate(T dto, OutputStream output) throws IOException;
+}
@@ -0,0 +1,51 @@
+package com.mdci.bankaccount.application.port.out;
+
+import java.util.function.Supplier;
+
+/**
+ * Délimite la transaction d'un cas d'utilisation : toutes les lectures et écritures du traitement
+ * partagent une même connexion et sont validées ou annulées ensemble.
+ */
+public interface UnitOfWork {
+
+    /**
+     * Cas d'utilisation transactionnels. Les lectures seules permettent à la persistance
+     * d'éviter la détection des modifications et les synchronisations inutiles.
+     */
+    enum UseCase {
+        CREATE_ACCOUNT(false),
+        DEPOSIT(false),
+        WITHDRAW(false),
+        BATCH_OPERATIONS(false),
+        GET_ACCOUNT(true),
+        OPERATION_HISTORY(true),
+        BALANCE_AT_DATE(true),
+        BALANCE_SERIES(true),
+        STATEMENT(true),
+        BALANCE_REPORT(true);
+
+        private final boolean readOnly;
+
+        UseCase(boolean readOnly) {
+            this.readOnly = readOnly;
+        }
+
+        public boolean isReadOnly() {
+            return readOnly;
+        }
+    }
+
+    <T> T execute(UseCase useCase, Supplier<T> work);
+
+    /**
+     * Aucune transaction applicative : chaque accès à la persistance gère la sienne.
+     */
+    static UnitOfWork none() {
+        return new UnitOfWork() {
+            @Override
+            public <T> T execute(UseCase useCase, Supplier<T> work) {
+                return work.get();
+            }
+        };
+    }
+}
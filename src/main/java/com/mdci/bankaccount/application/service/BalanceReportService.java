@@ -0,0 +1,74 @@
+package com.mdci.bankaccount.application.service;
+
+import com.mdci.bankaccount.application.port.out.UnitOfWork;
+import com.mdci.bankaccount.application.port.out.UnitOfWork.UseCase;
+import com.mdci.bankaccount.domain.model.AccountBalance;
+import com.mdci.bankaccount.domain.port.in.IBalanceReportService;
+import com.mdci.bankaccount.domain.port.out.IBankOperationRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Soldes à une date d'un ensemble de comptes, pour les états réglementaires et de fin de mois.
+ * <p>
+ * Chaque paquet d'au plus {@code chunkSize} comptes est calculé par une seule requête agrégée, dans sa propre
+ * transaction, puis transmis avant la lecture du suivant : la mémoire ne dépend pas du nombre de comptes.
+ * Tous les comptes sont parcourus par identifiant croissant, en reprenant après le dernier identifiant lu.
+ */
+public class BalanceReportService implements IBalanceReportService {
+
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    private final IBankOperationRepository operationRepository;
+    private final UnitOfWork unitOfWork;
+    private final int chunkSize;
+
+    public BalanceReportService(IBankOperationRepository operationRepository, UnitOfWork unitOfWork) {
+        this(operationRepository, unitOfWork, DEFAULT_CHUNK_SIZE);
+    }
+
+    public BalanceReportService(IBankOperationRepository operationRepository, UnitOfWork unitOfWork, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("La taille d'un paquet doit être strictement positive.");
+        }
+        this.operationRepository = operationRepository;
+        this.unitOfWork = unitOfWork;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void forEachBalanceAtDate(LocalDate date, Consumer<List<AccountBalance>> chunkConsumer) {
+        String afterAccountId = null;
+        List<AccountBalance> chunk;
+        do {
+            String after = afterAccountId;
+            chunk = unitOfWork.execute(UseCase.BALANCE_REPORT,
+                    () -> operationRepository.findBalancesAtDate(date, after, chunkSize));
+            if (chunk.isEmpty()) {
+                return;
+            }
+            chunkConsumer.accept(chunk);
+            afterAccountId = chunk.get(chunk.size() - 1).accountId();
+        } while (chunk.size() == chunkSize);
+    }
+
+    @Override
+    public void forEachBalanceAtDate(Collection<String> accountIds, LocalDate date,
+                                     Consumer<List<AccountBalance>> chunkConsumer) {
+        // Même ordre que le parcours de tous les comptes, sans doublon
+        List<String> ids = new ArrayList<>(new TreeSet<>(accountIds));
+        for (int start = 0; start < ids.size(); start += chunkSize) {
+            List<String> slice = ids.subList(start, Math.min(start + chunkSize, ids.size()));
+            List<AccountBalance> chunk = unitOfWork.execute(UseCase.BALANCE_REPORT,
+                    () -> operationRepository.findBalancesAtDate(slice, date));
+            if (!chunk.isEmpty()) {
+                chunkConsumer.accept(chunk);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.mdci.bankaccount.application.service;
+
+import com.mdci.bankaccount.application.port.out.UnitOfWork;
+import com.mdci.bankaccount.application.port.out.UnitOfWork.UseCase;
+import com.mdci.bankaccount.domain.exception.AccountNotFoundException;
+import com.mdci.bankaccount.domain.exception.FunctionalException;
+import com.mdci.bankaccount.domain.model.BalancePoint;
+import com.mdci.bankaccount.domain.model.BalanceSeries;
+import com.mdci.bankaccount.domain.model.DailyNetChange;
+import com.mdci.bankaccount.domain.model.Granularity;
+import com.mdci.bankaccount.domain.model.Money;
+import com.mdci.bankaccount.domain.port.in.IBalanceSeriesService;
+import com.mdci.bankaccount.domain.port.out.IBankAccountRepository;
+import com.mdci.bankaccount.domain.port.out.IBankOperationRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Série des soldes d'un compte à la fin de chaque période : le solde d'ouverture est lu une fois, puis les
+ * variations journalières cumulées par la base sont parcourues une seule fois dans l'ordre chronologique.
+ * <p>
+ * Au-delà de {@code maxPoints} points, le pas est élargi (jour, semaine, puis mois) et, si cela ne suffit pas,
+ * seule une fin de période sur k est gardée ; la fin de la période demandée figure toujours dans la série.
+ */
+public class BalanceSeriesService implements IBalanceSeriesService {
+
+    public static final int DEFAULT_MAX_POINTS = 400;
+
+    private final IBankAccountRepository accountRepository;
+    private final IBankOperationRepository operationRepository;
+    private final UnitOfWork unitOfWork;
+    private final int maxPoints;
+
+    public BalanceSeriesService(IBankAccountRepository accountRepository, IBankOperationRepository operationRepository,
+                                UnitOfWork unitOfWork) {
+        this(accountRepository, operationRepository, unitOfWork, DEFAULT_MAX_POINTS);
+    }
+
+    public BalanceSeriesService(IBankAccountRepository accountRepository, IBankOperationRepository operationRepository,
+                                UnitOfWork unitOfWork, int maxPoints) {
+        if (maxPoints < 2) {
+            throw new IllegalArgumentException("Une série doit pouvoir compter au moins deux points.");
+        }
+        this.accountRepository = accountRepository;
+        this.operationRepository = operationRepository;
+        this.unitOfWork = unitOfWork;
+        this.maxPoints = maxPoints;
+    }
+
+    @Override
+    public BalanceSeries getBalanceSeries(String accountId, LocalDate from, LocalDate to, Granularity granularity) {
+        if (from.isAfter(to)) {
+            throw new FunctionalException("La date de début doit être antérieure à la date de fin.");
+        }
+        return unitOfWork.execute(UseCase.BALANCE_SERIES, () -> {
+            if (!accountRepository.existsById(accountId)) {
+                throw new AccountNotFoundException("Aucun compte trouvé pour l'identifiant : " + accountId);
+            }
+
+            Granularity step = granularity;
+            List<LocalDate> ends = periodEnds(from, to, step);
+            boolean downsampled = false;
+            while (ends == null && step.coarser() != null) {
+                step = step.coarser();
+                ends = periodEnds(from, to, step);
+                downsampled = true;
+            }
+            if (ends == null) {
+                ends = thin(allPeriodEnds(from, to, step));
+                downsampled = true;
+            }
+
+            Money balance = Money.of(operationRepository.findBalanceAtDate(accountId, from.minusDays(1)));
+            List<DailyNetChange> changes = operationRepository.findDailyNetChanges(accountId, from, to);
+            List<BalancePoint> points = new ArrayList<>(ends.size());
+            int next = 0;
+            for (LocalDate end : ends) {
+                while (next < changes.size() && !changes.get(next).day().isAfter(end)) {
+                    balance = balance.add(changes.get(next++).net());
+                }
+                points.add(new BalancePoint(end, balance));
+            }
+            return new BalanceSeries(accountId, from, to, step, downsampled, List.copyOf(points));
+        });
+    }
+
+    /**
+     * Fins de période de {@code from} à {@code to}, la dernière étant {@code to} ; {@code null} au-delà de {@code maxPoints}.
+     */
+    private List<LocalDate> periodEnds(LocalDate from, LocalDate to, Granularity step) {
+        List<LocalDate> ends = new ArrayList<>();
+        for (LocalDate end = step.endOfPeriod(from); ; end = step.endOfPeriod(end.plusDays(1))) {
+            if (ends.size() == maxPoints) {
+                return null;
+            }
+            if (!end.isBefore(to)) {
+                ends.add(to);
+                return ends;
+            }
+            ends.add(end);
+        }
+    }
+
+    private static List<LocalDate> allPeriodEnds(LocalDate from, LocalDate to, Granularity step) {
+        List<LocalDate> ends = new ArrayList<>();
+        for (LocalDate end = step.endOfPeriod(from); end.isBefore(to); end = step.endOfPeriod(end.plusDays(1))) {
+            ends.add(end);
+        }
+        ends.add(to);
+        return ends;
+    }
+
+    /**
+     * Garde une fin de période sur k en partant de la dernière, pour rester sous {@code maxPoints}.
+     */
+    private List<LocalDate> thin(List<LocalDate> ends) {
+        int stride = (ends.size() + maxPoints - 1) / maxPoints;
+        List<LocalDate> kept = new ArrayList<>();
+        for (int i = ends.size() - 1; i >= 0; i -= stride) {
+            kept.add(ends.get(i));
+        }
+        return kept.reversed();
+    }
+}
@@ -1,60 +1,50 @@
 package com.mdci.bankaccount.application.service;
 
 import com.mdci.bankaccount.domain.exception.AccountNotFoundException;
-import com.mdci.bankaccount.domain.model.*;
+import com.mdci.bankaccount.domain.model.BankAccount;
 import com.mdci.bankaccount.domain.port.out.IBankAccountRepository;
-import com.mdci.bankaccount.domain.port.out.IBankOperationRepository;
-
-import java.util.List;
 
 public class BankAccountLoader {
 
     private final IBankAccountRepository accountRepository;
-    private final IBankOperationRepository operationRepository;
+    private final boolean lockOnWrite;
 
-    public BankAccountLoader(IBankAccountRepository accountRepository,
-                             IBankOperationRepository operationRepository) {
-        this.accountRepository = accountRepository;
-        this.operationRepository = operationRepository;
+    public BankAccountLoader(IBankAccountRepository accountRepository) {
+        this(accountRepository, false);
     }
 
-    public BankAccount loadWithHistory(String accountId) {
-        BankAccount base = accountRepository.findById(accountId)
-                .orElseThrow(() -> new AccountNotFoundException("Aucun compte trouvé pour l'identifiant : " + accountId));
-
-        List<BankOperation> history = operationRepository.findAllByAccountId(accountId);
-
-        return BankAccountFactory.rehydrate(
-                base.getId(),
-                base.getOperationFactory(),
-                base.getAuthorizedOverdraft(),
-                history,
-                base.getAccountType(),
-                getDepositCeiling(base)
-        );
+    /**
+     * @param lockOnWrite si vrai, {@link #loadForUpdate(String)} verrouille le compte en base
+     */
+    public BankAccountLoader(IBankAccountRepository accountRepository, boolean lockOnWrite) {
+        this.accountRepository = accountRepository;
+        this.lockOnWrite = lockOnWrite;
     }
 
     public BankAccount loadWithoutHistory(String accountId) {
-        BankAccount base = accountRepository.findById(accountId)
+        // Le solde est lu tel que stocké : aucun rejeu de l'historique
+        return accountRepository.findByIdWithoutHistory(accountId)
                 .orElseThrow(() -> new AccountNotFoundException("Aucun compte trouvé pour l'identifiant : " + accountId));
-
-        // on va juste reconstituer le solde sans les opérations
-        Money balance = new Money(base.getBalance());
-
-        return BankAccountFactory.rehydrateWithBalanceOnly(
-                base.getId(),
-                base.getOperationFactory(),
-                balance,
-                base.getAuthorizedOverdraft(),
-                base.getAccountType(),
-                getDepositCeiling(base)
-        );
     }
 
-    private Money getDepositCeiling(BankAccount base) {
-        if (base instanceof SavingsAccount savingsAccount) {
-            return savingsAccount.getDepositCeiling();
+    /**
+     * Charge le compte avant une écriture (dépôt, retrait). En mode verrouillé, les autres écritures
+     * sur ce compte attendent en base la fin de la transaction appelante.
+     */
+    public BankAccount loadForUpdate(String accountId) {
+        if (!lockOnWrite) {
+            return loadWithoutHistory(accountId);
         }
-        return Money.zero();
+        return accountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> new AccountNotFoundException("Aucun compte trouvé pour l'identifiant : " + accountId));
+    }
+
+    /**
+     * Charge le compte en le verrouillant en base quel que soit le mode de concurrence : son solde, sa version
+     * et son nombre d'opérations ne bougent plus jusqu'à la fin de la transaction appelante.
+     */
+    public BankAccount loadLocked(String accountId) {
+        return accountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> new AccountNotFoundException("Aucun compte trouvé pour l'identifiant : " + accountId));
     }
 }
@@ -1,5 +1,9 @@
 package com.mdci.bankaccount.application.service;
 
+import com.mdci.bankaccount.application.port.out.UnitOfWork;
+import com.mdci.bankaccount.application.port.out.UnitOfWork.UseCase;
+import com.mdci.bankaccount.domain.exception.AccountNotFoundException;
+import com.mdci.bankaccount.domain.exception.FunctionalException;
 import com.mdci.bankaccount.domain.model.*;
 import com.mdci.bankaccount.domain.port.in.IBankAccountService;
 import com.mdci.bankaccount.domain.port.out.BankOperationFactory;
@@ -7,23 +11,34 @@ import com.mdci.bankaccount.domain.port.out.IBankAccountRepository;
 import com.mdci.bankaccount.domain.port.out.IBankOperationRepository;
 
 import java.time.Clock;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 
 public class BankAccountService implements IBankAccountService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final IBankAccountRepository repository;
     private final IBankOperationRepository operationRepository;
     private final BankOperationFactory operationFactory;
     private final Clock clock;
     private final BankAccountLoader accountLoader;
+    private final UnitOfWork unitOfWork;
 
     public BankAccountService(IBankOperationRepository operationRepository, IBankAccountRepository repository, BankOperationFactory operationFactory, Clock clock,
                               BankAccountLoader accountLoader) {
+        this(operationRepository, repository, operationFactory, clock, accountLoader, UnitOfWork.none());
+    }
+
+    public BankAccountService(IBankOperationRepository operationRepository, IBankAccountRepository repository, BankOperationFactory operationFactory, Clock clock,
+                              BankAccountLoader accountLoader, UnitOfWork unitOfWork) {
         this.operationRepository = Objects.requireNonNull(operationRepository, "Le operation repository ne doit pas être nul.");
         this.repository = Objects.requireNonNull(repository, "Le account repository ne doit pas être nul.");
         this.operationFactory = Objects.requireNonNull(operationFactory, "La factory d'opérations ne doit pas être nulle.");
         this.clock = Objects.requireNonNull(clock, "L'horloge (Clock) ne doit pas être nulle.");
         this.accountLoader = accountLoader;
+        this.unitOfWork = Objects.requireNonNull(unitOfWork, "L'unité de travail ne doit pas être nulle.");
     }
 
     @Override
@@ -44,17 +59,38 @@ public class BankAccountService implements IBankAccountService {
 
         BankOperation initOp = account.getHistory().isEmpty() ? null : account.getHistory().get(0);
 
-        // Persistance
-        account = repository.save(account);
-
-        if (initOp != null) {
-            operationRepository.save(account, initOp);
-        }
-        return account;
+        // Persistance : le compte et son dépôt initial sont enregistrés ensemble ou pas du tout
+        return unitOfWork.execute(UseCase.CREATE_ACCOUNT, () -> {
+            BankAccount saved = repository.save(account);
+            if (initOp != null) {
+                operationRepository.save(saved, initOp);
+            }
+            return saved;
+        });
     }
 
     @Override
     public BankAccount getAccount(String accountId) {
-        return accountLoader.loadWithHistory(accountId);
+        // La réponse n'expose que le solde : inutile de relire l'historique
+        return unitOfWork.execute(UseCase.GET_ACCOUNT, () -> accountLoader.loadWithoutHistory(accountId));
+    }
+
+    @Override
+    public OperationPage getOperations(String accountId, OperationCursor after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new FunctionalException("Le nombre d'opérations par page doit être compris entre 1 et " + MAX_PAGE_SIZE + ".");
+        }
+        return unitOfWork.execute(UseCase.OPERATION_HISTORY, () -> {
+            if (!repository.existsById(accountId)) {
+                throw new AccountNotFoundException("Aucun compte trouvé pour l'identifiant : " + accountId);
+            }
+            // Une opération de plus que demandé : indique s'il reste une page sans requête supplémentaire
+            List<BankOperation> operations = operationRepository.findLatestByAccountId(accountId, after, limit + 1);
+            if (operations.size() <= limit) {
+                return new OperationPage(operations, null);
+            }
+            List<BankOperation> page = operations.subList(0, limit);
+            return new OperationPage(List.copyOf(page), OperationCursor.after(page.get(limit - 1)));
+        });
     }
 }
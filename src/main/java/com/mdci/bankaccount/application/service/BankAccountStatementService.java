@@ -1,50 +1,157 @@
 package com.mdci.bankaccount.application.service;
 
+import com.mdci.bankaccount.application.port.out.UnitOfWork;
+import com.mdci.bankaccount.application.port.out.UnitOfWork.UseCase;
 import com.mdci.bankaccount.domain.exception.AccountNotFoundException;
 import com.mdci.bankaccount.domain.exception.FunctionalException;
 import com.mdci.bankaccount.domain.model.AccountStatement;
+import com.mdci.bankaccount.domain.model.AccountStatementSummary;
 import com.mdci.bankaccount.domain.model.BankAccount;
 import com.mdci.bankaccount.domain.model.BankOperation;
+import com.mdci.bankaccount.domain.model.OperationRangeVersion;
+import com.mdci.bankaccount.domain.model.OperationTotals;
+import com.mdci.bankaccount.domain.model.StatementVersion;
+import com.mdci.bankaccount.domain.model.StoredBalance;
 import com.mdci.bankaccount.domain.port.in.IBankAccountStatementService;
 import com.mdci.bankaccount.domain.port.out.IBankAccountRepository;
 import com.mdci.bankaccount.domain.port.out.IBankOperationRepository;
 
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 public class BankAccountStatementService implements IBankAccountStatementService {
 
     private final IBankAccountRepository accountRepository;
     private final IBankOperationRepository operationRepository;
+    private final UnitOfWork unitOfWork;
+    private final Clock clock;
 
     public BankAccountStatementService(IBankAccountRepository accountRepository, IBankOperationRepository operationRepository) {
+        this(accountRepository, operationRepository, Clock.systemUTC(), UnitOfWork.none());
+    }
+
+    public BankAccountStatementService(IBankAccountRepository accountRepository, IBankOperationRepository operationRepository,
+                                       UnitOfWork unitOfWork) {
+        this(accountRepository, operationRepository, Clock.systemUTC(), unitOfWork);
+    }
+
+    public BankAccountStatementService(IBankAccountRepository accountRepository, IBankOperationRepository operationRepository,
+                                       Clock clock, UnitOfWork unitOfWork) {
         this.accountRepository = accountRepository;
         this.operationRepository = operationRepository;
+        this.clock = Objects.requireNonNull(clock, "L'horloge (Clock) ne doit pas être nulle.");
+        this.unitOfWork = unitOfWork;
     }
 
+    @Override
     public AccountStatement generateStatementForPeriod(String accountId, LocalDateTime from, LocalDateTime to) {
-        BankAccount account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new AccountNotFoundException("Aucun compte trouvé avec l’ID : " + accountId));
+        return unitOfWork.execute(UseCase.STATEMENT, () -> buildStatement(accountId, from, to));
+    }
 
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime periodFrom = from != null ? from : now.minusMonths(1);
-        LocalDateTime periodTo = to != null ? to : now;
+    @Override
+    public AccountStatementSummary summarizeStatementForPeriod(String accountId, LocalDateTime from, LocalDateTime to) {
+        return unitOfWork.execute(UseCase.STATEMENT, () -> buildSummary(accountId, from, to));
+    }
 
-        if (periodFrom.isAfter(periodTo)) {
-            throw new FunctionalException("La date de début doit être antérieure à la date de fin.");
-        }
+    @Override
+    public StatementVersion getStatementVersion(String accountId, LocalDateTime from, LocalDateTime to) {
+        return unitOfWork.execute(UseCase.STATEMENT, () -> {
+            StoredBalance balance = accountRepository.findStoredBalanceById(accountId)
+                    .orElseThrow(() -> new AccountNotFoundException("Aucun compte trouvé avec l’ID : " + accountId));
+            Period period = Period.resolve(from, to, LocalDateTime.now(clock));
+            OperationRangeVersion operations = operationRepository
+                    .findOperationRangeVersion(accountId, period.from(), period.to());
+            BigDecimal currentBalance = balance.balance().amount();
+            BigDecimal closingBalance = period.closed()
+                    ? operationRepository.findBalanceAt(accountId, period.to())
+                    : currentBalance;
+            return new StatementVersion(accountId, period.from(), period.to(), period.closed(),
+                    currentBalance, closingBalance, operations);
+        });
+    }
 
+    @Override
+    public void forEachStatementOperation(AccountStatementSummary summary, Consumer<BankOperation> action) {
+        // Transaction ouverte pendant tout le parcours : le curseur de lecture en dépend
+        unitOfWork.execute(UseCase.STATEMENT, () -> {
+            operationRepository.forEachByAccountIdBetweenDates(summary.accountId(), summary.from(), summary.to(), action);
+            return null;
+        });
+    }
+
+    private AccountStatement buildStatement(String accountId, LocalDateTime from, LocalDateTime to) {
+        AccountStatementSummary summary = buildSummary(accountId, from, to);
         List<BankOperation> operations = operationRepository
-                .findAllByAccountIdBetweenDates(accountId, periodFrom, periodTo);
+                .findAllByAccountIdBetweenDates(accountId, summary.from(), summary.to());
 
         return new AccountStatement(
+                summary.accountId(),
+                summary.accountType(),
+                summary.currentBalance(),
+                summary.closingBalance(),
+                summary.periodClosed(),
+                summary.issuedAt(),
+                summary.from(),
+                summary.to(),
+                operations,
+                summary.totals()
+        );
+    }
+
+    private AccountStatementSummary buildSummary(String accountId, LocalDateTime from, LocalDateTime to) {
+        BankAccount account = accountRepository.findByIdWithoutHistory(accountId)
+                .orElseThrow(() -> new AccountNotFoundException("Aucun compte trouvé avec l’ID : " + accountId));
+
+        Period period = Period.resolve(from, to, LocalDateTime.now(clock));
+        LocalDateTime periodFrom = period.from();
+        LocalDateTime periodTo = period.to();
+
+        // Totaux cumulés par la base, indépendamment du nombre d'opérations effectivement détaillées
+        OperationTotals totals = operationRepository.findTotalsBetweenDates(accountId, periodFrom, periodTo);
+
+        // Période close : son solde de fin ne bouge plus avec les opérations postérieures
+        BigDecimal closingBalance = period.closed()
+                ? operationRepository.findBalanceAt(accountId, periodTo)
+                : account.getBalance();
+
+        return new AccountStatementSummary(
                 account.getId(),
                 account.getAccountType(),
                 account.getBalance(),
+                closingBalance,
+                period.closed(),
                 periodTo,
                 periodFrom,
                 periodTo,
-                operations
+                totals
         );
     }
+
+    /**
+     * Bornes retenues pour un relevé : par défaut, du début du jour il y a un mois à la fin du jour courant.
+     * Ces bornes ne bougent pas d'une requête à l'autre dans la journée, la version du relevé non plus.
+     * Une période est close quand sa fin demandée est passée, à l'horloge de l'application.
+     */
+    private record Period(LocalDateTime from, LocalDateTime to, boolean closed) {
+
+        // Dernier instant représentable en base (précision microseconde) pour une journée donnée
+        private static final LocalTime END_OF_DAY = LocalTime.of(23, 59, 59, 999_999_000);
+
+        static Period resolve(LocalDateTime from, LocalDateTime to, LocalDateTime now) {
+            LocalDate today = now.toLocalDate();
+            Period period = new Period(from != null ? from : today.minusMonths(1).atStartOfDay(),
+                    to != null ? to : today.atTime(END_OF_DAY),
+                    to != null && to.isBefore(now));
+            if (period.from().isAfter(period.to())) {
+                throw new FunctionalException("La date de début doit être antérieure à la date de fin.");
+            }
+            return period;
+        }
+    }
 }
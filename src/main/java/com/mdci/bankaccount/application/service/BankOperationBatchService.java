@@ -0,0 +1,121 @@
+package com.mdci.bankaccount.application.service;
+
+import com.mdci.bankaccount.application.port.out.AccountConcurrencyControl;
+import com.mdci.bankaccount.application.port.out.UnitOfWork;
+import com.mdci.bankaccount.application.port.out.UnitOfWork.UseCase;
+import com.mdci.bankaccount.domain.exception.AccountNotFoundException;
+import com.mdci.bankaccount.domain.exception.FunctionalException;
+import com.mdci.bankaccount.domain.exception.InsufficientBalanceException;
+import com.mdci.bankaccount.domain.exception.InvalidAmountException;
+import com.mdci.bankaccount.domain.model.BankAccount;
+import com.mdci.bankaccount.domain.model.BankOperation;
+import com.mdci.bankaccount.domain.model.BatchMode;
+import com.mdci.bankaccount.domain.model.BatchOperationCommand;
+import com.mdci.bankaccount.domain.model.BatchOperationResult;
+import com.mdci.bankaccount.domain.port.in.IBankOperationBatchService;
+import com.mdci.bankaccount.domain.port.out.IBankOperationRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Applique un lot de dépôts et retraits dans une seule transaction. Les lignes sont regroupées par compte :
+ * chaque compte est chargé une fois et verrouillé en base, ses lignes sont vérifiées dans l'ordre en mémoire,
+ * puis ses opérations sont enregistrées ensemble.
+ */
+public class BankOperationBatchService implements IBankOperationBatchService {
+
+    private final BankAccountLoader accountLoader;
+    private final IBankOperationRepository operationRepository;
+    private final AccountConcurrencyControl concurrencyControl;
+    private final UnitOfWork unitOfWork;
+
+    public BankOperationBatchService(BankAccountLoader accountLoader,
+                                     IBankOperationRepository operationRepository,
+                                     AccountConcurrencyControl concurrencyControl,
+                                     UnitOfWork unitOfWork) {
+        this.accountLoader = accountLoader;
+        this.operationRepository = operationRepository;
+        this.concurrencyControl = concurrencyControl;
+        this.unitOfWork = unitOfWork;
+    }
+
+    @Override
+    public List<BatchOperationResult> apply(List<BatchOperationCommand> commands, BatchMode mode) {
+        if (commands == null || commands.isEmpty()) {
+            throw new FunctionalException("Le lot doit contenir au moins une opération.");
+        }
+        // Comptes triés par identifiant : ordre stable de chargement, donc de verrouillage en base
+        Map<String, List<Integer>> linesByAccount = new TreeMap<>();
+        for (int i = 0; i < commands.size(); i++) {
+            linesByAccount.computeIfAbsent(commands.get(i).accountId(), id -> new ArrayList<>()).add(i);
+        }
+
+        return concurrencyControl.executeAll(linesByAccount.keySet(), () ->
+                unitOfWork.execute(UseCase.BATCH_OPERATIONS, () -> process(commands, linesByAccount, mode)));
+    }
+
+    private List<BatchOperationResult> process(List<BatchOperationCommand> commands,
+                                               Map<String, List<Integer>> linesByAccount,
+                                               BatchMode mode) {
+        BatchOperationResult[] results = new BatchOperationResult[commands.size()];
+        List<PendingOperations> pending = new ArrayList<>(linesByAccount.size());
+        boolean rejected = false;
+
+        for (Map.Entry<String, List<Integer>> entry : linesByAccount.entrySet()) {
+            String accountId = entry.getKey();
+            BankAccount account;
+            try {
+                // Verrou de ligne : un dépôt ou retrait concurrent attend la fin du lot au lieu de le faire échouer
+                account = accountLoader.loadLocked(accountId);
+            } catch (AccountNotFoundException e) {
+                entry.getValue().forEach(i -> results[i] = BatchOperationResult.rejected(i, accountId, e.getMessage()));
+                rejected = true;
+                continue;
+            }
+
+            PendingOperations accountPending = new PendingOperations(account, new ArrayList<>(), new ArrayList<>());
+            for (int i : entry.getValue()) {
+                try {
+                    BankOperation operation = applyTo(account, commands.get(i));
+                    results[i] = BatchOperationResult.applied(i, accountId, operation);
+                    accountPending.lines().add(i);
+                    accountPending.operations().add(operation);
+                } catch (InsufficientBalanceException | InvalidAmountException | FunctionalException e) {
+                    // Une opération refusée ne modifie pas le compte : les lignes suivantes repartent du même solde
+                    results[i] = BatchOperationResult.rejected(i, accountId, e.getMessage());
+                    rejected = true;
+                }
+            }
+            pending.add(accountPending);
+        }
+
+        if (rejected && mode == BatchMode.ATOMIC) {
+            return Arrays.stream(results)
+                    .map(result -> result.status() == BatchOperationResult.Status.APPLIED ? result.cancelled() : result)
+                    .toList();
+        }
+
+        for (PendingOperations accountPending : pending) {
+            List<BankOperation> saved = operationRepository.saveAll(accountPending.account(), accountPending.operations());
+            for (int k = 0; k < saved.size(); k++) {
+                int line = accountPending.lines().get(k);
+                results[line] = BatchOperationResult.applied(line, accountPending.account().getId(), saved.get(k));
+            }
+        }
+        return List.of(results);
+    }
+
+    private BankOperation applyTo(BankAccount account, BatchOperationCommand command) {
+        return switch (command.type()) {
+            case DEPOSIT -> account.deposit(command.amount());
+            case WITHDRAWAL -> account.withdraw(command.amount());
+        };
+    }
+
+    private record PendingOperations(BankAccount account, List<Integer> lines, List<BankOperation> operations) {
+    }
+}
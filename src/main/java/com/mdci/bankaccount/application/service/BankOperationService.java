@@ -1,48 +1,83 @@
 package com.mdci.bankaccount.application.service;
 
+import com.mdci.bankaccount.application.port.out.AccountConcurrencyControl;
+import com.mdci.bankaccount.application.port.out.UnitOfWork;
+import com.mdci.bankaccount.application.port.out.UnitOfWork.UseCase;
 import com.mdci.bankaccount.domain.exception.AccountNotFoundException;
 import com.mdci.bankaccount.domain.model.BankAccount;
-import com.mdci.bankaccount.domain.model.BankOperation;
 import com.mdci.bankaccount.domain.model.Money;
 import com.mdci.bankaccount.domain.port.in.IBankOperationService;
 import com.mdci.bankaccount.domain.port.out.IBankOperationRepository;
 import com.mdci.bankaccount.domain.port.out.IBankAccountRepository;
-import com.mdci.bankaccount.domain.model.BankAccountFactory;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.List;
+import java.time.LocalDateTime;
 
 public class BankOperationService implements IBankOperationService {
     private final IBankAccountRepository accountRepository;
     private final IBankOperationRepository operationRepository;
     private final BankAccountLoader accountLoader;
+    private final AccountConcurrencyControl concurrencyControl;
+    private final UnitOfWork unitOfWork;
 
     public BankOperationService(BankAccountLoader accountLoader, IBankAccountRepository accountRepository,
                                 IBankOperationRepository operationRepository) {
+        this(accountLoader, accountRepository, operationRepository, AccountConcurrencyControl.none());
+    }
+
+    public BankOperationService(BankAccountLoader accountLoader, IBankAccountRepository accountRepository,
+                                IBankOperationRepository operationRepository, AccountConcurrencyControl concurrencyControl) {
+        this(accountLoader, accountRepository, operationRepository, concurrencyControl, UnitOfWork.none());
+    }
+
+    public BankOperationService(BankAccountLoader accountLoader, IBankAccountRepository accountRepository,
+                                IBankOperationRepository operationRepository, AccountConcurrencyControl concurrencyControl,
+                                UnitOfWork unitOfWork) {
         this.accountLoader = accountLoader;
         this.accountRepository = accountRepository;
         this.operationRepository = operationRepository;
+        this.concurrencyControl = concurrencyControl;
+        this.unitOfWork = unitOfWork;
     }
 
     @Override
     public void deposit(String accountId, Money amount) {
-        BankAccount account = accountLoader.loadWithHistory(accountId);
-        operationRepository.save(account, account.deposit(amount));
+        // Le contrôle de concurrence englobe la transaction : un verrou est relâché après validation,
+        // et une nouvelle tentative repart d'une transaction neuve
+        concurrencyControl.execute(accountId, () -> unitOfWork.execute(UseCase.DEPOSIT, () -> {
+            BankAccount account = accountLoader.loadForUpdate(accountId);
+            return operationRepository.save(account, account.deposit(amount));
+        }));
     }
 
     @Override
     public void withdraw(String accountId, Money amount) {
-        BankAccount account = accountLoader.loadWithHistory(accountId);
-        operationRepository.save(account, account.withdraw(amount));
+        concurrencyControl.execute(accountId, () -> unitOfWork.execute(UseCase.WITHDRAW, () -> {
+            BankAccount account = accountLoader.loadForUpdate(accountId);
+            return operationRepository.save(account, account.withdraw(amount));
+        }));
     }
 
     @Override
     public BigDecimal getBalanceAtDate(String accountId, LocalDate date) {
-        accountRepository.findById(accountId)
-                .orElseThrow(() -> new AccountNotFoundException("Aucun compte trouvé pour l'identifiant : " + accountId));
+        return unitOfWork.execute(UseCase.BALANCE_AT_DATE, () -> {
+            if (!accountRepository.existsById(accountId)) {
+                throw new AccountNotFoundException("Aucun compte trouvé pour l'identifiant : " + accountId);
+            }
+
+            return operationRepository.findBalanceAtDate(accountId, date);
+        });
+    }
+
+    @Override
+    public BigDecimal getBalanceAt(String accountId, LocalDateTime at) {
+        return unitOfWork.execute(UseCase.BALANCE_AT_DATE, () -> {
+            if (!accountRepository.existsById(accountId)) {
+                throw new AccountNotFoundException("Aucun compte trouvé pour l'identifiant : " + accountId);
+            }
 
-        List<BankOperation> operations = operationRepository.findAllByAccountIdUntilDate(accountId, date);
-        return BankAccountFactory.computeBalanceFromOperations(operations);
+            return operationRepository.findBalanceAt(accountId, at);
+        });
     }
 }
@@ -0,0 +1,7 @@
+package com.mdci.bankaccount.domain.exception;
+
+public class ConcurrentAccountUpdateException extends RuntimeException {
+    public ConcurrentAccountUpdateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.mdci.bankaccount.domain.model;
+
+/**
+ * Solde d'un compte à une date donnée.
+ */
+public record AccountBalance(String accountId, Money balance) {
+}
@@ -0,0 +1,23 @@
+package com.mdci.bankaccount.domain.model;
+
+import com.mdci.bankaccount.domain.port.out.BankOperationFactory;
+
+/**
+ * Caractéristiques d'un compte qui ne changent pas au fil des opérations : type, découvert autorisé
+ * et plafond (livret). Ne porte ni solde ni historique.
+ */
+public record AccountMetadata(String id, AccountType accountType, Money authorizedOverdraft, Money depositCeiling) {
+
+    public static AccountMetadata of(BankAccount account) {
+        Money ceiling = account instanceof SavingsAccount savings ? savings.getDepositCeiling() : Money.zero();
+        return new AccountMetadata(account.getId(), account.getAccountType(), account.getAuthorizedOverdraft(), ceiling);
+    }
+
+    /**
+     * Reconstitue le compte à partir de ces caractéristiques et de son solde stocké.
+     */
+    public BankAccount rehydrate(BankOperationFactory operationFactory, StoredBalance balance) {
+        return BankAccountFactory.rehydrateWithBalanceOnly(id, operationFactory, balance.balance(), authorizedOverdraft,
+                accountType, depositCeiling, balance.version(), balance.operationCount());
+    }
+}
@@ -8,9 +8,21 @@ public record AccountStatement(
         String accountId,
         AccountType accountType,
         BigDecimal currentBalance,
+        BigDecimal closingBalance,
+        boolean periodClosed,
         LocalDateTime issuedAt,
         LocalDateTime from,
         LocalDateTime to,
-        List<BankOperation> operations
+        List<BankOperation> operations,
+        OperationTotals totals
 ) {
+
+    /**
+     * Relevé d'une période en cours, dont les totaux sont calculés à partir des opérations fournies.
+     */
+    public AccountStatement(String accountId, AccountType accountType, BigDecimal currentBalance, LocalDateTime issuedAt,
+                            LocalDateTime from, LocalDateTime to, List<BankOperation> operations) {
+        this(accountId, accountType, currentBalance, currentBalance, false, issuedAt, from, to, operations,
+                OperationTotals.of(operations));
+    }
 }
@@ -0,0 +1,22 @@
+package com.mdci.bankaccount.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * En-tête d'un relevé : le compte, la période retenue et ses totaux, sans le détail des opérations.
+ * {@code currentBalance} est le solde actuel du compte ; {@code closingBalance} son solde à la fin de la période,
+ * égal au solde actuel tant que la période n'est pas close ({@code periodClosed}).
+ */
+public record AccountStatementSummary(
+        String accountId,
+        AccountType accountType,
+        BigDecimal currentBalance,
+        BigDecimal closingBalance,
+        boolean periodClosed,
+        LocalDateTime issuedAt,
+        LocalDateTime from,
+        LocalDateTime to,
+        OperationTotals totals
+) {
+}
@@ -0,0 +1,9 @@
+package com.mdci.bankaccount.domain.model;
+
+import java.time.LocalDate;
+
+/**
+ * Solde du compte à la fin de la journée {@code date}.
+ */
+public record BalancePoint(LocalDate date, Money balance) {
+}
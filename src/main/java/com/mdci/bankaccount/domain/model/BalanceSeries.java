@@ -0,0 +1,19 @@
+package com.mdci.bankaccount.domain.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Soldes d'un compte à la fin de chaque période entre {@code from} et {@code to}. {@code granularity} est le pas
+ * effectivement retenu : il est élargi, et des points sont écartés ({@code downsampled}), quand la période demandée
+ * en compterait trop.
+ */
+public record BalanceSeries(
+        String accountId,
+        LocalDate from,
+        LocalDate to,
+        Granularity granularity,
+        boolean downsampled,
+        List<BalancePoint> points
+) {
+}
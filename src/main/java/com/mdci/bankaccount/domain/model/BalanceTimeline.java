@@ -0,0 +1,124 @@
+package com.mdci.bankaccount.domain.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Soldes cumulés d'un compte, rangés par date d'opération : le solde à un instant donné s'obtient par
+ * recherche dichotomique au lieu d'un parcours de l'historique.
+ * <p>
+ * Les dates sont conservées en microsecondes depuis l'époque (UTC), précision des horodatages en base.
+ * Le solde garde la plus grande échelle des montants ajoutés. Non synchronisé : une instance partagée
+ * entre threads doit être protégée par l'appelant.
+ */
+public final class BalanceTimeline {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] instants;
+    private long[] balances;
+    private int size;
+    private int scale;
+
+    private BalanceTimeline(int capacity) {
+        this.instants = new long[capacity];
+        this.balances = new long[capacity];
+    }
+
+    public static BalanceTimeline of(List<BankOperation> operations) {
+        BankOperation[] sorted = operations.toArray(BankOperation[]::new);
+        // Tri stable : à date égale, l'ordre d'enregistrement est conservé
+        Arrays.sort(sorted, Comparator.comparing(BankOperation::timestamp));
+        BalanceTimeline timeline = new BalanceTimeline(Math.max(sorted.length, INITIAL_CAPACITY));
+        for (BankOperation operation : sorted) {
+            timeline.add(instantOf(operation.timestamp()), operation);
+        }
+        return timeline;
+    }
+
+    /**
+     * Ajoute une opération strictement postérieure à la dernière connue.
+     * Retourne {@code false} sans rien modifier sinon : l'opération est peut-être déjà comptée, ou antidatée,
+     * et la chronologie doit être reconstruite.
+     */
+    public boolean append(BankOperation operation) {
+        long instant = instantOf(operation.timestamp());
+        if (size > 0 && instant <= instants[size - 1]) {
+            return false;
+        }
+        add(instant, operation);
+        return true;
+    }
+
+    /**
+     * Solde après toutes les opérations datées au plus tard de {@code at}.
+     */
+    public Money balanceAt(LocalDateTime at) {
+        int count = countUntil(instantOf(at));
+        return count == 0 ? Money.zero() : Money.ofMinorUnits(balances[count - 1], scale);
+    }
+
+    /**
+     * Solde à la fin de la journée donnée.
+     */
+    public Money balanceAtEndOf(LocalDate day) {
+        return balanceAt(day.atTime(LocalTime.MAX));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void add(long instant, BankOperation operation) {
+        if (size == instants.length) {
+            int capacity = instants.length + (instants.length >> 1) + 1;
+            instants = Arrays.copyOf(instants, capacity);
+            balances = Arrays.copyOf(balances, capacity);
+        }
+        long previous = size == 0 ? 0 : balances[size - 1];
+        Money amount = operation.amount();
+        try {
+            balances[size] = switch (operation.type()) {
+                case DEPOSIT -> Math.addExact(previous, amount.minorUnits());
+                case WITHDRAWAL -> Math.subtractExact(previous, amount.minorUnits());
+            };
+        } catch (ArithmeticException e) {
+            throw Money.overflow();
+        }
+        instants[size] = instant;
+        scale = Math.max(scale, amount.scale());
+        size++;
+    }
+
+    /**
+     * Nombre d'opérations datées au plus tard de {@code instant}.
+     */
+    private int countUntil(long instant) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (instants[middle] <= instant) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long instantOf(LocalDateTime timestamp) {
+        try {
+            return ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), timestamp);
+        } catch (ArithmeticException e) {
+            // Dates hors de portée (LocalDateTime.MIN/MAX) : bornes de l'index
+            return timestamp.getYear() < 1970 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+}
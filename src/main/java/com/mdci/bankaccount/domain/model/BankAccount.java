@@ -11,12 +11,18 @@ import java.util.List;
 
 public class BankAccount {
     private final String id;
-    private BigDecimal balance;
+    private Money balance;
     private final Money authorizedOverdraft;
     private final WithdrawalPolicy withdrawalPolicy;
     private final List<BankOperation> operations;
     private final BankOperationFactory operationFactory;
     private final AccountType accountType;
+    // Version lue en base au chargement (null tant que le compte n'a pas été enregistré)
+    private Long version;
+    // Nombre d'opérations enregistrées en base au chargement (null si inconnu)
+    private Long operationCount;
+    // Construite à la première consultation d'un solde passé, oubliée à chaque modification de l'historique
+    private BalanceTimeline timeline;
 
     public BankAccount(String id, BankOperationFactory operationFactory) {
         this(id, operationFactory, new Money(BigDecimal.ZERO), new Money(BigDecimal.ZERO), AccountType.COMPTE_COURANT);
@@ -44,7 +50,7 @@ public class BankAccount {
         this.authorizedOverdraft = authorizedOverdraft != null ? authorizedOverdraft : Money.zero();
         this.withdrawalPolicy = WithdrawalPolicyFactory.create(this);
         this.accountType = accountType != null ? accountType : AccountType.COMPTE_COURANT;
-        this.balance = BigDecimal.ZERO;
+        this.balance = Money.zero();
     }
 
     BankAccount(String id, Money balance, Money authorizedOverdraft, BankOperationFactory operationFactory) {
@@ -52,7 +58,7 @@ public class BankAccount {
     }
     BankAccount(String id, Money balance, Money authorizedOverdraft, BankOperationFactory operationFactory, AccountType accountType) {
         this.id = id;
-        this.balance = balance.amount();
+        this.balance = balance;
         this.operationFactory = operationFactory;
         this.authorizedOverdraft = authorizedOverdraft != null ? authorizedOverdraft : Money.zero();
         this.withdrawalPolicy = WithdrawalPolicyFactory.create(this);
@@ -65,6 +71,13 @@ public class BankAccount {
     }
 
     public BigDecimal getBalance() {
+        return balance.amount();
+    }
+
+    /**
+     * Solde en virgule fixe, pour les calculs du domaine sans conversion en {@link BigDecimal}.
+     */
+    public Money getBalanceMoney() {
         return balance;
     }
 
@@ -84,37 +97,54 @@ public class BankAccount {
         return accountType;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    void assignVersion(Long version) {
+        this.version = version;
+    }
+
+    public Long getOperationCount() {
+        return operationCount;
+    }
+
+    void assignOperationCount(Long operationCount) {
+        this.operationCount = operationCount;
+    }
+
     public BankOperation deposit(Money amount) {
-        this.balance = this.balance.add(amount.amount());
-        BankOperation operation = operationFactory.deposit(amount);
-        this.operations.add(operation);
+        this.balance = this.balance.add(amount);
+        BankOperation operation = operationFactory.deposit(amount).withBalanceAfter(balance.amount());
+        record(operation);
         return operation;
     }
 
     public BankOperation withdraw(Money amount) {
         withdrawalPolicy.checkWithdrawal(this, amount);
-        this.balance = this.balance.subtract(amount.amount());
-        BankOperation operation = operationFactory.withdrawal(amount);
-        this.operations.add(operation);
+        this.balance = this.balance.subtract(amount);
+        BankOperation operation = operationFactory.withdrawal(amount).withBalanceAfter(balance.amount());
+        record(operation);
         return operation;
     }
 
     public void applyOperation(BankOperation operation) {
-        this.balance = this.balance.add(operation.value());
-        this.operations.add(operation);
+        this.balance = switch (operation.type()) {
+            case DEPOSIT -> this.balance.add(operation.amount());
+            case WITHDRAWAL -> this.balance.subtract(operation.amount());
+        };
+        record(operation);
     }
 
     public BigDecimal computeBalanceUntil(LocalDate date) {
-        return operations.stream()
-                .filter(op -> !op.timestamp().toLocalDate().isAfter(date))
-                .map(BankOperation::value)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (timeline == null) {
+            timeline = BalanceTimeline.of(operations);
+        }
+        return timeline.balanceAtEndOf(date).amount();
     }
 
     public BigDecimal computeBalanceFromOperations(List<BankOperation> operations) {
-        return operations.stream()
-                .map(BankOperation::value)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return BankAccountFactory.replayBalance(operations).amount();
     }
 
     void loadOperations(List<BankOperation> operations) {
@@ -124,8 +154,16 @@ public class BankAccount {
 
         this.operations.clear();
         this.operations.addAll(operations);
+        this.timeline = null;
 
         // Recalcule le solde à partir de l'historique complet
-        this.balance = computeBalanceFromOperations(operations);
+        this.balance = BankAccountFactory.replayBalance(operations);
+    }
+
+    private void record(BankOperation operation) {
+        this.operations.add(operation);
+        if (timeline != null && !timeline.append(operation)) {
+            timeline = null;
+        }
     }
 }
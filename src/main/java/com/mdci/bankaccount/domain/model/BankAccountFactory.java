@@ -71,17 +71,65 @@ public class BankAccountFactory {
         };
     }
 
+    /**
+     * Reconstitue un compte depuis la base avec son solde et la version lue, pour un enregistrement optimiste.
+     */
+    public static BankAccount rehydrateWithBalanceOnly(String id,
+                                                       BankOperationFactory operationFactory,
+                                                       Money balance,
+                                                       Money authorizedOverdraft,
+                                                       AccountType accountType,
+                                                       Money depositCeiling,
+                                                       Long version) {
+        return rehydrateWithBalanceOnly(id, operationFactory, balance, authorizedOverdraft, accountType, depositCeiling,
+                version, null);
+    }
+
+    /**
+     * Reconstitue un compte depuis la base avec son solde, la version lue et le nombre d'opérations déjà enregistrées :
+     * sous contrôle de version, les rangs des nouvelles opérations se déduisent de ce nombre sans relecture.
+     */
+    public static BankAccount rehydrateWithBalanceOnly(String id,
+                                                       BankOperationFactory operationFactory,
+                                                       Money balance,
+                                                       Money authorizedOverdraft,
+                                                       AccountType accountType,
+                                                       Money depositCeiling,
+                                                       Long version,
+                                                       Long operationCount) {
+        BankAccount account = rehydrateWithBalanceOnly(id, operationFactory, balance, authorizedOverdraft, accountType, depositCeiling);
+        account.assignVersion(version);
+        account.assignOperationCount(operationCount);
+        return account;
+    }
+
     /**
      * Calcule le solde à partir des opérations (utile pour reconstitution).
      */
     public static BigDecimal computeBalanceFromOperations(List<BankOperation> operations) {
-        BigDecimal balance = BigDecimal.ZERO;
-        for (BankOperation op : operations) {
-            switch (op.type()) {
-                case DEPOSIT -> balance = balance.add(op.amount().amount());
-                case WITHDRAWAL -> balance = balance.subtract(op.amount().amount());
+        return replayBalance(operations).amount();
+    }
+
+    /**
+     * Rejoue toutes les opérations.
+     * Le cumul se fait en centimes sur un {@code long} ; le résultat garde la plus grande échelle rencontrée,
+     * comme le ferait une somme de {@link BigDecimal}.
+     */
+    static Money replayBalance(List<BankOperation> operations) {
+        long minorUnits = 0;
+        int scale = 0;
+        try {
+            for (BankOperation op : operations) {
+                Money amount = op.amount();
+                scale = Math.max(scale, amount.scale());
+                minorUnits = switch (op.type()) {
+                    case DEPOSIT -> Math.addExact(minorUnits, amount.minorUnits());
+                    case WITHDRAWAL -> Math.subtractExact(minorUnits, amount.minorUnits());
+                };
             }
+        } catch (ArithmeticException e) {
+            throw Money.overflow();
         }
-        return balance;
+        return Money.ofMinorUnits(minorUnits, scale);
     }
 }
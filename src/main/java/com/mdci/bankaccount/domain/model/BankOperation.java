@@ -5,10 +5,14 @@ import com.mdci.bankaccount.domain.exception.InvalidAmountException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
-public record BankOperation(String id, OperationType type, Money amount, LocalDateTime timestamp) {
+/**
+ * Opération bancaire. {@code balanceAfter} est le solde du compte juste après l'opération ;
+ * il peut être nul pour une opération pas encore enregistrée ou antérieure à son introduction.
+ */
+public record BankOperation(String id, OperationType type, Money amount, LocalDateTime timestamp, BigDecimal balanceAfter) {
 
     public BankOperation {
-        if (amount == null || amount.amount().compareTo(java.math.BigDecimal.ZERO) < 0) {
+        if (amount == null || amount.isNegative()) {
             throw new InvalidAmountException("Le montant doit être positif et non nul.");
         }
         if (id == null || id.isBlank()) {
@@ -19,6 +23,14 @@ public record BankOperation(String id, OperationType type, Money amount, LocalDa
         }
     }
 
+    public BankOperation(String id, OperationType type, Money amount, LocalDateTime timestamp) {
+        this(id, type, amount, timestamp, null);
+    }
+
+    public BankOperation withBalanceAfter(BigDecimal balanceAfter) {
+        return new BankOperation(id, type, amount, timestamp, balanceAfter);
+    }
+
     public BigDecimal value() {
         return switch (type) {
             case DEPOSIT -> amount.amount();
@@ -30,4 +42,3 @@ public record BankOperation(String id, OperationType type, Money amount, LocalDa
         DEPOSIT, WITHDRAWAL
     }
 }
-
@@ -0,0 +1,11 @@
+package com.mdci.bankaccount.domain.model;
+
+/**
+ * Comportement d'un lot d'opérations lorsqu'une ligne est refusée.
+ */
+public enum BatchMode {
+    // Une seule ligne refusée et rien n'est enregistré
+    ATOMIC,
+    // Les lignes valides sont enregistrées, les lignes refusées sont signalées
+    PER_ITEM
+}
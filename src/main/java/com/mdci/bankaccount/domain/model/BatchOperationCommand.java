@@ -0,0 +1,7 @@
+package com.mdci.bankaccount.domain.model;
+
+/**
+ * Ligne d'un lot : un dépôt ou un retrait sur un compte.
+ */
+public record BatchOperationCommand(String accountId, BankOperation.OperationType type, Money amount) {
+}
@@ -0,0 +1,34 @@
+package com.mdci.bankaccount.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Issue d'une ligne de lot, repérée par sa position dans la requête.
+ */
+public record BatchOperationResult(int index,
+                                   String accountId,
+                                   Status status,
+                                   String operationId,
+                                   BigDecimal balanceAfter,
+                                   String message) {
+
+    public enum Status {
+        APPLIED,
+        REJECTED,
+        // Ligne valide non enregistrée parce qu'une autre ligne du lot atomique a été refusée
+        CANCELLED
+    }
+
+    public static BatchOperationResult applied(int index, String accountId, BankOperation operation) {
+        return new BatchOperationResult(index, accountId, Status.APPLIED, operation.id(), operation.balanceAfter(), null);
+    }
+
+    public static BatchOperationResult rejected(int index, String accountId, String message) {
+        return new BatchOperationResult(index, accountId, Status.REJECTED, null, null, message);
+    }
+
+    public BatchOperationResult cancelled() {
+        return new BatchOperationResult(index, accountId, Status.CANCELLED, null, null,
+                "Opération annulée : une autre ligne du lot a été refusée.");
+    }
+}
@@ -0,0 +1,9 @@
+package com.mdci.bankaccount.domain.model;
+
+import java.time.LocalDate;
+
+/**
+ * Variation du solde d'un compte sur une journée : dépôts moins retraits datés de ce jour.
+ */
+public record DailyNetChange(LocalDate day, Money net) {
+}
@@ -0,0 +1,48 @@
+package com.mdci.bankaccount.domain.model;
+
+import com.mdci.bankaccount.domain.exception.FunctionalException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * Pas d'une série de soldes : chaque point est le solde à la fin d'une journée, d'une semaine (dimanche)
+ * ou d'un mois.
+ */
+public enum Granularity {
+    DAY,
+    WEEK,
+    MONTH;
+
+    public static Granularity parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new FunctionalException("Granularité inconnue : " + value + " (day, week ou month attendu).");
+        }
+    }
+
+    /**
+     * Dernier jour de la période contenant {@code day}.
+     */
+    public LocalDate endOfPeriod(LocalDate day) {
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+            case MONTH -> day.with(TemporalAdjusters.lastDayOfMonth());
+        };
+    }
+
+    /**
+     * Pas plus grossier, ou {@code null} s'il n'y en a pas.
+     */
+    public Granularity coarser() {
+        return switch (this) {
+            case DAY -> WEEK;
+            case WEEK -> MONTH;
+            case MONTH -> null;
+        };
+    }
+}
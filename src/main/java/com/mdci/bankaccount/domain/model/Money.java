@@ -4,16 +4,38 @@ import com.mdci.bankaccount.domain.exception.InvalidAmountException;
 
 import java.math.BigDecimal;
 
+/**
+ * Montant en virgule fixe : un nombre entier de centimes et l'échelle d'affichage d'origine (au plus {@link #MAX_SCALE}).
+ * Les calculs se font sur des {@code long}, sans {@link BigDecimal} intermédiaire, et échouent en cas de dépassement ;
+ * la conversion depuis et vers {@link BigDecimal} est exacte et conserve l'échelle du montant.
+ */
 public class Money implements Comparable<Money> {
 
-    private final BigDecimal amount;
+    /** Nombre maximal de décimales : le centime. */
+    public static final int MAX_SCALE = 2;
+
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L};
+    private static final Money ZERO = new Money(0L, 0);
+
+    private final long minorUnits;
+    private final int scale;
 
     public Money(BigDecimal amount) {
         if (amount == null) {
             throw new InvalidAmountException("Le montant doit être positif et non nul.");
         }
-        this.amount = amount;
-        //this.amount = amount.setScale(2, RoundingMode.HALF_UP);
+        BigDecimal exact = toSupportedScale(amount);
+        try {
+            this.minorUnits = Math.multiplyExact(exact.unscaledValue().longValueExact(), POWERS_OF_TEN[MAX_SCALE - exact.scale()]);
+        } catch (ArithmeticException e) {
+            throw overflow();
+        }
+        this.scale = exact.scale();
+    }
+
+    private Money(long minorUnits, int scale) {
+        this.minorUnits = minorUnits;
+        this.scale = scale;
     }
 
     public static Money of(BigDecimal amount) {
@@ -21,59 +43,123 @@ public class Money implements Comparable<Money> {
     }
 
     public static Money zero() {
-        return new Money(BigDecimal.ZERO);
+        return ZERO;
+    }
+
+    /**
+     * Montant exprimé en centimes, affiché avec {@code scale} décimales.
+     * Les centimes doivent être un multiple exact de l'unité de cette échelle.
+     */
+    public static Money ofMinorUnits(long minorUnits, int scale) {
+        checkScale(scale);
+        if (minorUnits % POWERS_OF_TEN[MAX_SCALE - scale] != 0) {
+            throw new InvalidAmountException("Le montant ne peut pas comporter plus de " + scale + " décimales.");
+        }
+        return new Money(minorUnits, scale);
     }
 
     public Money add(Money other) {
-        return new Money(this.amount.add(other.amount));
+        try {
+            return new Money(Math.addExact(minorUnits, other.minorUnits), Math.max(scale, other.scale));
+        } catch (ArithmeticException e) {
+            throw overflow();
+        }
     }
 
     public Money subtract(Money other) {
-        return new Money(this.amount.subtract(other.amount));
+        try {
+            return new Money(Math.subtractExact(minorUnits, other.minorUnits), Math.max(scale, other.scale));
+        } catch (ArithmeticException e) {
+            throw overflow();
+        }
     }
 
     public Money negate() {
-        return new Money(this.amount.negate());
+        try {
+            return new Money(Math.negateExact(minorUnits), scale);
+        } catch (ArithmeticException e) {
+            throw overflow();
+        }
     }
 
     public boolean isPositive() {
-        return amount.compareTo(BigDecimal.ZERO) > 0;
+        return minorUnits > 0;
     }
 
     public boolean isNegative() {
-        return amount.compareTo(BigDecimal.ZERO) < 0;
+        return minorUnits < 0;
     }
 
     public boolean isZero() {
-        return amount.compareTo(BigDecimal.ZERO) == 0;
+        return minorUnits == 0;
+    }
+
+    /**
+     * Montant en centimes, quelle que soit l'échelle d'origine.
+     */
+    public long minorUnits() {
+        return minorUnits;
+    }
+
+    public int scale() {
+        return scale;
     }
 
     public BigDecimal amount() {
-        return amount;
+        return BigDecimal.valueOf(minorUnits / POWERS_OF_TEN[MAX_SCALE - scale], scale);
+    }
+
+    /**
+     * Montant au centime, quelle que soit l'échelle d'origine : celle des soldes enregistrés en base.
+     */
+    public BigDecimal amountToTheCent() {
+        return BigDecimal.valueOf(minorUnits, MAX_SCALE);
     }
 
     @Override
     public int compareTo(Money other) {
-        return this.amount.compareTo(other.amount);
+        return Long.compare(minorUnits, other.minorUnits);
     }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Money money)) return false;
-        return amount.compareTo(money.amount) == 0; // ignore scale
+        return minorUnits == money.minorUnits; // ignore scale
     }
 
     @Override
     public int hashCode() {
-        return amount.stripTrailingZeros().hashCode(); // ignore scale
+        return Long.hashCode(minorUnits); // ignore scale
     }
 
     @Override
     public String toString() {
-        return amount + " €";
+        return amount() + " €";
     }
-}
 
+    static InvalidAmountException overflow() {
+        return new InvalidAmountException("Le montant dépasse la capacité de calcul.");
+    }
 
+    private static BigDecimal toSupportedScale(BigDecimal amount) {
+        if (amount.scale() < 0) {
+            return amount.setScale(0);
+        }
+        if (amount.scale() <= MAX_SCALE) {
+            return amount;
+        }
+        // Zéros superflus (1.500) tolérés, mais aucune fraction de centime n'est arrondie silencieusement
+        BigDecimal stripped = amount.stripTrailingZeros();
+        if (stripped.scale() > MAX_SCALE) {
+            throw new InvalidAmountException("Le montant ne peut pas comporter plus de " + MAX_SCALE + " décimales.");
+        }
+        return stripped.scale() < 0 ? stripped.setScale(0) : stripped;
+    }
 
+    private static void checkScale(int scale) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Échelle non supportée : " + scale);
+        }
+    }
+}
@@ -6,7 +6,7 @@ public class NoOverdraftPolicy implements WithdrawalPolicy {
 
     @Override
     public void checkWithdrawal(BankAccount account, Money amount) {
-        if (account.getBalance().compareTo(amount.amount()) < 0) {
+        if (account.getBalanceMoney().compareTo(amount) < 0) {
             throw new InsufficientBalanceException("Solde insuffisant.");
         }
     }
@@ -0,0 +1,41 @@
+package com.mdci.bankaccount.domain.model;
+
+import com.mdci.bankaccount.domain.exception.FunctionalException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position dans l'historique d'un compte parcouru du plus récent au plus ancien : la page suivante commence
+ * à la première opération strictement antérieure, dans l'ordre (date, rang d'enregistrement), à celle désignée.
+ * <p>
+ * Exposé sous forme d'un jeton opaque ; son contenu n'engage pas l'API.
+ */
+public record OperationCursor(LocalDateTime timestamp, String operationId) {
+
+    private static final char SEPARATOR = '|';
+
+    public static OperationCursor after(BankOperation operation) {
+        return new OperationCursor(operation.timestamp(), operation.id());
+    }
+
+    public static OperationCursor parse(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == decoded.length() - 1) {
+                throw new IllegalArgumentException(token);
+            }
+            return new OperationCursor(LocalDateTime.parse(decoded.substring(0, separator)), decoded.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new FunctionalException("Curseur de pagination invalide.");
+        }
+    }
+
+    public String encode() {
+        byte[] raw = (timestamp.toString() + SEPARATOR + operationId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+}
@@ -0,0 +1,9 @@
+package com.mdci.bankaccount.domain.model;
+
+import java.util.List;
+
+/**
+ * Page de l'historique d'un compte, du plus récent au plus ancien. {@code next} est nul sur la dernière page.
+ */
+public record OperationPage(List<BankOperation> operations, OperationCursor next) {
+}
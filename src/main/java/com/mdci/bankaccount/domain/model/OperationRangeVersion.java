@@ -0,0 +1,10 @@
+package com.mdci.bankaccount.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Empreinte des opérations d'un compte sur une période : elle change dès qu'une opération y est ajoutée,
+ * y compris antidatée. {@code latestTimestamp} et {@code maxOperationId} sont nuls si la période est vide.
+ */
+public record OperationRangeVersion(long operationCount, LocalDateTime latestTimestamp, String maxOperationId) {
+}
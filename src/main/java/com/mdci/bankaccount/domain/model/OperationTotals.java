@@ -0,0 +1,25 @@
+package com.mdci.bankaccount.domain.model;
+
+import java.util.List;
+
+/**
+ * Totaux des opérations d'un compte sur une période : dépôts, retraits et nombre d'opérations.
+ */
+public record OperationTotals(Money deposits, Money withdrawals, long count) {
+
+    public static OperationTotals of(List<BankOperation> operations) {
+        Money deposits = Money.zero();
+        Money withdrawals = Money.zero();
+        for (BankOperation operation : operations) {
+            switch (operation.type()) {
+                case DEPOSIT -> deposits = deposits.add(operation.amount());
+                case WITHDRAWAL -> withdrawals = withdrawals.add(operation.amount());
+            }
+        }
+        return new OperationTotals(deposits, withdrawals, operations.size());
+    }
+
+    public Money net() {
+        return deposits.subtract(withdrawals);
+    }
+}
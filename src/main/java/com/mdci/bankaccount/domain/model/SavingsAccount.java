@@ -19,8 +19,8 @@ public class SavingsAccount extends BankAccount {
 
     @Override
     public BankOperation deposit(Money amount) {
-        Money newBalance = new Money(this.getBalance()).add(amount);
-        if (newBalance.amount().compareTo(depositCeiling.amount()) > 0) {
+        Money newBalance = this.getBalanceMoney().add(amount);
+        if (newBalance.compareTo(depositCeiling) > 0) {
             throw new InvalidAmountException("Le plafond du livret est dépassé.");
         }
         return super.deposit(amount);
@@ -0,0 +1,21 @@
+package com.mdci.bankaccount.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Tout ce dont dépend le contenu d'un relevé, sans ses opérations : deux relevés de même version sont identiques.
+ * {@code closingBalance} est le solde du compte à {@code to} pour une période close, qui ne change plus
+ * avec les opérations postérieures, le solde courant sinon. {@code closed} : la fin demandée était passée
+ * à la lecture de la version.
+ */
+public record StatementVersion(
+        String accountId,
+        LocalDateTime from,
+        LocalDateTime to,
+        boolean closed,
+        BigDecimal currentBalance,
+        BigDecimal closingBalance,
+        OperationRangeVersion operations
+) {
+}
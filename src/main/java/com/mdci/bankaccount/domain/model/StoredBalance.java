@@ -0,0 +1,11 @@
+package com.mdci.bankaccount.domain.model;
+
+/**
+ * Solde stocké d'un compte, version de la ligne et nombre d'opérations enregistrées au moment de la lecture.
+ */
+public record StoredBalance(Money balance, Long version, Long operationCount) {
+
+    public StoredBalance(Money balance, Long version) {
+        this(balance, version, null);
+    }
+}
@@ -1,11 +1,9 @@
 package com.mdci.bankaccount.domain.model;
 
-import java.math.BigDecimal;
-
 public class WithdrawalPolicyFactory {
 
     public static WithdrawalPolicy create(BankAccount account) {
-        if (account.getAuthorizedOverdraft().amount().compareTo(BigDecimal.ZERO) > 0) {
+        if (account.getAuthorizedOverdraft().isPositive()) {
             return new AuthorizedOverdraftPolicy();
         }
         return new NoOverdraftPolicy();
@@ -0,0 +1,21 @@
+package com.mdci.bankaccount.domain.port.in;
+
+import com.mdci.bankaccount.domain.model.AccountBalance;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface IBalanceReportService {
+
+    /**
+     * Transmet, par paquets successifs et par identifiant croissant, le solde de fin de journée de tous les comptes.
+     */
+    void forEachBalanceAtDate(LocalDate date, Consumer<List<AccountBalance>> chunkConsumer);
+
+    /**
+     * Idem pour les comptes demandés ; les identifiants inconnus sont ignorés.
+     */
+    void forEachBalanceAtDate(Collection<String> accountIds, LocalDate date, Consumer<List<AccountBalance>> chunkConsumer);
+}
@@ -0,0 +1,10 @@
+package com.mdci.bankaccount.domain.port.in;
+
+import com.mdci.bankaccount.domain.model.BalanceSeries;
+import com.mdci.bankaccount.domain.model.Granularity;
+
+import java.time.LocalDate;
+
+public interface IBalanceSeriesService {
+    BalanceSeries getBalanceSeries(String accountId, LocalDate from, LocalDate to, Granularity granularity);
+}
@@ -3,9 +3,16 @@ package com.mdci.bankaccount.domain.port.in;
 import com.mdci.bankaccount.domain.model.AccountType;
 import com.mdci.bankaccount.domain.model.BankAccount;
 import com.mdci.bankaccount.domain.model.Money;
+import com.mdci.bankaccount.domain.model.OperationCursor;
+import com.mdci.bankaccount.domain.model.OperationPage;
 
 public interface IBankAccountService {
     BankAccount createAccount(Money initialBalance, Money authorizedOverdraft, AccountType accountType);
     public BankAccount createAccount(Money initialBalance, Money authorizedOverdraft);
     BankAccount getAccount(String accountId);
+
+    /**
+     * Page de l'historique du compte, de l'opération la plus récente à la plus ancienne.
+     */
+    OperationPage getOperations(String accountId, OperationCursor after, int limit);
 }
@@ -1,9 +1,29 @@
 package com.mdci.bankaccount.domain.port.in;
 
 import com.mdci.bankaccount.domain.model.AccountStatement;
+import com.mdci.bankaccount.domain.model.AccountStatementSummary;
+import com.mdci.bankaccount.domain.model.BankOperation;
+import com.mdci.bankaccount.domain.model.StatementVersion;
 
 import java.time.LocalDateTime;
+import java.util.function.Consumer;
 
 public interface IBankAccountStatementService {
     AccountStatement generateStatementForPeriod(String accountId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * En-tête du relevé : vérifie le compte et la période, fixe les bornes retenues et calcule les totaux.
+     */
+    AccountStatementSummary summarizeStatementForPeriod(String accountId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Version du relevé de la période, obtenue sans lire ses opérations : elle change dès que son contenu change.
+     */
+    StatementVersion getStatementVersion(String accountId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Transmet une à une, par date croissante, les opérations de la période d'un relevé déjà résumé,
+     * sans les garder en mémoire.
+     */
+    void forEachStatementOperation(AccountStatementSummary summary, Consumer<BankOperation> action);
 }
@@ -0,0 +1,15 @@
+package com.mdci.bankaccount.domain.port.in;
+
+import com.mdci.bankaccount.domain.model.BatchMode;
+import com.mdci.bankaccount.domain.model.BatchOperationCommand;
+import com.mdci.bankaccount.domain.model.BatchOperationResult;
+
+import java.util.List;
+
+public interface IBankOperationBatchService {
+
+    /**
+     * Applique un lot de dépôts et retraits et retourne une issue par ligne, dans l'ordre des lignes.
+     */
+    List<BatchOperationResult> apply(List<BatchOperationCommand> commands, BatchMode mode);
+}
@@ -4,6 +4,7 @@ import com.mdci.bankaccount.domain.model.Money;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 public interface IBankOperationService {
     void deposit(String accountId, Money amount);
@@ -11,4 +12,6 @@ public interface IBankOperationService {
     void withdraw(String accountId, Money amount);
 
     BigDecimal getBalanceAtDate(String accountId, LocalDate date);
+
+    BigDecimal getBalanceAt(String accountId, LocalDateTime at);
 }
@@ -1,11 +1,37 @@
 package com.mdci.bankaccount.domain.port.out;
 
 import com.mdci.bankaccount.domain.model.BankAccount;
+import com.mdci.bankaccount.domain.model.StoredBalance;
 
 import java.util.Optional;
 
 public interface IBankAccountRepository {
+    /**
+     * Charge le compte avec tout son historique d'opérations. À réserver aux usages qui en ont réellement besoin.
+     */
     Optional<BankAccount> findById(String accountId);
 
+    /**
+     * Charge les seules métadonnées du compte (type, découvert, plafond) et son solde stocké,
+     * sans relire l'historique des opérations.
+     */
+    Optional<BankAccount> findByIdWithoutHistory(String accountId);
+
+    /**
+     * Comme {@link #findByIdWithoutHistory(String)}, mais verrouille le compte en base jusqu'à la fin
+     * de la transaction en cours. Doit être appelé dans une transaction.
+     */
+    Optional<BankAccount> findByIdForUpdate(String accountId);
+
+    /**
+     * Lit uniquement le solde stocké et la version du compte, sans ses métadonnées.
+     */
+    Optional<StoredBalance> findStoredBalanceById(String accountId);
+
+    /**
+     * Vérifie l'existence du compte sans le charger.
+     */
+    boolean existsById(String accountId);
+
     BankAccount save(BankAccount account);
 }
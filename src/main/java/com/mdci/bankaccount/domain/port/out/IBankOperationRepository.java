@@ -1,15 +1,79 @@
 package com.mdci.bankaccount.domain.port.out;
 
+import com.mdci.bankaccount.domain.model.AccountBalance;
 import com.mdci.bankaccount.domain.model.BankAccount;
 import com.mdci.bankaccount.domain.model.BankOperation;
+import com.mdci.bankaccount.domain.model.DailyNetChange;
+import com.mdci.bankaccount.domain.model.OperationCursor;
+import com.mdci.bankaccount.domain.model.OperationRangeVersion;
+import com.mdci.bankaccount.domain.model.OperationTotals;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IBankOperationRepository {
     BankOperation save(BankAccount account, BankOperation operation);
+
+    /**
+     * Enregistre d'un coup des opérations déjà validées sur le compte tel qu'il a été chargé.
+     * Échoue si le compte a été modifié depuis ce chargement.
+     */
+    List<BankOperation> saveAll(BankAccount account, List<BankOperation> operations);
     List<BankOperation> findAllByAccountId(String accountId);
     List<BankOperation> findAllByAccountIdUntilDate(String accountId, LocalDate date);
+
+    /**
+     * Au plus {@code limit} opérations du compte, de la plus récente à la plus ancienne, en commençant
+     * après {@code after} (depuis la plus récente si {@code null}).
+     */
+    List<BankOperation> findLatestByAccountId(String accountId, OperationCursor after, int limit);
+
+    /**
+     * Solde du compte à la fin de la journée donnée.
+     */
+    BigDecimal findBalanceAtDate(String accountId, LocalDate date);
+
+    /**
+     * Solde du compte après toutes les opérations datées au plus tard de {@code at}.
+     */
+    BigDecimal findBalanceAt(String accountId, LocalDateTime at);
     List<BankOperation> findAllByAccountIdBetweenDates(String accountId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Empreinte des opérations du compte datées entre {@code from} et {@code to}, sans les lire.
+     */
+    OperationRangeVersion findOperationRangeVersion(String accountId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Transmet une à une, par date croissante, les opérations du compte datées entre {@code from} et {@code to},
+     * au fil de leur lecture et sans les garder en mémoire. Doit être appelé dans une unité de travail.
+     */
+    void forEachByAccountIdBetweenDates(String accountId, LocalDateTime from, LocalDateTime to, Consumer<BankOperation> action);
+
+    /**
+     * Totaux des dépôts et retraits entre deux instants inclus, calculés sans charger les opérations.
+     */
+    OperationTotals findTotalsBetweenDates(String accountId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Variation nette du solde pour chaque journée de {@code from} à {@code to} inclus ayant des opérations,
+     * dans l'ordre chronologique.
+     */
+    List<DailyNetChange> findDailyNetChanges(String accountId, LocalDate from, LocalDate to);
+
+    /**
+     * Soldes à la fin de la journée donnée des comptes demandés, par identifiant croissant.
+     * Les identifiants inconnus sont ignorés.
+     */
+    List<AccountBalance> findBalancesAtDate(Collection<String> accountIds, LocalDate date);
+
+    /**
+     * Soldes à la fin de la journée donnée d'au plus {@code limit} comptes d'identifiant strictement supérieur
+     * à {@code afterAccountId} (depuis le premier si {@code null}), par identifiant croissant.
+     */
+    List<AccountBalance> findBalancesAtDate(LocalDate date, String afterAccountId, int limit);
 }
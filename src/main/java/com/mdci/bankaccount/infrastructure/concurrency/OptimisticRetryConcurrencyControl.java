@@ -0,0 +1,97 @@
+package com.mdci.bankaccount.infrastructure.concurrency;
+
+import com.mdci.bankaccount.application.port.out.AccountConcurrencyControl;
+import com.mdci.bankaccount.domain.exception.ConcurrentAccountUpdateException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Laisse les écritures s'exécuter sans verrou et rejoue l'opération quand l'enregistrement
+ * détecte une modification concurrente du compte (version différente).
+ * L'attente entre deux tentatives croît exponentiellement, avec une part aléatoire pour désynchroniser les conflits.
+ */
+public class OptimisticRetryConcurrencyControl implements AccountConcurrencyControl {
+
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final double multiplier;
+    private final Counter conflicts;
+    private final Counter retries;
+    private final Counter exhausted;
+
+    public OptimisticRetryConcurrencyControl(int maxAttempts,
+                                             Duration initialBackoff,
+                                             Duration maxBackoff,
+                                             double multiplier,
+                                             MeterRegistry meterRegistry) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Le nombre de tentatives doit être strictement positif.");
+        }
+        if (multiplier < 1.0) {
+            throw new IllegalArgumentException("Le multiplicateur d'attente doit être supérieur ou égal à 1.");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = Math.max(maxBackoff.toNanos(), initialBackoffNanos);
+        this.multiplier = multiplier;
+        this.conflicts = Counter.builder("bank.account.optimistic.conflicts")
+                .description("Nombre d'écritures rejetées pour cause de modification concurrente")
+                .register(meterRegistry);
+        this.retries = Counter.builder("bank.account.optimistic.retries")
+                .description("Nombre de tentatives rejouées après un conflit")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("bank.account.optimistic.exhausted")
+                .description("Nombre d'opérations abandonnées après épuisement des tentatives")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T> T execute(String accountId, Supplier<T> action) {
+        return withRetry(action);
+    }
+
+    @Override
+    public <T> T executeAll(Collection<String> accountIds, Supplier<T> action) {
+        // Un conflit sur l'un des comptes rejoue l'ensemble
+        return withRetry(action);
+    }
+
+    private <T> T withRetry(Supplier<T> action) {
+        long backoff = initialBackoffNanos;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (ConcurrentAccountUpdateException e) {
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw e;
+                }
+                retries.increment();
+                pause(backoff, e);
+                backoff = Math.min((long) (backoff * multiplier), maxBackoffNanos);
+            }
+        }
+    }
+
+    private void pause(long backoffNanos, ConcurrentAccountUpdateException conflict) {
+        if (backoffNanos <= 0) {
+            return;
+        }
+        // Attente tirée entre la moitié et la totalité du délai courant
+        long half = backoffNanos / 2;
+        long sleepNanos = half + ThreadLocalRandom.current().nextLong(backoffNanos - half + 1);
+        try {
+            Thread.sleep(Duration.ofNanos(sleepNanos));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.mdci.bankaccount.infrastructure.concurrency;
+
+import com.mdci.bankaccount.application.port.out.AccountConcurrencyControl;
+import com.mdci.bankaccount.domain.exception.ConcurrentAccountUpdateException;
+import org.springframework.dao.PessimisticLockingFailureException;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Mode où le compte est verrouillé en base au chargement ({@code SELECT ... FOR UPDATE}) et le reste
+ * jusqu'à la fin de la transaction du cas d'utilisation. Les écritures concurrentes sur un même compte,
+ * y compris depuis d'autres instances, attendent en base dans la limite du délai configuré ;
+ * au-delà, l'échec est remonté comme une modification concurrente.
+ */
+public class PessimisticLockConcurrencyControl implements AccountConcurrencyControl {
+
+    @Override
+    public <T> T execute(String accountId, Supplier<T> action) {
+        try {
+            return action.get();
+        } catch (PessimisticLockingFailureException e) {
+            throw new ConcurrentAccountUpdateException("Le compte " + accountId + " est en cours de modification, veuillez réessayer.");
+        }
+    }
+
+    /**
+     * Les verrous en base sont posés au chargement de chaque compte : l'appelant doit charger les comptes
+     * dans l'ordre de leurs identifiants pour éviter les interblocages.
+     */
+    @Override
+    public <T> T executeAll(Collection<String> accountIds, Supplier<T> action) {
+        try {
+            return action.get();
+        } catch (PessimisticLockingFailureException e) {
+            throw new ConcurrentAccountUpdateException("Un des comptes du lot est en cours de modification, veuillez réessayer.");
+        }
+    }
+}
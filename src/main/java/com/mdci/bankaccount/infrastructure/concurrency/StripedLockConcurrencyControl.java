@@ -0,0 +1,88 @@
+package com.mdci.bankaccount.infrastructure.concurrency;
+
+import com.mdci.bankaccount.application.port.out.AccountConcurrencyControl;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Sérialise en mémoire les écritures d'un même compte à l'aide d'un tableau fixe de verrous.
+ * Deux comptes ne partagent un verrou que si leurs identifiants tombent dans la même tranche.
+ */
+public class StripedLockConcurrencyControl implements AccountConcurrencyControl {
+
+    private final ReentrantLock[] stripes;
+    private final Timer lockWait;
+
+    public StripedLockConcurrencyControl(int stripeCount, boolean fair, MeterRegistry meterRegistry) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Le nombre de verrous doit être strictement positif.");
+        }
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock(fair);
+        }
+        this.lockWait = Timer.builder("bank.account.lock.wait")
+                .description("Temps d'attente avant d'obtenir le verrou d'un compte")
+                .tag("mode", "striped")
+                .register(meterRegistry);
+        Gauge.builder("bank.account.lock.queued", this, StripedLockConcurrencyControl::queuedThreads)
+                .description("Nombre de threads en attente d'un verrou de compte")
+                .tag("mode", "striped")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T> T execute(String accountId, Supplier<T> action) {
+        ReentrantLock lock = stripeFor(accountId);
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            lockWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T executeAll(Collection<String> accountIds, Supplier<T> action) {
+        // Verrous pris par indice croissant, chacun une seule fois : deux lots ne peuvent pas s'attendre mutuellement
+        int[] indexes = accountIds.stream().mapToInt(this::stripeIndex).distinct().sorted().toArray();
+        long start = System.nanoTime();
+        int acquired = 0;
+        try {
+            for (int index : indexes) {
+                stripes[index].lock();
+                acquired++;
+            }
+            lockWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return action.get();
+        } finally {
+            for (int i = acquired - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    ReentrantLock stripeFor(String accountId) {
+        return stripes[stripeIndex(accountId)];
+    }
+
+    private int stripeIndex(String accountId) {
+        int hash = accountId.hashCode();
+        // Mélange les bits de poids fort pour mieux répartir les identifiants proches
+        hash ^= (hash >>> 16);
+        return Math.floorMod(hash, stripes.length);
+    }
+
+    private double queuedThreads() {
+        return Arrays.stream(stripes).mapToInt(ReentrantLock::getQueueLength).sum();
+    }
+}
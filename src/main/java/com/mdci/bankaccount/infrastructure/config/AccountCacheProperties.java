@@ -0,0 +1,17 @@
+package com.mdci.bankaccount.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Cache en mémoire des métadonnées de compte : nombre maximal de comptes gardés et durée de vie d'une entrée.
+ */
+@ConfigurationProperties(prefix = "bank.account-cache")
+public record AccountCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10000") long maximumSize,
+        @DefaultValue("10m") Duration ttl
+) {
+}
@@ -0,0 +1,19 @@
+package com.mdci.bankaccount.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Index en mémoire des soldes passés : nombre total d'opérations indexées, nombre de consultations
+ * d'un compte avant son indexation et durée de vie d'une entrée.
+ */
+@ConfigurationProperties(prefix = "bank.balance-index")
+public record BalanceIndexProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("2000000") long maximumOperations,
+        @DefaultValue("3") int admissionThreshold,
+        @DefaultValue("10m") Duration ttl
+) {
+}
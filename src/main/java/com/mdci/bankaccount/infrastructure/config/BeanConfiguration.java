@@ -1,36 +1,64 @@
 package com.mdci.bankaccount.infrastructure.config;
 
 import com.mdci.bankaccount.application.mapper.StatementMapper;
+import com.mdci.bankaccount.application.port.out.AccountConcurrencyControl;
 import com.mdci.bankaccount.application.port.out.DocumentGenerator;
+import com.mdci.bankaccount.application.port.out.UnitOfWork;
+import com.mdci.bankaccount.application.service.BalanceReportService;
+import com.mdci.bankaccount.application.service.BalanceSeriesService;
 import com.mdci.bankaccount.application.service.BankAccountLoader;
 import com.mdci.bankaccount.application.service.BankAccountService;
 import com.mdci.bankaccount.application.service.BankAccountStatementService;
+import com.mdci.bankaccount.application.service.BankOperationBatchService;
 import com.mdci.bankaccount.application.service.BankOperationService;
+import com.mdci.bankaccount.domain.port.in.IBalanceReportService;
+import com.mdci.bankaccount.domain.port.in.IBalanceSeriesService;
 import com.mdci.bankaccount.domain.port.in.IBankAccountService;
 import com.mdci.bankaccount.domain.port.in.IBankAccountStatementService;
+import com.mdci.bankaccount.domain.port.in.IBankOperationBatchService;
 import com.mdci.bankaccount.domain.port.in.IBankOperationService;
 import com.mdci.bankaccount.domain.port.out.BankOperationFactory;
 import com.mdci.bankaccount.domain.port.out.IBankAccountRepository;
 import com.mdci.bankaccount.domain.port.out.IBankOperationRepository;
+import com.mdci.bankaccount.infrastructure.concurrency.OptimisticRetryConcurrencyControl;
+import com.mdci.bankaccount.infrastructure.concurrency.PessimisticLockConcurrencyControl;
+import com.mdci.bankaccount.infrastructure.concurrency.StripedLockConcurrencyControl;
 import com.mdci.bankaccount.infrastructure.operation.DefaultBankOperationFactory;
 import com.mdci.bankaccount.infrastructure.pdf.DocumentStatementGenerator;
 import com.mdci.bankaccount.infrastructure.persistence.adapter.BankAccountRepositoryAdapter;
 import com.mdci.bankaccount.infrastructure.persistence.adapter.BankOperationRepositoryAdapter;
+import com.mdci.bankaccount.infrastructure.persistence.cache.CachingBankAccountRepository;
+import com.mdci.bankaccount.infrastructure.persistence.cache.IndexedBalanceOperationRepository;
+import com.mdci.bankaccount.infrastructure.persistence.cache.PastBalanceCachingOperationRepository;
+import com.mdci.bankaccount.infrastructure.persistence.groupcommit.GroupCommitOperationRepository;
 import com.mdci.bankaccount.infrastructure.persistence.jpa.BankAccountJpaRepository;
 import com.mdci.bankaccount.infrastructure.persistence.jpa.BankOperationJpaRepository;
+import com.mdci.bankaccount.infrastructure.persistence.jpa.DailyBalanceJpaRepository;
 import com.mdci.bankaccount.infrastructure.persistence.mapper.BankAccountEntityMapper;
 import com.mdci.bankaccount.infrastructure.persistence.mapper.BankOperationEntityMapper;
+import com.mdci.bankaccount.infrastructure.persistence.rollup.DailyBalanceRollups;
+import com.mdci.bankaccount.infrastructure.rest.cache.StatementDocumentStore;
+import com.mdci.bankaccount.infrastructure.rest.cache.StatementPayloadCache;
+import com.mdci.bankaccount.infrastructure.transaction.TransactionTemplateUnitOfWork;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.swagger.v3.oas.models.ExternalDocumentation;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Contact;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.License;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.Clock;
+import java.util.Set;
 
 @Configuration
+@EnableConfigurationProperties({ConcurrencyProperties.class, TransactionProperties.class, GroupCommitProperties.class,
+        AccountCacheProperties.class, BalanceIndexProperties.class,
+        PastBalanceCacheProperties.class, StatementPdfProperties.class, StatementCacheProperties.class,
+        StatementStoreProperties.class})
 public class BeanConfiguration {
 
     @Bean
@@ -43,10 +71,28 @@ public class BeanConfiguration {
         return new DefaultBankOperationFactory(clock);
     }
 
+    @Bean
+    public UnitOfWork unitOfWork(PlatformTransactionManager transactionManager,
+                                 TransactionProperties transactionProperties,
+                                 GroupCommitProperties groupCommitProperties,
+                                 ConcurrencyProperties concurrencyProperties) {
+        if (!groupCommitProperties.enabled()) {
+            return new TransactionTemplateUnitOfWork(transactionManager, transactionProperties.isolation());
+        }
+        // Le verrou en base doit être posé et relâché par la transaction de l'appelant, que l'écriture groupée supprime
+        if (concurrencyProperties.mode() == ConcurrencyProperties.Mode.PESSIMISTIC) {
+            throw new IllegalStateException("bank.group-commit.enabled est incompatible avec bank.concurrency.mode=PESSIMISTIC.");
+        }
+        // Dépôts et retraits sont validés par l'écriture groupée
+        return new TransactionTemplateUnitOfWork(transactionManager, transactionProperties.isolation(),
+                Set.of(UnitOfWork.UseCase.DEPOSIT, UnitOfWork.UseCase.WITHDRAW));
+    }
+
     @Bean
     public BankAccountLoader accountLoader(IBankAccountRepository accountRepository,
-                                           IBankOperationRepository operationRepository) {
-        return new BankAccountLoader(accountRepository, operationRepository);
+                                           ConcurrencyProperties concurrencyProperties) {
+        boolean lockOnWrite = concurrencyProperties.mode() == ConcurrencyProperties.Mode.PESSIMISTIC;
+        return new BankAccountLoader(accountRepository, lockOnWrite);
     }
 
     @Bean
@@ -54,15 +100,47 @@ public class BeanConfiguration {
                                                   IBankAccountRepository repository,
                                                   BankOperationFactory operationFactory,
                                                   Clock clock,
-                                                  BankAccountLoader accountLoader) {
-        return new BankAccountService(operationRepository, repository, operationFactory, clock, accountLoader);
+                                                  BankAccountLoader accountLoader,
+                                                  UnitOfWork unitOfWork) {
+        return new BankAccountService(operationRepository, repository, operationFactory, clock, accountLoader, unitOfWork);
+    }
+
+    @Bean
+    public AccountConcurrencyControl accountConcurrencyControl(ConcurrencyProperties properties,
+                                                               MeterRegistry meterRegistry) {
+        return switch (properties.mode()) {
+            case NONE -> AccountConcurrencyControl.none();
+            case STRIPED -> new StripedLockConcurrencyControl(
+                    properties.striped().stripes(),
+                    properties.striped().fair(),
+                    meterRegistry
+            );
+            case OPTIMISTIC -> new OptimisticRetryConcurrencyControl(
+                    properties.optimistic().maxAttempts(),
+                    properties.optimistic().initialBackoff(),
+                    properties.optimistic().maxBackoff(),
+                    properties.optimistic().multiplier(),
+                    meterRegistry
+            );
+            case PESSIMISTIC -> new PessimisticLockConcurrencyControl();
+        };
     }
 
     @Bean
     public IBankOperationService bankOperationService(BankAccountLoader accountLoader,
                                                       IBankAccountRepository accountRepository,
-                                                      IBankOperationRepository operationRepository) {
-        return new BankOperationService(accountLoader, accountRepository, operationRepository);
+                                                      IBankOperationRepository operationRepository,
+                                                      AccountConcurrencyControl concurrencyControl,
+                                                      UnitOfWork unitOfWork) {
+        return new BankOperationService(accountLoader, accountRepository, operationRepository, concurrencyControl, unitOfWork);
+    }
+
+    @Bean
+    public IBankOperationBatchService bankOperationBatchService(BankAccountLoader accountLoader,
+                                                                IBankOperationRepository operationRepository,
+                                                                AccountConcurrencyControl concurrencyControl,
+                                                                UnitOfWork unitOfWork) {
+        return new BankOperationBatchService(accountLoader, operationRepository, concurrencyControl, unitOfWork);
     }
 
     @Bean
@@ -73,8 +151,17 @@ public class BeanConfiguration {
     @Bean
     public IBankAccountRepository bankAccountRepository(BankAccountJpaRepository jpa,
                                                         BankAccountEntityMapper mapper,
-                                                        BankOperationFactory factory) {
-        return new BankAccountRepositoryAdapter(jpa, mapper, factory);
+                                                        BankOperationFactory factory,
+                                                        ConcurrencyProperties concurrencyProperties,
+                                                        AccountCacheProperties cacheProperties,
+                                                        MeterRegistry meterRegistry) {
+        BankAccountRepositoryAdapter adapter = new BankAccountRepositoryAdapter(jpa, mapper, factory,
+                concurrencyProperties.pessimistic().lockTimeout(), meterRegistry);
+        if (!cacheProperties.enabled()) {
+            return adapter;
+        }
+        return new CachingBankAccountRepository(adapter, factory, cacheProperties.maximumSize(), cacheProperties.ttl(),
+                meterRegistry);
     }
 
     @Bean
@@ -85,8 +172,51 @@ public class BeanConfiguration {
     @Bean
     public IBankOperationRepository bankOperationRepository(BankOperationJpaRepository opJpa,
                                                             BankAccountJpaRepository accJpa,
-                                                            BankOperationEntityMapper mapper) {
-        return new BankOperationRepositoryAdapter(opJpa, accJpa, mapper);
+                                                            BankOperationEntityMapper mapper,
+                                                            DailyBalanceJpaRepository dailyBalanceJpa,
+                                                            ConcurrencyProperties concurrencyProperties,
+                                                            GroupCommitProperties groupCommitProperties,
+                                                            BalanceIndexProperties balanceIndexProperties,
+                                                            PastBalanceCacheProperties pastBalanceCacheProperties,
+                                                            Clock clock,
+                                                            PlatformTransactionManager transactionManager,
+                                                            MeterRegistry meterRegistry) {
+        boolean optimisticLocking = concurrencyProperties.mode() == ConcurrencyProperties.Mode.OPTIMISTIC;
+        IBankOperationRepository repository = new BankOperationRepositoryAdapter(opJpa, accJpa, mapper, optimisticLocking,
+                new DailyBalanceRollups(dailyBalanceJpa));
+        if (groupCommitProperties.enabled()) {
+            // Adaptateur non exposé comme bean : sans proxy transactionnel, un refus n'annule pas la transaction du lot
+            repository = new GroupCommitOperationRepository(
+                    repository,
+                    transactionManager,
+                    groupCommitProperties.window(),
+                    groupCommitProperties.maxBatchSize(),
+                    groupCommitProperties.queueCapacity(),
+                    meterRegistry
+            );
+        }
+        if (balanceIndexProperties.enabled()) {
+            repository = new IndexedBalanceOperationRepository(repository, balanceIndexProperties.maximumOperations(),
+                    balanceIndexProperties.admissionThreshold(), balanceIndexProperties.ttl(), meterRegistry);
+        }
+        if (pastBalanceCacheProperties.enabled()) {
+            repository = new PastBalanceCachingOperationRepository(repository, clock,
+                    pastBalanceCacheProperties.maximumEntries(), pastBalanceCacheProperties.ttl(), meterRegistry);
+        }
+        return repository;
+    }
+
+    @Bean
+    public IBalanceSeriesService balanceSeriesService(IBankAccountRepository accountRepository,
+                                                      IBankOperationRepository operationRepository,
+                                                      UnitOfWork unitOfWork) {
+        return new BalanceSeriesService(accountRepository, operationRepository, unitOfWork);
+    }
+
+    @Bean
+    public IBalanceReportService balanceReportService(IBankOperationRepository operationRepository,
+                                                      UnitOfWork unitOfWork) {
+        return new BalanceReportService(operationRepository, unitOfWork);
     }
 
     @Bean
@@ -95,13 +225,36 @@ public class BeanConfiguration {
     }
 
     @Bean
-    public DocumentGenerator pdfStatementGenerator() {
-        return new DocumentStatementGenerator();
+    public DocumentGenerator pdfStatementGenerator(StatementPdfProperties properties) {
+        return new DocumentStatementGenerator(
+                properties.maxMainMemory().toBytes(),
+                properties.tempDirectory() != null ? properties.tempDirectory().toFile() : null
+        );
+    }
+
+    @Bean
+    public StatementPayloadCache statementPayloadCache(StatementCacheProperties properties, MeterRegistry meterRegistry) {
+        if (!properties.enabled()) {
+            return StatementPayloadCache.disabled();
+        }
+        return new StatementPayloadCache(properties.maximumSize().toBytes(), properties.maximumEntrySize().toBytes(),
+                properties.ttl(), meterRegistry);
+    }
+
+    @Bean
+    public StatementDocumentStore statementDocumentStore(StatementStoreProperties properties, Clock clock,
+                                                         MeterRegistry meterRegistry) {
+        if (!properties.enabled()) {
+            return StatementDocumentStore.disabled();
+        }
+        return new StatementDocumentStore(properties.directory(), properties.maximumSize().toBytes(),
+                properties.evictionDelay(), clock, meterRegistry);
     }
 
     @Bean
-    public IBankAccountStatementService bankAccountStatementServicee(IBankAccountRepository accountRepository, IBankOperationRepository operationRepository) {
-        return new BankAccountStatementService(accountRepository, operationRepository);
+    public IBankAccountStatementService bankAccountStatementServicee(IBankAccountRepository accountRepository, IBankOperationRepository operationRepository,
+                                                                     Clock clock, UnitOfWork unitOfWork) {
+        return new BankAccountStatementService(accountRepository, operationRepository, clock, unitOfWork);
     }
 
     @Bean
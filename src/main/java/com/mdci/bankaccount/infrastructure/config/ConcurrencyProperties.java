@@ -0,0 +1,41 @@
+package com.mdci.bankaccount.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "bank.concurrency")
+public record ConcurrencyProperties(
+        @DefaultValue("NONE") Mode mode,
+        @DefaultValue Striped striped,
+        @DefaultValue Optimistic optimistic,
+        @DefaultValue Pessimistic pessimistic
+) {
+
+    public enum Mode {
+        NONE,
+        STRIPED,
+        OPTIMISTIC,
+        PESSIMISTIC
+    }
+
+    public record Striped(
+            @DefaultValue("64") int stripes,
+            @DefaultValue("false") boolean fair
+    ) {
+    }
+
+    public record Optimistic(
+            @DefaultValue("5") int maxAttempts,
+            @DefaultValue("5ms") Duration initialBackoff,
+            @DefaultValue("100ms") Duration maxBackoff,
+            @DefaultValue("2.0") double multiplier
+    ) {
+    }
+
+    public record Pessimistic(
+            @DefaultValue("2s") Duration lockTimeout
+    ) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.mdci.bankaccount.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Écriture groupée des dépôts et retraits : fenêtre de collecte, taille maximale d'un lot
+ * et nombre d'opérations pouvant attendre leur tour.
+ */
+@ConfigurationProperties(prefix = "bank.group-commit")
+public record GroupCommitProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("200us") Duration window,
+        @DefaultValue("64") int maxBatchSize,
+        @DefaultValue("10000") int queueCapacity
+) {
+}
@@ -0,0 +1,17 @@
+package com.mdci.bankaccount.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Cache des soldes de journées révolues : nombre total de soldes gardés et durée de vie d'une entrée.
+ */
+@ConfigurationProperties(prefix = "bank.past-balance-cache")
+public record PastBalanceCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100000") long maximumEntries,
+        @DefaultValue("1h") Duration ttl
+) {
+}
@@ -0,0 +1,20 @@
+package com.mdci.bankaccount.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Cache des relevés produits : taille totale des documents gardés, taille maximale d'un document gardé
+ * et durée de vie d'une entrée.
+ */
+@ConfigurationProperties(prefix = "bank.statement-cache")
+public record StatementCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("64MB") DataSize maximumSize,
+        @DefaultValue("1MB") DataSize maximumEntrySize,
+        @DefaultValue("1h") Duration ttl
+) {
+}
@@ -0,0 +1,18 @@
+package com.mdci.bankaccount.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Relevés PDF : mémoire de travail d'un document en cours de production, au-delà de laquelle il est écrit
+ * dans un fichier temporaire du répertoire donné (celui du système si absent).
+ */
+@ConfigurationProperties(prefix = "bank.statement-pdf")
+public record StatementPdfProperties(
+        @DefaultValue("1MB") DataSize maxMainMemory,
+        Path tempDirectory
+) {
+}
@@ -0,0 +1,21 @@
+package com.mdci.bankaccount.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Relevés PDF gardés sur disque : répertoire (obligatoire si actif), place maximale occupée et délai avant
+ * la suppression d'un document retiré.
+ */
+@ConfigurationProperties(prefix = "bank.statement-store")
+public record StatementStoreProperties(
+        @DefaultValue("false") boolean enabled,
+        Path directory,
+        @DefaultValue("1GB") DataSize maximumSize,
+        @DefaultValue("1m") Duration evictionDelay
+) {
+}
@@ -0,0 +1,17 @@
+package com.mdci.bankaccount.infrastructure.config;
+
+import com.mdci.bankaccount.application.port.out.UnitOfWork;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.transaction.annotation.Isolation;
+
+import java.util.Map;
+
+/**
+ * Niveau d'isolation par cas d'utilisation ; les cas absents utilisent celui de la base.
+ */
+@ConfigurationProperties(prefix = "bank.transactions")
+public record TransactionProperties(
+        @DefaultValue Map<UnitOfWork.UseCase, Isolation> isolation
+) {
+}
@@ -2,128 +2,264 @@ package com.mdci.bankaccount.infrastructure.pdf;
 
 import com.mdci.bankaccount.application.dto.AccountStatementDTO;
 import com.mdci.bankaccount.application.dto.OperationDTO;
-import org.apache.pdfbox.pdmodel.*;
+import com.mdci.bankaccount.application.port.out.DocumentGenerator;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 
-import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterOutputStream;
 import java.io.IOException;
-import java.time.format.DateTimeFormatter;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
-import com.mdci.bankaccount.application.port.out.DocumentGenerator;
 
+/**
+ * Relevé de compte au format PDF.
+ * <p>
+ * Chaque ligne du tableau est un seul bloc de texte dont les colonnes sont atteintes par déplacements relatifs ;
+ * la police n'est redéfinie que lorsqu'elle change. Montants et dates sont formatés sans {@code String.format}
+ * ni {@code DateTimeFormatter}, et les opérations sont parcourues une seule fois dans l'ordre chronologique.
+ */
 public class DocumentStatementGenerator implements DocumentGenerator<AccountStatementDTO> {
 
-    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final long DEFAULT_MAX_MAIN_MEMORY = 1024 * 1024;
 
-    @Override
-    public byte[] generate(AccountStatementDTO dto) {
-        try (PDDocument doc = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            PDPage page = new PDPage(PDRectangle.A4);
-            doc.addPage(page);
-            PDPageContentStream content = new PDPageContentStream(doc, page);
+    private static final PDFont TITLE_FONT = PDType1Font.HELVETICA_BOLD;
+    private static final PDFont TEXT_FONT = PDType1Font.HELVETICA;
+    private static final PDFont TABLE_HEADER_FONT = PDType1Font.HELVETICA_BOLD;
+    private static final PDFont TABLE_FONT = PDType1Font.HELVETICA;
 
-            float y = 750;
+    private static final float MARGIN_X = 50;
+    private static final float TOP_Y = 750;
+    private static final float BOTTOM_Y = 100;
+    private static final float LINE_HEIGHT = 15;
+    // Déplacement horizontal d'une colonne à la suivante
+    private static final float[] COLUMN_WIDTHS = {80, 80, 80, 100, 100};
+    private static final String[] TABLE_HEADER = {"Date", "Type", "Montant (EUR)", "ID Opération", "Solde après (EUR)"};
+    private static final int SHORT_ID_LENGTH = 8;
 
-            // Header
-            content.beginText();
-            content.setFont(PDType1Font.HELVETICA_BOLD, 14);
-            content.newLineAtOffset(50, y);
-            content.showText("Relevé de compte bancaire");
-            content.endText();
+    private final long maxMainMemoryBytes;
+    private final File tempDirectory;
 
-            content.setFont(PDType1Font.HELVETICA, 11);
-            y -= 30;
-            y = writeLine(content, y, "ID du compte : " + dto.accountId());
-            y = writeLine(content, y, "Type de compte : " + dto.accountType());
-            y = writeLine(content, y, "Solde actuel : " + dto.currentBalance() + " EUR");
-            y = writeLine(content, y, "Période : du " + dto.from().format(DATE_FORMAT) + " au " + dto.to().format(DATE_FORMAT));
-            y = writeLine(content, y, "Émis le : " + dto.issuedAt().format(DATE_FORMAT));
-            y -= 10;
-
-            // En-tête du tableau
-            content.setFont(PDType1Font.HELVETICA_BOLD, 10);
-            float[] colWidths = {80, 80, 80, 100, 100};
-            float tableStartX = 50;
-            writeRow(content, y, colWidths, new String[]{"Date", "Type", "Montant (EUR)", "ID Opération", "Solde après (EUR)"}, tableStartX, true);
-            y -= 15;
-
-            // Données
-            content.setFont(PDType1Font.HELVETICA, 10);
-            double balance = 0;
-            double totalDeposit = 0;
-            double totalWithdrawal = 0;
-
-            List<OperationDTO> sorted = dto.recentOperations().stream()
-                    .sorted(Comparator.comparing(OperationDTO::date))
-                    .toList();
-
-            for (OperationDTO op : sorted) {
-                if ("DEPOSIT".equals(op.type())) {
-                    balance += op.amount().doubleValue();
-                    totalDeposit += op.amount().doubleValue();
-                } else if ("WITHDRAWAL".equals(op.type())) {
-                    balance -= op.amount().doubleValue();
-                    totalWithdrawal += op.amount().doubleValue();
-                }
+    public DocumentStatementGenerator() {
+        this(DEFAULT_MAX_MAIN_MEMORY, null);
+    }
+
+    /**
+     * @param maxMainMemoryBytes mémoire de travail d'un document ; au-delà, il est écrit dans un fichier temporaire
+     * @param tempDirectory      répertoire de ce fichier, celui du système si {@code null}
+     */
+    public DocumentStatementGenerator(long maxMainMemoryBytes, File tempDirectory) {
+        if (maxMainMemoryBytes < 0) {
+            throw new IllegalArgumentException("La mémoire de travail d'un document ne peut pas être négative.");
+        }
+        this.maxMainMemoryBytes = maxMainMemoryBytes;
+        this.tempDirectory = tempDirectory;
+    }
 
-                String[] row = {
-                        op.date().format(DATE_FORMAT),
-                        op.type(),
-                        String.format("%.2f", op.amount()),
-                        op.operationId().toString().substring(0, 8),
-                        String.format("%.2f", balance)
-                };
-                writeRow(content, y, colWidths, row, tableStartX, false);
-                y -= 15;
-                if (y < 100) {
-                    content.close();
-                    page = new PDPage(PDRectangle.A4);
-                    doc.addPage(page);
-                    content = new PDPageContentStream(doc, page);
-                    y = 750;
+    @Override
+    public void generate(AccountStatementDTO dto, OutputStream output) throws IOException {
+        try (PDDocument doc = new PDDocument(memoryUsage())) {
+            try (PageWriter writer = new PageWriter(doc)) {
+                writer.line(TITLE_FONT, 14, "Relevé de compte bancaire");
+                writer.skip(15);
+
+                StringBuilder text = new StringBuilder(64);
+                writer.line(TEXT_FONT, 11, "ID du compte : " + dto.accountId());
+                writer.line(TEXT_FONT, 11, "Type de compte : " + dto.accountType());
+                // Période en cours : son solde de fin n'est pas encore connu, c'est le solde actuel
+                String balanceLabel = dto.periodClosed() ? "Solde en fin de période : " : "Solde actuel : ";
+                writer.line(TEXT_FONT, 11, balanceLabel + formatAmount(dto.closingBalance()) + " EUR");
+                text.append("Période : du ");
+                appendDate(text, dto.from()).append(" au ");
+                writer.line(TEXT_FONT, 11, appendDate(text, dto.to()).toString());
+                text.setLength(0);
+                writer.line(TEXT_FONT, 11, appendDate(text.append("Émis le : "), dto.issuedAt()).toString());
+                writer.skip(10);
+
+                writer.row(TABLE_HEADER_FONT, TABLE_HEADER);
+                String[] cells = new String[TABLE_HEADER.length];
+                for (OperationDTO op : chronological(dto.recentOperations())) {
+                    text.setLength(0);
+                    cells[0] = appendDate(text, op.date()).toString();
+                    cells[1] = op.type();
+                    cells[2] = formatAmount(op.amount());
+                    cells[3] = shortId(op.operationId());
+                    // Solde réel enregistré avec l'opération (absent pour les opérations historiques)
+                    cells[4] = op.balanceAfter() != null ? formatAmount(op.balanceAfter()) : "-";
+                    writer.row(TABLE_FONT, cells);
                 }
+
+                // Récap : totaux cumulés sur toute la période
+                writer.skip(20);
+                writer.line(TITLE_FONT, 12, "RÉCAPITULATIF");
+                writer.line(TEXT_FONT, 11, "Total dépôts    : " + formatAmount(dto.totalDeposits()) + " EUR");
+                writer.line(TEXT_FONT, 11, "Total retraits  : " + formatAmount(dto.totalWithdrawals()) + " EUR");
+                writer.line(TEXT_FONT, 11, "Solde net       : " + formatAmount(dto.netTotal()) + " EUR");
             }
+            // PDFBox ferme le flux à la fin de l'écriture : celui de l'appelant doit rester ouvert
+            doc.save(new NonClosingOutputStream(output));
+        }
+    }
 
-            // Récap
-            y -= 20;
-            content.setFont(PDType1Font.HELVETICA_BOLD, 12);
-            y = writeLine(content, y, "RÉCAPITULATIF");
-            content.setFont(PDType1Font.HELVETICA, 11);
-            y = writeLine(content, y, "Total dépôts    : " + String.format("%.2f EUR", totalDeposit));
-            y = writeLine(content, y, "Total retraits  : " + String.format("%.2f EUR", totalWithdrawal));
-            y = writeLine(content, y, "Solde net       : " + String.format("%.2f EUR", totalDeposit - totalWithdrawal));
+    private MemoryUsageSetting memoryUsage() {
+        MemoryUsageSetting setting = MemoryUsageSetting.setupMixed(maxMainMemoryBytes);
+        return tempDirectory != null ? setting.setTempDir(tempDirectory) : setting;
+    }
 
-            content.close();
-            doc.save(out);
-            return out.toByteArray();
+    /**
+     * Opérations de la plus ancienne à la plus récente. Le relevé les fournit de la plus récente à la plus
+     * ancienne : elles sont alors lues à rebours, sans copie ; un tri n'a lieu que si elles sont dans le désordre.
+     */
+    static List<OperationDTO> chronological(List<OperationDTO> operations) {
+        boolean ascending = true;
+        boolean descending = true;
+        for (int i = 1; i < operations.size() && (ascending || descending); i++) {
+            int order = operations.get(i - 1).date().compareTo(operations.get(i).date());
+            ascending &= order <= 0;
+            descending &= order >= 0;
+        }
+        if (ascending) {
+            return operations;
+        }
+        if (descending) {
+            return operations.reversed();
+        }
+        return operations.stream().sorted(Comparator.comparing(OperationDTO::date)).toList();
+    }
 
-        } catch (IOException e) {
-            throw new RuntimeException("Erreur PDF", e);
+    /**
+     * Montant à deux décimales, point décimal. Un montant déjà à deux décimales n'est pas recopié.
+     */
+    static String formatAmount(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    /**
+     * Date au format jj/mm/aaaa.
+     */
+    static StringBuilder appendDate(StringBuilder target, LocalDateTime date) {
+        appendTwoDigits(target, date.getDayOfMonth()).append('/');
+        appendTwoDigits(target, date.getMonthValue()).append('/');
+        int year = date.getYear();
+        if (year >= 1000 && year <= 9999) {
+            return target.append(year);
         }
+        // Années hors de l'affichage habituel : complétées à quatre chiffres comme le ferait le motif yyyy
+        String digits = Integer.toString(Math.abs(year));
+        if (year < 0) {
+            target.append('-');
+        }
+        return target.append("0".repeat(Math.max(0, 4 - digits.length()))).append(digits);
     }
 
-    private static float writeLine(PDPageContentStream content, float y, String text) throws IOException {
-        content.beginText();
-        content.newLineAtOffset(50, y);
-        content.showText(text);
-        content.endText();
-        return y - 15;
+    private static StringBuilder appendTwoDigits(StringBuilder target, int value) {
+        return target.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
     }
 
-    private static void writeRow(PDPageContentStream content, float y, float[] colWidths, String[] values, float startX, boolean bold) throws IOException {
-        float x = startX;
-        content.beginText();
-        content.newLineAtOffset(x, y);
-        for (int i = 0; i < values.length; i++) {
-            content.showText(values[i]);
-            x += colWidths[i];
+    private static String shortId(String operationId) {
+        return operationId.length() > SHORT_ID_LENGTH ? operationId.substring(0, SHORT_ID_LENGTH) : operationId;
+    }
+
+    /**
+     * Écrit de haut en bas et ouvre une nouvelle page quand la courante est pleine.
+     */
+    private static final class PageWriter implements AutoCloseable {
+
+        private final PDDocument doc;
+        private PDPageContentStream content;
+        private PDFont currentFont;
+        private float currentFontSize;
+        private float y;
+
+        PageWriter(PDDocument doc) throws IOException {
+            this.doc = doc;
+            newPage();
+        }
+
+        void line(PDFont font, float fontSize, String text) throws IOException {
+            ensureRoom();
+            useFont(font, fontSize);
+            content.beginText();
+            content.newLineAtOffset(MARGIN_X, y);
+            content.showText(text);
+            content.endText();
+            y -= LINE_HEIGHT;
+        }
+
+        /**
+         * Une ligne du tableau : un seul bloc de texte, chaque colonne atteinte par un déplacement relatif.
+         */
+        void row(PDFont font, String[] cells) throws IOException {
+            ensureRoom();
+            useFont(font, 10);
+            content.beginText();
+            content.newLineAtOffset(MARGIN_X, y);
+            content.showText(cells[0]);
+            for (int i = 1; i < cells.length; i++) {
+                content.newLineAtOffset(COLUMN_WIDTHS[i - 1], 0);
+                content.showText(cells[i]);
+            }
             content.endText();
-            if (i < values.length - 1) {
-                content.beginText();
-                content.newLineAtOffset(x, y);
+            y -= LINE_HEIGHT;
+        }
+
+        void skip(float height) {
+            y -= height;
+        }
+
+        private void ensureRoom() throws IOException {
+            if (y < BOTTOM_Y) {
+                content.close();
+                newPage();
+            }
+        }
+
+        private void newPage() throws IOException {
+            PDPage page = new PDPage(PDRectangle.A4);
+            doc.addPage(page);
+            content = new PDPageContentStream(doc, page);
+            // La police ne se transmet pas d'une page à l'autre
+            currentFont = null;
+            y = TOP_Y;
+        }
+
+        private void useFont(PDFont font, float fontSize) throws IOException {
+            if (font != currentFont || fontSize != currentFontSize) {
+                content.setFont(font, fontSize);
+                currentFont = font;
+                currentFontSize = fontSize;
             }
         }
+
+        @Override
+        public void close() throws IOException {
+            content.close();
+        }
+    }
+
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
     }
 }
@@ -0,0 +1,112 @@
+package com.mdci.bankaccount.infrastructure.persistence;
+
+import com.mdci.bankaccount.domain.model.AccountBalance;
+import com.mdci.bankaccount.domain.model.BankAccount;
+import com.mdci.bankaccount.domain.model.BankOperation;
+import com.mdci.bankaccount.domain.model.DailyNetChange;
+import com.mdci.bankaccount.domain.model.OperationCursor;
+import com.mdci.bankaccount.domain.model.OperationRangeVersion;
+import com.mdci.bankaccount.domain.model.OperationTotals;
+import com.mdci.bankaccount.domain.port.out.IBankOperationRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Décorateur du dépôt d'opérations : chaque appel est transmis au dépôt décoré, les sous-classes ne redéfinissent
+ * que ceux qu'elles interceptent.
+ */
+public abstract class ForwardingBankOperationRepository implements IBankOperationRepository, AutoCloseable {
+
+    protected final IBankOperationRepository delegate;
+
+    protected ForwardingBankOperationRepository(IBankOperationRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public BankOperation save(BankAccount account, BankOperation operation) {
+        return delegate.save(account, operation);
+    }
+
+    @Override
+    public List<BankOperation> saveAll(BankAccount account, List<BankOperation> operations) {
+        return delegate.saveAll(account, operations);
+    }
+
+    @Override
+    public List<BankOperation> findAllByAccountId(String accountId) {
+        return delegate.findAllByAccountId(accountId);
+    }
+
+    @Override
+    public List<BankOperation> findAllByAccountIdUntilDate(String accountId, LocalDate date) {
+        return delegate.findAllByAccountIdUntilDate(accountId, date);
+    }
+
+    @Override
+    public List<BankOperation> findLatestByAccountId(String accountId, OperationCursor after, int limit) {
+        return delegate.findLatestByAccountId(accountId, after, limit);
+    }
+
+    @Override
+    public BigDecimal findBalanceAtDate(String accountId, LocalDate date) {
+        return delegate.findBalanceAtDate(accountId, date);
+    }
+
+    @Override
+    public BigDecimal findBalanceAt(String accountId, LocalDateTime at) {
+        return delegate.findBalanceAt(accountId, at);
+    }
+
+    @Override
+    public List<BankOperation> findAllByAccountIdBetweenDates(String accountId, LocalDateTime from, LocalDateTime to) {
+        return delegate.findAllByAccountIdBetweenDates(accountId, from, to);
+    }
+
+    @Override
+    public OperationRangeVersion findOperationRangeVersion(String accountId, LocalDateTime from, LocalDateTime to) {
+        return delegate.findOperationRangeVersion(accountId, from, to);
+    }
+
+    @Override
+    public void forEachByAccountIdBetweenDates(String accountId, LocalDateTime from, LocalDateTime to,
+                                               Consumer<BankOperation> action) {
+        delegate.forEachByAccountIdBetweenDates(accountId, from, to, action);
+    }
+
+    @Override
+    public OperationTotals findTotalsBetweenDates(String accountId, LocalDateTime from, LocalDateTime to) {
+        return delegate.findTotalsBetweenDates(accountId, from, to);
+    }
+
+    @Override
+    public List<DailyNetChange> findDailyNetChanges(String accountId, LocalDate from, LocalDate to) {
+        return delegate.findDailyNetChanges(accountId, from, to);
+    }
+
+    @Override
+    public List<AccountBalance> findBalancesAtDate(Collection<String> accountIds, LocalDate date) {
+        return delegate.findBalancesAtDate(accountIds, date);
+    }
+
+    @Override
+    public List<AccountBalance> findBalancesAtDate(LocalDate date, String afterAccountId, int limit) {
+        return delegate.findBalancesAtDate(date, afterAccountId, limit);
+    }
+
+    /**
+     * Le conteneur ne voit que le décorateur le plus externe : le fermer ferme les décorateurs en dessous,
+     * dont l'écriture groupée.
+     */
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -1,30 +1,52 @@
 package com.mdci.bankaccount.infrastructure.persistence.adapter;
 
 import com.mdci.bankaccount.domain.model.BankAccount;
+import com.mdci.bankaccount.domain.model.Money;
+import com.mdci.bankaccount.domain.model.StoredBalance;
 import com.mdci.bankaccount.domain.port.out.BankOperationFactory;
 import com.mdci.bankaccount.domain.port.out.IBankAccountRepository;
 import com.mdci.bankaccount.infrastructure.persistence.entity.BankAccountEntity;
 import com.mdci.bankaccount.infrastructure.persistence.jpa.BankAccountJpaRepository;
 import com.mdci.bankaccount.infrastructure.persistence.mapper.BankAccountEntityMapper;
-import org.springframework.transaction.annotation.Transactional;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 
+import java.time.Duration;
 import java.util.Optional;
 
 public class BankAccountRepositoryAdapter implements IBankAccountRepository {
     private final BankAccountJpaRepository jpaRepository;
     private final BankAccountEntityMapper mapper;
     private final BankOperationFactory operationFactory;
+    private final Duration lockTimeout;
+    private final Timer lockWait;
 
     public BankAccountRepositoryAdapter(BankAccountJpaRepository jpaRepository,
                                         BankAccountEntityMapper mapper,
                                         BankOperationFactory factory) {
+        this(jpaRepository, mapper, factory, Duration.ofSeconds(2), Metrics.globalRegistry);
+    }
+
+    /**
+     * @param lockTimeout attente maximale pour obtenir le verrou d'un compte dans {@link #findByIdForUpdate(String)}
+     */
+    public BankAccountRepositoryAdapter(BankAccountJpaRepository jpaRepository,
+                                        BankAccountEntityMapper mapper,
+                                        BankOperationFactory factory,
+                                        Duration lockTimeout,
+                                        MeterRegistry meterRegistry) {
         this.jpaRepository = jpaRepository;
         this.mapper = mapper;
         this.operationFactory = factory;
+        this.lockTimeout = lockTimeout;
+        this.lockWait = Timer.builder("bank.account.lock.wait")
+                .description("Temps d'attente avant d'obtenir le verrou d'un compte")
+                .tag("mode", "pessimistic")
+                .register(meterRegistry);
     }
 
     @Override
-    @Transactional
     public BankAccount save(BankAccount account) {
         BankAccountEntity entity = mapper.toEntity(account);
 
@@ -38,4 +60,28 @@ public class BankAccountRepositoryAdapter implements IBankAccountRepository {
         return jpaRepository.findByIdWithOperations(id)
                 .map(entity -> mapper.toDomain(entity, operationFactory));
     }
+
+    @Override
+    public Optional<BankAccount> findByIdWithoutHistory(String id) {
+        return jpaRepository.findById(id)
+                .map(entity -> mapper.toDomainWithStoredBalance(entity, operationFactory));
+    }
+
+    @Override
+    public Optional<StoredBalance> findStoredBalanceById(String id) {
+        return jpaRepository.findBalanceAndVersionById(id)
+                .map(view -> new StoredBalance(Money.of(view.balance()), view.version(), view.operationCount()));
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return jpaRepository.existsById(id);
+    }
+
+    @Override
+    public Optional<BankAccount> findByIdForUpdate(String id) {
+        // Le temps mesuré inclut l'attente du verrou détenu par une autre transaction, éventuellement sur une autre instance
+        Optional<BankAccountEntity> entity = lockWait.record(() -> jpaRepository.findByIdForUpdate(id, lockTimeout));
+        return entity.map(e -> mapper.toDomainWithStoredBalance(e, operationFactory));
+    }
 }
@@ -1,53 +1,232 @@
 package com.mdci.bankaccount.infrastructure.persistence.adapter;
 
 import com.mdci.bankaccount.domain.exception.AccountNotFoundException;
+import com.mdci.bankaccount.domain.exception.ConcurrentAccountUpdateException;
+import com.mdci.bankaccount.domain.exception.InsufficientBalanceException;
+import com.mdci.bankaccount.domain.exception.InvalidAmountException;
+import com.mdci.bankaccount.domain.model.AccountBalance;
 import com.mdci.bankaccount.domain.model.BankAccount;
+import com.mdci.bankaccount.domain.model.BankAccountFactory;
 import com.mdci.bankaccount.domain.model.BankOperation;
+import com.mdci.bankaccount.domain.model.DailyNetChange;
+import com.mdci.bankaccount.domain.model.Money;
+import com.mdci.bankaccount.domain.model.OperationCursor;
+import com.mdci.bankaccount.domain.model.OperationRangeVersion;
+import com.mdci.bankaccount.domain.model.OperationTotals;
 import com.mdci.bankaccount.domain.port.out.IBankOperationRepository;
 import com.mdci.bankaccount.infrastructure.persistence.entity.BankAccountEntity;
 import com.mdci.bankaccount.infrastructure.persistence.entity.BankOperationEntity;
+import com.mdci.bankaccount.infrastructure.persistence.jpa.AccountBalanceAtDateView;
+import com.mdci.bankaccount.infrastructure.persistence.jpa.AccountBalanceView;
 import com.mdci.bankaccount.infrastructure.persistence.jpa.BankAccountJpaRepository;
 import com.mdci.bankaccount.infrastructure.persistence.jpa.BankOperationJpaRepository;
+import com.mdci.bankaccount.infrastructure.persistence.jpa.OperationRangeVersionView;
+import com.mdci.bankaccount.infrastructure.persistence.jpa.OperationTotalsView;
 import com.mdci.bankaccount.infrastructure.persistence.mapper.BankOperationEntityMapper;
+import com.mdci.bankaccount.infrastructure.persistence.rollup.DailyBalanceRollups;
+import org.springframework.data.domain.Limit;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class BankOperationRepositoryAdapter implements IBankOperationRepository {
 
+    // Dernier instant représentable en base (précision microseconde) pour une journée donnée
+    private static final LocalTime END_OF_DAY = LocalTime.of(23, 59, 59, 999_999_000);
+
     private final BankOperationJpaRepository operationRepository;
     private final BankAccountJpaRepository accountRepository;
     private final BankOperationEntityMapper mapper;
+    private final boolean optimisticLocking;
+    // Cumuls quotidiens tenus à jour à chaque écriture ; null si désactivés
+    private final DailyBalanceRollups dailyRollups;
 
     public BankOperationRepositoryAdapter(BankOperationJpaRepository operationRepository,
                                           BankAccountJpaRepository accountRepository,
                                           BankOperationEntityMapper mapper) {
+        this(operationRepository, accountRepository, mapper, false);
+    }
+
+    /**
+     * @param optimisticLocking si vrai, une opération n'est enregistrée que si le compte n'a pas changé
+     *                          depuis son chargement (même version), sinon {@link ConcurrentAccountUpdateException}
+     */
+    public BankOperationRepositoryAdapter(BankOperationJpaRepository operationRepository,
+                                          BankAccountJpaRepository accountRepository,
+                                          BankOperationEntityMapper mapper,
+                                          boolean optimisticLocking) {
+        this(operationRepository, accountRepository, mapper, optimisticLocking, null);
+    }
+
+    /**
+     * @param dailyRollups cumuls quotidiens à mettre à jour avec chaque opération, et à lire pour le solde à une date
+     */
+    public BankOperationRepositoryAdapter(BankOperationJpaRepository operationRepository,
+                                          BankAccountJpaRepository accountRepository,
+                                          BankOperationEntityMapper mapper,
+                                          boolean optimisticLocking,
+                                          DailyBalanceRollups dailyRollups) {
         this.operationRepository = operationRepository;
         this.accountRepository = accountRepository;
         this.mapper = mapper;
+        this.optimisticLocking = optimisticLocking;
+        this.dailyRollups = dailyRollups;
     }
 
     @Override
     public BankOperation save(BankAccount account, BankOperation operation) {
-        BankAccountEntity accountEntity = accountRepository.findById(account.getId())
-                .orElseThrow(() -> new AccountNotFoundException("Aucun compte trouvé pour l'identifiant : " + account.getId()));
-        BankOperationEntity entity = mapper.toEntity(operation, accountEntity);
+        boolean versionChecked = applyToBalance(account, operation);
+
+        BankOperation recorded;
+        long sequenceNumber;
+        if (versionChecked && account.getOperationCount() != null) {
+            // La ligne était celle chargée : le solde calculé par le domaine et le rang suivant sont ceux de la base
+            recorded = operation;
+            sequenceNumber = account.getOperationCount() + 1;
+        } else {
+            // Sans contrôle de version, d'autres opérations ont pu passer entre le chargement et la mise à jour :
+            // le solde atteint et le rang ne sont connus qu'en relisant la ligne
+            AccountBalanceView balance = accountRepository.findBalanceViewById(account.getId());
+            sequenceNumber = balance.operationCount();
+            boolean overtaken = account.getOperationCount() == null || sequenceNumber != account.getOperationCount() + 1;
+            recorded = operation.withBalanceAfter(overtaken
+                    ? placeAmongLaterOperations(account.getId(), operation, balance.balance())
+                    : balance.balance());
+        }
+        // Le compte existe (la mise à jour l'a touché) : une référence suffit pour la clé étrangère, sans SELECT
+        BankAccountEntity accountReference = accountRepository.getReferenceById(account.getId());
+        BankOperationEntity entity = mapper.toEntity(recorded, accountReference);
+        entity.setSequenceNumber(sequenceNumber);
         BankOperationEntity saved = operationRepository.save(entity);
+        if (dailyRollups != null) {
+            dailyRollups.record(account.getId(), List.of(operation));
+        }
         return mapper.toDomain(saved);
     }
 
+    @Override
+    public List<BankOperation> saveAll(BankAccount account, List<BankOperation> operations) {
+        if (operations.isEmpty()) {
+            return List.of();
+        }
+        BigDecimal delta = BankAccountFactory.computeBalanceFromOperations(operations);
+        int updated = accountRepository.applyBatch(account.getId(), delta, operations.size(), account.getVersion());
+        if (updated == 0) {
+            if (!accountRepository.existsById(account.getId())) {
+                throw new AccountNotFoundException("Aucun compte trouvé pour l'identifiant : " + account.getId());
+            }
+            throw new ConcurrentAccountUpdateException("Le compte " + account.getId() + " a été modifié par une autre opération.");
+        }
+
+        // Le compte n'a pas bougé depuis son chargement : les soldes calculés en mémoire et les rangs sont ceux de la base
+        long firstSequence = account.getOperationCount() + 1;
+        BankAccountEntity accountReference = accountRepository.getReferenceById(account.getId());
+        List<BankOperationEntity> entities = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            BankOperationEntity entity = mapper.toEntity(operations.get(i), accountReference);
+            entity.setSequenceNumber(firstSequence + i);
+            entities.add(entity);
+        }
+        // Insertions regroupées par lots JDBC (hibernate.jdbc.batch_size)
+        List<BankOperation> saved = operationRepository.saveAll(entities).stream()
+                .map(mapper::toDomain)
+                .toList();
+        if (dailyRollups != null) {
+            dailyRollups.record(account.getId(), operations);
+        }
+        return saved;
+    }
+
+    /**
+     * Les opérations enregistrées depuis le chargement du compte ont pu être datées après celle-ci, qui les suit
+     * pourtant dans le solde stocké. Pour que les soldes après opération se suivent dans l'ordre (date, rang)
+     * des relevés, elle est comptée dans les leurs et son propre solde les exclut. La ligne du compte reste
+     * verrouillée par la mise à jour jusqu'à la validation : les opérations relues ici ne bougent plus.
+     *
+     * @return le solde après cette opération, à sa place dans l'ordre des relevés
+     */
+    private BigDecimal placeAmongLaterOperations(String accountId, BankOperation operation, BigDecimal storedBalance) {
+        if (operationRepository.shiftBalanceAfterSince(accountId, operation.timestamp(), operation.value()) == 0) {
+            return storedBalance;
+        }
+        return storedBalance.subtract(operationRepository.sumBalanceSince(accountId, operation.timestamp()));
+    }
+
+    /**
+     * Répercute l'opération sur le solde stocké dans la même transaction que l'insertion.
+     * Les règles sont revérifiées par la base : un solde modifié entre-temps ne peut pas franchir les limites.
+     *
+     * @return vrai si la mise à jour n'a porté que sur la version chargée du compte
+     */
+    private boolean applyToBalance(BankAccount account, BankOperation operation) {
+        BigDecimal amount = operation.amount().amount();
+        Long expectedVersion = optimisticLocking ? account.getVersion() : null;
+        int updated = switch (operation.type()) {
+            case DEPOSIT -> accountRepository.creditBalance(account.getId(), amount, expectedVersion);
+            case WITHDRAWAL -> accountRepository.debitBalance(account.getId(), amount, expectedVersion);
+        };
+        if (updated > 0) {
+            return expectedVersion != null;
+        }
+        // L'existence du compte n'est vérifiée qu'en cas d'échec, pour garder le chemin nominal sans lecture
+        if (!accountRepository.existsById(account.getId())) {
+            throw new AccountNotFoundException("Aucun compte trouvé pour l'identifiant : " + account.getId());
+        }
+        // À version identique, le solde est celui vérifié par le domaine : l'échec vient d'une écriture concurrente
+        if (expectedVersion != null) {
+            throw new ConcurrentAccountUpdateException("Le compte " + account.getId() + " a été modifié par une autre opération.");
+        }
+        throw switch (operation.type()) {
+            case DEPOSIT -> new InvalidAmountException("Le plafond du livret est dépassé.");
+            case WITHDRAWAL -> new InsufficientBalanceException("Solde insuffisant.");
+        };
+    }
 
     @Override
     public List<BankOperation> findAllByAccountIdUntilDate(String accountId, LocalDate date) {
-        LocalDateTime endOfDay = date.atTime(23, 59, 59);
+        LocalDateTime endOfDay = date.atTime(END_OF_DAY);
 
         return operationRepository.findAllByAccountIdUntilDate(accountId, endOfDay).stream()
                 .map(mapper::toDomain)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public BigDecimal findBalanceAtDate(String accountId, LocalDate date) {
+        if (dailyRollups != null) {
+            // Une seule lecture indexée ; sans cumul à cette date, le compte n'avait pas encore d'opération suivie
+            Optional<BigDecimal> closing = dailyRollups.closingBalanceAt(accountId, date);
+            if (closing.isPresent()) {
+                return closing.get();
+            }
+        }
+        // Somme calculée par la base, juste même en présence d'opérations antidatées
+        return operationRepository.sumBalanceUntil(accountId, date.atTime(END_OF_DAY));
+    }
+
+    @Override
+    public BigDecimal findBalanceAt(String accountId, LocalDateTime at) {
+        return operationRepository.sumBalanceUntil(accountId, at);
+    }
+
+    @Override
+    public List<BankOperation> findLatestByAccountId(String accountId, OperationCursor after, int limit) {
+        List<BankOperationEntity> entities = after == null
+                ? operationRepository.findLatestByAccountId(accountId, Limit.of(limit))
+                : operationRepository.findLatestByAccountIdBefore(accountId, after.timestamp(), after.operationId(), Limit.of(limit));
+        return entities.stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+
     @Override
     public List<BankOperation> findAllByAccountId(String accountId) {
         return operationRepository.findAllByAccountId(accountId).stream()
@@ -60,4 +239,50 @@ public class BankOperationRepositoryAdapter implements IBankOperationRepository
         List<BankOperationEntity> entities = operationRepository.findByAccountIdAndTimestampBetween(accountId, from, to);
         return entities.stream().map(mapper::toDomain).toList();
     }
+
+    @Override
+    public void forEachByAccountIdBetweenDates(String accountId, LocalDateTime from, LocalDateTime to,
+                                               Consumer<BankOperation> action) {
+        operationRepository.forEachByAccountIdBetween(accountId, from, to, entity -> action.accept(mapper.toDomain(entity)));
+    }
+
+    @Override
+    public List<DailyNetChange> findDailyNetChanges(String accountId, LocalDate from, LocalDate to) {
+        return operationRepository.sumNetChangesByDay(accountId, from.atStartOfDay(), to.plusDays(1).atStartOfDay()).stream()
+                .map(change -> new DailyNetChange(change.day(), Money.of(change.net())))
+                .toList();
+    }
+
+    @Override
+    public List<AccountBalance> findBalancesAtDate(Collection<String> accountIds, LocalDate date) {
+        if (accountIds.isEmpty()) {
+            return List.of();
+        }
+        return toAccountBalances(operationRepository.sumBalancesForIds(accountIds, date.atTime(END_OF_DAY)));
+    }
+
+    @Override
+    public List<AccountBalance> findBalancesAtDate(LocalDate date, String afterAccountId, int limit) {
+        // Chaîne vide : inférieure à tout identifiant
+        String after = afterAccountId != null ? afterAccountId : "";
+        return toAccountBalances(operationRepository.sumBalancesAfterId(after, date.atTime(END_OF_DAY), Limit.of(limit)));
+    }
+
+    private static List<AccountBalance> toAccountBalances(List<AccountBalanceAtDateView> views) {
+        return views.stream()
+                .map(view -> new AccountBalance(view.accountId(), Money.of(view.balance())))
+                .toList();
+    }
+
+    @Override
+    public OperationRangeVersion findOperationRangeVersion(String accountId, LocalDateTime from, LocalDateTime to) {
+        OperationRangeVersionView version = operationRepository.findRangeVersion(accountId, from, to);
+        return new OperationRangeVersion(version.operationCount(), version.latestTimestamp(), version.maxOperationId());
+    }
+
+    @Override
+    public OperationTotals findTotalsBetweenDates(String accountId, LocalDateTime from, LocalDateTime to) {
+        OperationTotalsView totals = operationRepository.sumTotalsBetween(accountId, from, to);
+        return new OperationTotals(Money.of(totals.deposits()), Money.of(totals.withdrawals()), totals.count());
+    }
 }
@@ -0,0 +1,93 @@
+package com.mdci.bankaccount.infrastructure.persistence.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mdci.bankaccount.domain.model.AccountMetadata;
+import com.mdci.bankaccount.domain.model.BankAccount;
+import com.mdci.bankaccount.domain.model.StoredBalance;
+import com.mdci.bankaccount.domain.port.out.BankOperationFactory;
+import com.mdci.bankaccount.domain.port.out.IBankAccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Garde en mémoire les métadonnées des comptes récemment lus (type, découvert, plafond).
+ * Le solde n'est jamais mis en cache : il est relu à chaque chargement, sans l'entité complète.
+ * Une entrée est retirée à chaque enregistrement du compte et expire après {@code ttl}, ce qui borne
+ * l'écart avec une modification faite par une autre instance.
+ */
+public class CachingBankAccountRepository implements IBankAccountRepository {
+
+    private final IBankAccountRepository delegate;
+    private final BankOperationFactory operationFactory;
+    private final Cache<String, AccountMetadata> metadata;
+
+    public CachingBankAccountRepository(IBankAccountRepository delegate,
+                                        BankOperationFactory operationFactory,
+                                        long maximumSize,
+                                        Duration ttl,
+                                        MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.operationFactory = operationFactory;
+        // Éviction Window TinyLFU : les comptes les plus sollicités restent en mémoire
+        this.metadata = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, metadata, "bank.account.metadata");
+    }
+
+    @Override
+    public Optional<BankAccount> findById(String accountId) {
+        return remember(delegate.findById(accountId));
+    }
+
+    @Override
+    public Optional<BankAccount> findByIdWithoutHistory(String accountId) {
+        AccountMetadata cached = metadata.getIfPresent(accountId);
+        if (cached == null) {
+            return remember(delegate.findByIdWithoutHistory(accountId));
+        }
+        Optional<StoredBalance> balance = delegate.findStoredBalanceById(accountId);
+        if (balance.isEmpty()) {
+            metadata.invalidate(accountId);
+            return Optional.empty();
+        }
+        return Optional.of(cached.rehydrate(operationFactory, balance.get()));
+    }
+
+    @Override
+    public Optional<BankAccount> findByIdForUpdate(String accountId) {
+        // Le verrou doit être posé sur la ligne : lecture toujours déléguée
+        return remember(delegate.findByIdForUpdate(accountId));
+    }
+
+    @Override
+    public Optional<StoredBalance> findStoredBalanceById(String accountId) {
+        return delegate.findStoredBalanceById(accountId);
+    }
+
+    @Override
+    public boolean existsById(String accountId) {
+        // Les comptes ne sont jamais supprimés : une entrée présente suffit
+        return metadata.getIfPresent(accountId) != null || delegate.existsById(accountId);
+    }
+
+    @Override
+    public BankAccount save(BankAccount account) {
+        try {
+            return delegate.save(account);
+        } finally {
+            metadata.invalidate(account.getId());
+        }
+    }
+
+    private Optional<BankAccount> remember(Optional<BankAccount> account) {
+        account.ifPresent(a -> metadata.put(a.getId(), AccountMetadata.of(a)));
+        return account;
+    }
+}
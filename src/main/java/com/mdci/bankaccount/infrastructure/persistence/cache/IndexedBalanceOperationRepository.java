@@ -0,0 +1,127 @@
+package com.mdci.bankaccount.infrastructure.persistence.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mdci.bankaccount.domain.model.BalanceTimeline;
+import com.mdci.bankaccount.domain.model.BankAccount;
+import com.mdci.bankaccount.domain.model.BankOperation;
+import com.mdci.bankaccount.domain.port.out.IBankOperationRepository;
+import com.mdci.bankaccount.infrastructure.persistence.ForwardingBankOperationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Répond en mémoire aux demandes de solde passé des comptes les plus consultés.
+ * <p>
+ * Un compte est indexé à partir de sa {@code admissionThreshold}-ième consultation dans la fenêtre {@code ttl} :
+ * toutes ses opérations sont alors lues une fois pour construire sa {@link BalanceTimeline}, et chaque demande
+ * suivante se résout par recherche dichotomique. Les autres comptes sont servis par la base.
+ * <p>
+ * Les opérations enregistrées prolongent la chronologie une fois la transaction validée ; une opération qui
+ * n'est pas postérieure à la dernière connue (antidatée, ou peut-être déjà lue à la construction) retire le
+ * compte de l'index, qui sera reconstruit à la demande suivante. La mémoire est bornée par le nombre total
+ * d'opérations indexées ; l'expiration après {@code ttl} borne l'écart avec les écritures d'une autre instance.
+ */
+public class IndexedBalanceOperationRepository extends ForwardingBankOperationRepository {
+
+    /** Nombre maximal de comptes pas encore indexés dont les consultations sont comptées. */
+    private static final long MAX_TRACKED_ACCOUNTS = 100_000;
+
+    private final int admissionThreshold;
+    private final Cache<String, BalanceTimeline> timelines;
+    private final Cache<String, AtomicInteger> coldQueries;
+
+    public IndexedBalanceOperationRepository(IBankOperationRepository delegate,
+                                             long maximumIndexedOperations,
+                                             int admissionThreshold,
+                                             Duration ttl,
+                                             MeterRegistry meterRegistry) {
+        super(delegate);
+        if (maximumIndexedOperations <= 0 || admissionThreshold <= 0) {
+            throw new IllegalArgumentException("La taille de l'index et le seuil d'admission doivent être strictement positifs.");
+        }
+        this.admissionThreshold = admissionThreshold;
+        // Poids d'une entrée : son nombre d'opérations, réévalué à chaque prolongement
+        this.timelines = Caffeine.newBuilder()
+                .maximumWeight(maximumIndexedOperations)
+                .weigher((String accountId, BalanceTimeline timeline) -> Math.max(1, timeline.size()))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.coldQueries = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_ACCOUNTS)
+                .expireAfterWrite(ttl)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, timelines, "bank.balance.index");
+    }
+
+    @Override
+    public BigDecimal findBalanceAtDate(String accountId, LocalDate date) {
+        BalanceTimeline timeline = timelineFor(accountId);
+        if (timeline == null) {
+            return delegate.findBalanceAtDate(accountId, date);
+        }
+        synchronized (timeline) {
+            return timeline.balanceAtEndOf(date).amountToTheCent();
+        }
+    }
+
+    @Override
+    public BigDecimal findBalanceAt(String accountId, LocalDateTime at) {
+        BalanceTimeline timeline = timelineFor(accountId);
+        if (timeline == null) {
+            return delegate.findBalanceAt(accountId, at);
+        }
+        synchronized (timeline) {
+            return timeline.balanceAt(at).amountToTheCent();
+        }
+    }
+
+    @Override
+    public BankOperation save(BankAccount account, BankOperation operation) {
+        BankOperation saved = delegate.save(account, operation);
+        AfterCommit.run(() -> extend(account.getId(), List.of(saved)));
+        return saved;
+    }
+
+    @Override
+    public List<BankOperation> saveAll(BankAccount account, List<BankOperation> operations) {
+        List<BankOperation> saved = delegate.saveAll(account, operations);
+        AfterCommit.run(() -> extend(account.getId(), saved));
+        return saved;
+    }
+
+    private BalanceTimeline timelineFor(String accountId) {
+        BalanceTimeline timeline = timelines.getIfPresent(accountId);
+        if (timeline != null) {
+            return timeline;
+        }
+        int queries = coldQueries.get(accountId, id -> new AtomicInteger()).incrementAndGet();
+        if (queries < admissionThreshold) {
+            return null;
+        }
+        coldQueries.invalidate(accountId);
+        // Les enregistrements du même compte attendent la fin de la construction avant de la prolonger
+        return timelines.get(accountId, id -> BalanceTimeline.of(delegate.findAllByAccountId(id)));
+    }
+
+    private void extend(String accountId, List<BankOperation> operations) {
+        timelines.asMap().computeIfPresent(accountId, (id, timeline) -> {
+            synchronized (timeline) {
+                for (BankOperation operation : operations) {
+                    if (!timeline.append(operation)) {
+                        return null;
+                    }
+                }
+            }
+            return timeline;
+        });
+    }
+}
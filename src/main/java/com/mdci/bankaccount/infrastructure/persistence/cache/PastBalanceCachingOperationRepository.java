@@ -0,0 +1,150 @@
+package com.mdci.bankaccount.infrastructure.persistence.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mdci.bankaccount.domain.model.BankAccount;
+import com.mdci.bankaccount.domain.model.BankOperation;
+import com.mdci.bankaccount.domain.port.out.IBankOperationRepository;
+import com.mdci.bankaccount.infrastructure.persistence.ForwardingBankOperationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Garde en mémoire les soldes de fin de journée déjà calculés pour des journées révolues.
+ * <p>
+ * Un tel solde ne change qu'à l'arrivée d'une opération antidatée : l'enregistrement validé d'une opération
+ * datée du jour J retire du cache les soldes du compte à J et aux dates suivantes, et seulement ceux-là.
+ * Le solde du jour courant ou d'un jour futur n'est jamais gardé. La mémoire est bornée par le nombre total
+ * de soldes gardés ; l'expiration après {@code ttl} borne l'écart avec les écritures d'une autre instance.
+ */
+public class PastBalanceCachingOperationRepository extends ForwardingBankOperationRepository {
+
+    private final Clock clock;
+    private final Cache<String, AccountBalances> balances;
+    private final Counter hits;
+    private final Counter misses;
+
+    public PastBalanceCachingOperationRepository(IBankOperationRepository delegate,
+                                                 Clock clock,
+                                                 long maximumEntries,
+                                                 Duration ttl,
+                                                 MeterRegistry meterRegistry) {
+        super(delegate);
+        if (maximumEntries <= 0) {
+            throw new IllegalArgumentException("Le nombre de soldes gardés doit être strictement positif.");
+        }
+        this.clock = clock;
+        // Une entrée par compte ; son poids est le nombre de dates gardées, réévalué à chaque ajout ou retrait
+        this.balances = Caffeine.newBuilder()
+                .maximumWeight(maximumEntries)
+                .weigher((String accountId, AccountBalances cached) -> Math.max(1, cached.size()))
+                .expireAfterWrite(ttl)
+                .build();
+        this.hits = Counter.builder("bank.balance.past.cache")
+                .description("Soldes de journées révolues demandés, selon qu'ils étaient en mémoire ou non")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("bank.balance.past.cache")
+                .description("Soldes de journées révolues demandés, selon qu'ils étaient en mémoire ou non")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("bank.balance.past.cache.hit.ratio", this, PastBalanceCachingOperationRepository::hitRatio)
+                .description("Part des soldes de journées révolues servis depuis la mémoire")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public BigDecimal findBalanceAtDate(String accountId, LocalDate date) {
+        if (!date.isBefore(LocalDate.now(clock))) {
+            return delegate.findBalanceAtDate(accountId, date);
+        }
+        // L'entrée existe avant la lecture : une écriture validée pendant celle-ci est forcément vue
+        AccountBalances cached = balances.get(accountId, id -> new AccountBalances());
+        long generation;
+        synchronized (cached) {
+            BigDecimal balance = cached.get(date);
+            if (balance != null) {
+                hits.increment();
+                return balance;
+            }
+            generation = cached.generation;
+        }
+        misses.increment();
+        BigDecimal balance = delegate.findBalanceAtDate(accountId, date);
+        balances.asMap().computeIfPresent(accountId, (id, current) -> {
+            synchronized (current) {
+                // Rien n'est gardé si une opération a été enregistrée entre-temps
+                if (current == cached && current.generation == generation) {
+                    current.put(date, balance);
+                }
+            }
+            return current;
+        });
+        return balance;
+    }
+
+    @Override
+    public BankOperation save(BankAccount account, BankOperation operation) {
+        BankOperation saved = delegate.save(account, operation);
+        AfterCommit.run(() -> invalidateFrom(account.getId(), saved.timestamp().toLocalDate()));
+        return saved;
+    }
+
+    @Override
+    public List<BankOperation> saveAll(BankAccount account, List<BankOperation> operations) {
+        List<BankOperation> saved = delegate.saveAll(account, operations);
+        saved.stream()
+                .map(operation -> operation.timestamp().toLocalDate())
+                .min(LocalDate::compareTo)
+                .ifPresent(day -> AfterCommit.run(() -> invalidateFrom(account.getId(), day)));
+        return saved;
+    }
+
+    private void invalidateFrom(String accountId, LocalDate day) {
+        balances.asMap().computeIfPresent(accountId, (id, current) -> {
+            synchronized (current) {
+                current.dropFrom(day);
+            }
+            return current;
+        });
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    /**
+     * Soldes gardés pour un compte, par date. La génération change à chaque opération enregistrée.
+     */
+    private static final class AccountBalances {
+
+        private final TreeMap<LocalDate, BigDecimal> byDate = new TreeMap<>();
+        private long generation;
+
+        BigDecimal get(LocalDate date) {
+            return byDate.get(date);
+        }
+
+        void put(LocalDate date, BigDecimal balance) {
+            byDate.put(date, balance);
+        }
+
+        void dropFrom(LocalDate day) {
+            byDate.tailMap(day, true).clear();
+            generation++;
+        }
+
+        int size() {
+            return byDate.size();
+        }
+    }
+}
@@ -24,6 +24,19 @@ public class BankAccountEntity {
 
     private BigDecimal depositCeiling;
 
+    // Solde courant : jamais écrit par un merge, uniquement par les UPDATE conditionnels de BankAccountJpaRepository
+    @Column(name = "balance", nullable = false, updatable = false)
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    // Nombre d'opérations enregistrées, incrémenté avec le solde
+    @Column(name = "operation_count", nullable = false, updatable = false)
+    private long operationCount;
+
+    // Incrémentée à chaque opération enregistrée : sert à détecter les écritures concurrentes
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @OneToMany(mappedBy = "account", fetch = FetchType.LAZY)
     private List<BankOperationEntity> operations = new ArrayList<>();
 
@@ -75,6 +88,30 @@ public class BankAccountEntity {
         this.depositCeiling = depositCeiling;
     }
 
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    public long getOperationCount() {
+        return operationCount;
+    }
+
+    public void setOperationCount(long operationCount) {
+        this.operationCount = operationCount;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public List<BankOperationEntity> getOperations() {
         return operations;
     }
@@ -1,13 +1,16 @@
 package com.mdci.bankaccount.infrastructure.persistence.entity;
 
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bank_operations")
-public class BankOperationEntity {
+@Table(name = "bank_operations",
+        indexes = @Index(name = "idx_bank_operations_account_timestamp_sequence",
+                columnList = "account_id, timestamp, sequence_number, id"))
+public class BankOperationEntity implements Persistable<String> {
 
     @Id
     private String id;
@@ -18,10 +21,22 @@ public class BankOperationEntity {
 
     private LocalDateTime timestamp;
 
-    @ManyToOne
+    @Column(name = "balance_after")
+    private BigDecimal balanceAfter;
+
+    // Rang d'enregistrement de l'opération dans le compte : départage les opérations de même horodatage,
+    // dans l'ordre où leur solde après opération a été calculé
+    @Column(name = "sequence_number")
+    private Long sequenceNumber;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id")
     private BankAccountEntity account;
 
+    // L'identifiant est attribué par le domaine : sans ce marqueur, save() ferait un SELECT (merge) avant chaque insertion
+    @Transient
+    private boolean isNew = true;
+
     public BankOperationEntity() {}
 
     public BankOperationEntity(String id, String type, BigDecimal amount, LocalDateTime timestamp, BankAccountEntity account) {
@@ -32,6 +47,18 @@ public class BankOperationEntity {
         this.account = account;
     }
 
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
     public String getId() {
         return id;
     }
@@ -64,6 +91,22 @@ public class BankOperationEntity {
         this.timestamp = timestamp;
     }
 
+    public BigDecimal getBalanceAfter() {
+        return balanceAfter;
+    }
+
+    public void setBalanceAfter(BigDecimal balanceAfter) {
+        this.balanceAfter = balanceAfter;
+    }
+
+    public Long getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    public void setSequenceNumber(Long sequenceNumber) {
+        this.sequenceNumber = sequenceNumber;
+    }
+
     public BankAccountEntity getAccount() {
         return account;
     }
@@ -0,0 +1,77 @@
+package com.mdci.bankaccount.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Cumul quotidien des opérations d'un compte : solde de clôture, totaux des dépôts et retraits, nombre d'opérations.
+ */
+@Entity
+@Table(name = "daily_balances",
+        uniqueConstraints = @UniqueConstraint(name = "uk_daily_balances_account_day", columnNames = {"account_id", "business_day"}))
+public class DailyBalanceEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private String accountId;
+
+    @Column(name = "business_day", nullable = false)
+    private LocalDate businessDay;
+
+    @Column(name = "closing_balance", nullable = false)
+    private BigDecimal closingBalance;
+
+    @Column(name = "deposit_total", nullable = false)
+    private BigDecimal depositTotal;
+
+    @Column(name = "withdrawal_total", nullable = false)
+    private BigDecimal withdrawalTotal;
+
+    @Column(name = "operation_count", nullable = false)
+    private long operationCount;
+
+    public DailyBalanceEntity() {}
+
+    public DailyBalanceEntity(String accountId, LocalDate businessDay, BigDecimal closingBalance,
+                              BigDecimal depositTotal, BigDecimal withdrawalTotal, long operationCount) {
+        this.accountId = accountId;
+        this.businessDay = businessDay;
+        this.closingBalance = closingBalance;
+        this.depositTotal = depositTotal;
+        this.withdrawalTotal = withdrawalTotal;
+        this.operationCount = operationCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public LocalDate getBusinessDay() {
+        return businessDay;
+    }
+
+    public BigDecimal getClosingBalance() {
+        return closingBalance;
+    }
+
+    public BigDecimal getDepositTotal() {
+        return depositTotal;
+    }
+
+    public BigDecimal getWithdrawalTotal() {
+        return withdrawalTotal;
+    }
+
+    public long getOperationCount() {
+        return operationCount;
+    }
+}
@@ -0,0 +1,200 @@
+package com.mdci.bankaccount.infrastructure.persistence.groupcommit;
+
+import com.mdci.bankaccount.domain.model.BankAccount;
+import com.mdci.bankaccount.domain.model.BankOperation;
+import com.mdci.bankaccount.domain.port.out.IBankOperationRepository;
+import com.mdci.bankaccount.infrastructure.persistence.ForwardingBankOperationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regroupe les enregistrements d'opérations arrivant en même temps dans une seule transaction.
+ * <p>
+ * Un thread d'écriture unique collecte les opérations pendant une courte fenêtre (ou jusqu'à une taille
+ * de lot), les enregistre dans une transaction commune, insertions regroupées en lots JDBC, puis rend la main
+ * à chaque appelant une fois la validation effectuée. Une opération refusée (solde, plafond, conflit)
+ * n'est signalée qu'à son appelant : elle ne modifie rien en base et n'annule pas le reste du lot.
+ * <p>
+ * Un appel effectué dans une transaction déjà ouverte est délégué directement : il relève de cette transaction.
+ * Le délégué ne doit pas ouvrir lui-même de transaction (pas de proxy transactionnel), sans quoi un refus
+ * marquerait la transaction commune comme à annuler.
+ */
+public class GroupCommitOperationRepository extends ForwardingBankOperationRepository {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final TransactionTemplate transactionTemplate;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingWrite> queue;
+    private final Thread writer;
+    private final Counter queuedWrites;
+    private final DistributionSummary batchSize;
+    private final Timer commitLatency;
+    private volatile boolean running = true;
+
+    public GroupCommitOperationRepository(IBankOperationRepository delegate,
+                                          PlatformTransactionManager transactionManager,
+                                          Duration window,
+                                          int maxBatchSize,
+                                          int queueCapacity,
+                                          MeterRegistry meterRegistry) {
+        super(delegate);
+        if (maxBatchSize <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("La taille de lot et la capacité de la file doivent être strictement positives.");
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setName("GROUP_COMMIT");
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.queuedWrites = Counter.builder("bank.operation.group.commit.queued")
+                .description("Opérations mises en file pour une transaction groupée")
+                .baseUnit("operations")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("bank.operation.group.commit.batch.size")
+                .description("Nombre d'opérations validées par transaction groupée")
+                .baseUnit("operations")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.commitLatency = Timer.builder("bank.operation.group.commit.latency")
+                .description("Durée d'écriture et de validation d'un lot d'opérations")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.writer = new Thread(this::runWriter, "bank-group-commit");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public BankOperation save(BankAccount account, BankOperation operation) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return delegate.save(account, operation);
+        }
+        if (!running) {
+            throw stopped();
+        }
+        PendingWrite write = new PendingWrite(account, operation, new CompletableFuture<>());
+        try {
+            queue.put(write);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Enregistrement de l'opération interrompu.", e);
+        }
+        queuedWrites.increment();
+        // Arrêt survenu entre la vérification et la mise en file : plus personne ne la prendra
+        if (!writer.isAlive() && queue.remove(write)) {
+            throw stopped();
+        }
+        try {
+            return write.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Arrête la collecte ; les opérations déjà en file sont encore enregistrées avant le retour. Celles que
+     * le thread d'écriture n'a pas prises à temps sont refusées, pour ne laisser aucun appelant en attente.
+     * L'écriture groupée décore toujours l'adaptateur JPA, qui n'a rien à fermer.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        PendingWrite left;
+        while ((left = queue.poll()) != null) {
+            left.result().completeExceptionally(stopped());
+        }
+    }
+
+    private static IllegalStateException stopped() {
+        return new IllegalStateException("L'écriture groupée des opérations est arrêtée.");
+    }
+
+    private void runWriter() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+            } catch (InterruptedException e) {
+                // Arrêt forcé : les opérations déjà collectées sont tout de même enregistrées
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collect(List<PendingWrite> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            // Fenêtre écoulée : on prend encore ce qui est déjà arrivé, sans attendre
+            PendingWrite next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void commit(List<PendingWrite> batch) {
+        BankOperation[] saved = new BankOperation[batch.size()];
+        RuntimeException[] rejections = new RuntimeException[batch.size()];
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < batch.size(); i++) {
+                    PendingWrite write = batch.get(i);
+                    try {
+                        saved[i] = delegate.save(write.account(), write.operation());
+                    } catch (RuntimeException e) {
+                        rejections[i] = e;
+                    }
+                }
+            });
+        } catch (RuntimeException commitFailure) {
+            // La validation a échoué : aucune opération du lot n'est enregistrée
+            batch.forEach(write -> write.result().completeExceptionally(commitFailure));
+            return;
+        } finally {
+            commitLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSize.record(batch.size());
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            if (rejections[i] != null) {
+                batch.get(i).result().completeExceptionally(rejections[i]);
+            } else {
+                batch.get(i).result().complete(saved[i]);
+            }
+        }
+    }
+
+    private record PendingWrite(BankAccount account, BankOperation operation, CompletableFuture<BankOperation> result) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.mdci.bankaccount.infrastructure.persistence.jpa;
+
+import java.math.BigDecimal;
+
+public record AccountBalanceAtDateView(String accountId, BigDecimal balance) {
+}
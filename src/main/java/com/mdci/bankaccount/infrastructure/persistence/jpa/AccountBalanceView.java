@@ -0,0 +1,10 @@
+package com.mdci.bankaccount.infrastructure.persistence.jpa;
+
+import java.math.BigDecimal;
+
+public record AccountBalanceView(BigDecimal balance, long operationCount, Long version) {
+
+    public AccountBalanceView(BigDecimal balance, long operationCount) {
+        this(balance, operationCount, null);
+    }
+}
@@ -2,12 +2,66 @@ package com.mdci.bankaccount.infrastructure.persistence.jpa;
 
 import com.mdci.bankaccount.infrastructure.persistence.entity.BankAccountEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 
-public interface BankAccountJpaRepository extends JpaRepository<BankAccountEntity, String> {
+public interface BankAccountJpaRepository extends JpaRepository<BankAccountEntity, String>, BankAccountLockingRepository {
     @Query("SELECT a FROM BankAccountEntity a LEFT JOIN FETCH a.operations WHERE a.id = :id")
     Optional<BankAccountEntity> findByIdWithOperations(@Param("id") String id);
+
+    /**
+     * Crédite le solde en une seule requête, sauf si le plafond (livret) serait dépassé.
+     * Si {@code expectedVersion} est fourni, la ligne n'est modifiée que si elle n'a pas changé depuis sa lecture.
+     * Retourne 0 si le compte est introuvable, si le plafond bloque le dépôt ou si la version a changé.
+     */
+    @Modifying
+    @Query("UPDATE BankAccountEntity a SET a.balance = a.balance + :amount, a.operationCount = a.operationCount + 1, " +
+            "a.version = a.version + 1 " +
+            "WHERE a.id = :id AND (a.depositCeiling IS NULL OR a.balance + :amount <= a.depositCeiling) " +
+            "AND (:expectedVersion IS NULL OR a.version = :expectedVersion)")
+    int creditBalance(@Param("id") String id, @Param("amount") BigDecimal amount, @Param("expectedVersion") Long expectedVersion);
+
+    /**
+     * Débite le solde en une seule requête, sauf si le découvert autorisé serait dépassé.
+     * Si {@code expectedVersion} est fourni, la ligne n'est modifiée que si elle n'a pas changé depuis sa lecture.
+     * Retourne 0 si le compte est introuvable, si le solde est insuffisant ou si la version a changé.
+     */
+    @Modifying
+    @Query("UPDATE BankAccountEntity a SET a.balance = a.balance - :amount, a.operationCount = a.operationCount + 1, " +
+            "a.version = a.version + 1 " +
+            "WHERE a.id = :id AND a.balance + a.authorizedOverdraft >= :amount " +
+            "AND (:expectedVersion IS NULL OR a.version = :expectedVersion)")
+    int debitBalance(@Param("id") String id, @Param("amount") BigDecimal amount, @Param("expectedVersion") Long expectedVersion);
+
+    /**
+     * Répercute en une requête le cumul d'un lot d'opérations validées en mémoire, à condition que le compte
+     * n'ait pas changé depuis son chargement. Retourne 0 sinon.
+     */
+    @Modifying
+    @Query("UPDATE BankAccountEntity a SET a.balance = a.balance + :delta, a.operationCount = a.operationCount + :count, " +
+            "a.version = a.version + 1 " +
+            "WHERE a.id = :id AND a.version = :expectedVersion")
+    int applyBatch(@Param("id") String id,
+                   @Param("delta") BigDecimal delta,
+                   @Param("count") long count,
+                   @Param("expectedVersion") Long expectedVersion);
+
+    /**
+     * Relit le solde et le compteur d'opérations sans passer par le contexte de persistance,
+     * qui n'est pas rafraîchi par les UPDATE ci-dessus.
+     */
+    @Query("SELECT new com.mdci.bankaccount.infrastructure.persistence.jpa.AccountBalanceView(a.balance, a.operationCount) " +
+            "FROM BankAccountEntity a WHERE a.id = :id")
+    AccountBalanceView findBalanceViewById(@Param("id") String id);
+
+    /**
+     * Solde, compteur et version, sans charger l'entité : le reste du compte est connu par ailleurs.
+     */
+    @Query("SELECT new com.mdci.bankaccount.infrastructure.persistence.jpa.AccountBalanceView(a.balance, a.operationCount, a.version) " +
+            "FROM BankAccountEntity a WHERE a.id = :id")
+    Optional<AccountBalanceView> findBalanceAndVersionById(@Param("id") String id);
 }
@@ -0,0 +1,18 @@
+package com.mdci.bankaccount.infrastructure.persistence.jpa;
+
+import com.mdci.bankaccount.infrastructure.persistence.entity.BankAccountEntity;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Lecture verrouillante d'un compte, dont le délai d'attente n'est connu qu'à l'exécution.
+ */
+public interface BankAccountLockingRepository {
+
+    /**
+     * Lit le compte avec un verrou d'écriture en base ({@code SELECT ... FOR UPDATE}) conservé jusqu'à la fin
+     * de la transaction courante. Au-delà de {@code lockTimeout}, l'attente échoue au lieu de se prolonger.
+     */
+    Optional<BankAccountEntity> findByIdForUpdate(String id, Duration lockTimeout);
+}
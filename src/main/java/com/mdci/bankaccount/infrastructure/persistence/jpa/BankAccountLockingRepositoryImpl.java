@@ -0,0 +1,29 @@
+package com.mdci.bankaccount.infrastructure.persistence.jpa;
+
+import com.mdci.bankaccount.infrastructure.persistence.entity.BankAccountEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+class BankAccountLockingRepositoryImpl implements BankAccountLockingRepository {
+
+    private static final String LOCK_TIMEOUT_HINT = "jakarta.persistence.lock.timeout";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<BankAccountEntity> findByIdForUpdate(String id, Duration lockTimeout) {
+        BankAccountEntity entity = entityManager.find(
+                BankAccountEntity.class,
+                id,
+                LockModeType.PESSIMISTIC_WRITE,
+                Map.of(LOCK_TIMEOUT_HINT, lockTimeout.toMillis())
+        );
+        return Optional.ofNullable(entity);
+    }
+}
@@ -1,18 +1,126 @@
 package com.mdci.bankaccount.infrastructure.persistence.jpa;
 
 import com.mdci.bankaccount.infrastructure.persistence.entity.BankOperationEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
-public interface BankOperationJpaRepository extends JpaRepository<BankOperationEntity, String> {
+public interface BankOperationJpaRepository extends JpaRepository<BankOperationEntity, String>, BankOperationStreamingRepository {
     @Query("SELECT o FROM BankOperationEntity o WHERE o.account.id = :accountId AND o.timestamp <= :date")
     List<BankOperationEntity> findAllByAccountIdUntilDate(String accountId, LocalDateTime date);
 
-    @Query("SELECT o FROM BankOperationEntity o WHERE o.account.id = :accountId ORDER BY o.timestamp")
+    /**
+     * Opérations du compte par (date, rang) : à date égale, dans l'ordre d'enregistrement.
+     */
+    @Query("SELECT o FROM BankOperationEntity o WHERE o.account.id = :accountId ORDER BY o.timestamp, o.sequenceNumber")
     List<BankOperationEntity> findAllByAccountId(String accountId);
 
-    List<BankOperationEntity> findByAccountIdAndTimestampBetween(String accountId, LocalDateTime from, LocalDateTime to);
+    /**
+     * Opérations les plus récentes du compte, par (date, rang) décroissants.
+     */
+    @Query("SELECT o FROM BankOperationEntity o WHERE o.account.id = :accountId " +
+            "ORDER BY o.timestamp DESC, o.sequenceNumber DESC")
+    List<BankOperationEntity> findLatestByAccountId(@Param("accountId") String accountId, Limit limit);
+
+    /**
+     * Suite de {@link #findLatestByAccountId} : opérations strictement antérieures, dans l'ordre (date, rang),
+     * à la dernière lue, dont le rang est relu par sa clé. Parcourt l'index (compte, date, rang) sans sauter
+     * de lignes, quelle que soit la page.
+     */
+    @Query("SELECT o FROM BankOperationEntity o WHERE o.account.id = :accountId " +
+            "AND (o.timestamp < :timestamp OR (o.timestamp = :timestamp AND o.sequenceNumber < " +
+            "(SELECT c.sequenceNumber FROM BankOperationEntity c WHERE c.id = :operationId))) " +
+            "ORDER BY o.timestamp DESC, o.sequenceNumber DESC")
+    List<BankOperationEntity> findLatestByAccountIdBefore(@Param("accountId") String accountId,
+                                                         @Param("timestamp") LocalDateTime timestamp,
+                                                         @Param("operationId") String operationId,
+                                                         Limit limit);
+
+    /**
+     * Empreinte des opérations de la période : n'utilise que les colonnes de l'index (compte, date, rang, identifiant),
+     * sans lire les lignes elles-mêmes.
+     */
+    @Query("SELECT new com.mdci.bankaccount.infrastructure.persistence.jpa.OperationRangeVersionView(" +
+            "COUNT(o), MAX(o.timestamp), MAX(o.id)) " +
+            "FROM BankOperationEntity o WHERE o.account.id = :accountId AND o.timestamp BETWEEN :from AND :to")
+    OperationRangeVersionView findRangeVersion(@Param("accountId") String accountId,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+    @Query("SELECT o FROM BankOperationEntity o WHERE o.account.id = :accountId " +
+            "AND o.timestamp BETWEEN :from AND :to ORDER BY o.timestamp, o.sequenceNumber")
+    List<BankOperationEntity> findByAccountIdAndTimestampBetween(@Param("accountId") String accountId,
+                                                                 @Param("from") LocalDateTime from,
+                                                                 @Param("to") LocalDateTime to);
+
+    /**
+     * Solde du compte à l'instant donné, cumulé par la base : une seule valeur transférée quelle que soit la profondeur d'historique.
+     */
+    @Query("SELECT COALESCE(SUM(CASE WHEN o.type = 'DEPOSIT' THEN o.amount ELSE -o.amount END), 0.00BD) " +
+            "FROM BankOperationEntity o WHERE o.account.id = :accountId AND o.timestamp <= :date")
+    BigDecimal sumBalanceUntil(@Param("accountId") String accountId, @Param("date") LocalDateTime date);
+
+    /**
+     * Ajoute {@code value} au solde après opération des opérations du compte datées après {@code timestamp} :
+     * une opération enregistrée après elles mais datée avant y est comptée. Retourne le nombre d'opérations modifiées.
+     */
+    @Modifying
+    @Query("UPDATE BankOperationEntity o SET o.balanceAfter = o.balanceAfter + :value " +
+            "WHERE o.account.id = :accountId AND o.timestamp > :timestamp")
+    int shiftBalanceAfterSince(@Param("accountId") String accountId,
+                               @Param("timestamp") LocalDateTime timestamp,
+                               @Param("value") BigDecimal value);
+
+    /**
+     * Variation du solde due aux opérations du compte datées après {@code timestamp}.
+     */
+    @Query("SELECT COALESCE(SUM(CASE WHEN o.type = 'DEPOSIT' THEN o.amount ELSE -o.amount END), 0.00BD) " +
+            "FROM BankOperationEntity o WHERE o.account.id = :accountId AND o.timestamp > :timestamp")
+    BigDecimal sumBalanceSince(@Param("accountId") String accountId, @Param("timestamp") LocalDateTime timestamp);
+
+    /**
+     * Variation nette du solde par jour, pour les seuls jours ayant des opérations, dans l'ordre chronologique.
+     */
+    @Query("SELECT new com.mdci.bankaccount.infrastructure.persistence.jpa.DailyNetChangeView(" +
+            "CAST(o.timestamp AS LocalDate), SUM(CASE WHEN o.type = 'DEPOSIT' THEN o.amount ELSE -o.amount END)) " +
+            "FROM BankOperationEntity o WHERE o.account.id = :accountId AND o.timestamp >= :from AND o.timestamp < :until " +
+            "GROUP BY CAST(o.timestamp AS LocalDate) ORDER BY CAST(o.timestamp AS LocalDate)")
+    List<DailyNetChangeView> sumNetChangesByDay(@Param("accountId") String accountId,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("until") LocalDateTime until);
+
+    /**
+     * Solde à l'instant {@code until} des comptes d'identifiant strictement supérieur à {@code afterId},
+     * par identifiant croissant : une page de comptes agrégée en une requête. Un compte sans opération à cette date vaut 0.
+     */
+    @Query("SELECT new com.mdci.bankaccount.infrastructure.persistence.jpa.AccountBalanceAtDateView(a.id, " +
+            "COALESCE(SUM(CASE WHEN o.type = 'DEPOSIT' THEN o.amount ELSE -o.amount END), 0.00BD)) " +
+            "FROM BankAccountEntity a LEFT JOIN a.operations o ON o.timestamp <= :until " +
+            "WHERE a.id > :afterId GROUP BY a.id ORDER BY a.id")
+    List<AccountBalanceAtDateView> sumBalancesAfterId(@Param("afterId") String afterId,
+                                                      @Param("until") LocalDateTime until,
+                                                      Limit limit);
+
+    @Query("SELECT new com.mdci.bankaccount.infrastructure.persistence.jpa.AccountBalanceAtDateView(a.id, " +
+            "COALESCE(SUM(CASE WHEN o.type = 'DEPOSIT' THEN o.amount ELSE -o.amount END), 0.00BD)) " +
+            "FROM BankAccountEntity a LEFT JOIN a.operations o ON o.timestamp <= :until " +
+            "WHERE a.id IN :ids GROUP BY a.id ORDER BY a.id")
+    List<AccountBalanceAtDateView> sumBalancesForIds(@Param("ids") Collection<String> ids,
+                                                     @Param("until") LocalDateTime until);
+
+    @Query("SELECT new com.mdci.bankaccount.infrastructure.persistence.jpa.OperationTotalsView(" +
+            "COALESCE(SUM(CASE WHEN o.type = 'DEPOSIT' THEN o.amount ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN o.type = 'WITHDRAWAL' THEN o.amount ELSE 0 END), 0), " +
+            "COUNT(o)) " +
+            "FROM BankOperationEntity o WHERE o.account.id = :accountId AND o.timestamp BETWEEN :from AND :to")
+    OperationTotalsView sumTotalsBetween(@Param("accountId") String accountId,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,19 @@
+package com.mdci.bankaccount.infrastructure.persistence.jpa;
+
+import com.mdci.bankaccount.infrastructure.persistence.entity.BankOperationEntity;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Parcours d'un historique sans le charger : la mémoire occupée ne dépend pas du nombre d'opérations.
+ */
+public interface BankOperationStreamingRepository {
+
+    /**
+     * Transmet une à une, par date croissante, les opérations du compte datées entre {@code from} et {@code to} inclus,
+     * au fil de leur lecture. Chaque entité est détachée après usage. Doit être appelé dans une transaction.
+     */
+    void forEachByAccountIdBetween(String accountId, LocalDateTime from, LocalDateTime to,
+                                   Consumer<BankOperationEntity> action);
+}
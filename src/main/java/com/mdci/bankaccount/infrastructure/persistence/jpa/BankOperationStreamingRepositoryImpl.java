@@ -0,0 +1,40 @@
+package com.mdci.bankaccount.infrastructure.persistence.jpa;
+
+import com.mdci.bankaccount.infrastructure.persistence.entity.BankOperationEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+class BankOperationStreamingRepositoryImpl implements BankOperationStreamingRepository {
+
+    // Lignes lues par aller-retour avec la base : le curseur JDBC n'en garde pas davantage
+    private static final int FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void forEachByAccountIdBetween(String accountId, LocalDateTime from, LocalDateTime to,
+                                          Consumer<BankOperationEntity> action) {
+        try (Stream<BankOperationEntity> operations = entityManager.createQuery(
+                        "SELECT o FROM BankOperationEntity o WHERE o.account.id = :accountId " +
+                                "AND o.timestamp BETWEEN :from AND :to ORDER BY o.timestamp, o.sequenceNumber",
+                        BankOperationEntity.class)
+                .setParameter("accountId", accountId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            operations.forEach(operation -> {
+                action.accept(operation);
+                // Sans cela, le contexte de persistance garderait toutes les entités lues jusqu'à la fin de la transaction
+                entityManager.detach(operation);
+            });
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.mdci.bankaccount.infrastructure.persistence.jpa;
+
+import com.mdci.bankaccount.infrastructure.persistence.entity.DailyBalanceEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyBalanceJpaRepository extends JpaRepository<DailyBalanceEntity, Long> {
+
+    /**
+     * Ajoute les mouvements d'une journée à son cumul. Retourne 0 si la journée n'a pas encore de cumul.
+     */
+    @Modifying
+    @Query("UPDATE DailyBalanceEntity d SET d.closingBalance = d.closingBalance + :delta, " +
+            "d.depositTotal = d.depositTotal + :deposits, d.withdrawalTotal = d.withdrawalTotal + :withdrawals, " +
+            "d.operationCount = d.operationCount + :count " +
+            "WHERE d.accountId = :accountId AND d.businessDay = :day")
+    int addToDay(@Param("accountId") String accountId,
+                 @Param("day") LocalDate day,
+                 @Param("delta") BigDecimal delta,
+                 @Param("deposits") BigDecimal deposits,
+                 @Param("withdrawals") BigDecimal withdrawals,
+                 @Param("count") long count);
+
+    /**
+     * Répercute un mouvement antidaté sur le solde de clôture des journées qui le suivent.
+     */
+    @Modifying
+    @Query("UPDATE DailyBalanceEntity d SET d.closingBalance = d.closingBalance + :delta " +
+            "WHERE d.accountId = :accountId AND d.businessDay > :day")
+    int shiftClosingBalancesAfter(@Param("accountId") String accountId,
+                                  @Param("day") LocalDate day,
+                                  @Param("delta") BigDecimal delta);
+
+    @Query("SELECT d.closingBalance FROM DailyBalanceEntity d " +
+            "WHERE d.accountId = :accountId AND d.businessDay <= :day ORDER BY d.businessDay DESC")
+    List<BigDecimal> findClosingBalancesUntil(@Param("accountId") String accountId, @Param("day") LocalDate day, Limit limit);
+
+    @Query("SELECT d.closingBalance FROM DailyBalanceEntity d " +
+            "WHERE d.accountId = :accountId AND d.businessDay < :day ORDER BY d.businessDay DESC")
+    List<BigDecimal> findClosingBalancesBefore(@Param("accountId") String accountId, @Param("day") LocalDate day, Limit limit);
+}
@@ -0,0 +1,7 @@
+package com.mdci.bankaccount.infrastructure.persistence.jpa;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DailyNetChangeView(LocalDate day, BigDecimal net) {
+}
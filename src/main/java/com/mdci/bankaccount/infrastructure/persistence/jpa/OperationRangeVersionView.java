@@ -0,0 +1,6 @@
+package com.mdci.bankaccount.infrastructure.persistence.jpa;
+
+import java.time.LocalDateTime;
+
+public record OperationRangeVersionView(long operationCount, LocalDateTime latestTimestamp, String maxOperationId) {
+}
@@ -0,0 +1,6 @@
+package com.mdci.bankaccount.infrastructure.persistence.jpa;
+
+import java.math.BigDecimal;
+
+public record OperationTotalsView(BigDecimal deposits, BigDecimal withdrawals, long count) {
+}
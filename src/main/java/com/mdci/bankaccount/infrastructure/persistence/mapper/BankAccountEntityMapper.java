@@ -46,8 +46,21 @@ public class BankAccountEntityMapper {
         );
     }
 
+    public BankAccount toDomainWithStoredBalance(BankAccountEntity entity, BankOperationFactory factory) {
+        return BankAccountFactory.rehydrateWithBalanceOnly(
+                entity.getId(),
+                factory,
+                Money.of(entity.getBalance()),
+                Money.of(entity.getAuthorizedOverdraft()),
+                entity.getAccountType(),
+                Money.of(entity.getDepositCeiling() != null ? entity.getDepositCeiling() : BigDecimal.ZERO),
+                entity.getVersion(),
+                entity.getOperationCount()
+        );
+    }
+
     public BankAccount toDomainWithBalanceOnly(BankAccountEntity entity, BankOperationFactory factory, List<BankOperation> operations) {
-        BigDecimal balance = computeBalanceFromOperations(operations);
+        BigDecimal balance = BankAccountFactory.computeBalanceFromOperations(operations);
 
         return BankAccountFactory.rehydrateWithBalanceOnly(
                 entity.getId(),
@@ -59,17 +72,6 @@ public class BankAccountEntityMapper {
         );
     }
 
-    private BigDecimal computeBalanceFromOperations(List<BankOperation> operations) {
-        BigDecimal balance = BigDecimal.ZERO;
-        for (BankOperation op : operations) {
-            switch (BankOperation.OperationType.valueOf(op.type().name())) {
-                case DEPOSIT -> balance = balance.add(op.amount().amount());
-                case WITHDRAWAL -> balance = balance.subtract(op.amount().amount());
-            }
-        }
-        return balance;
-    }
-
     private BankOperationEntity toOperationEntity(BankOperation op, BankAccountEntity parent) {
         return new BankOperationEntity(
                 null,
@@ -85,7 +87,8 @@ public class BankAccountEntityMapper {
                 entity.getId(),
                 BankOperation.OperationType.valueOf(entity.getType()),
                 new Money(entity.getAmount()),
-                entity.getTimestamp()
+                entity.getTimestamp(),
+                entity.getBalanceAfter()
         );
     }
 }
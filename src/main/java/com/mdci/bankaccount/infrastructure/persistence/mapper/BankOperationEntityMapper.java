@@ -8,13 +8,15 @@ import com.mdci.bankaccount.infrastructure.persistence.entity.BankOperationEntit
 public class BankOperationEntityMapper {
 
     public BankOperationEntity toEntity(BankOperation op, BankAccountEntity parent) {
-        return new BankOperationEntity(
+        BankOperationEntity entity = new BankOperationEntity(
                 op.id(),
                 op.type().name(),
                 op.amount().amount(),
                 op.timestamp(),
                 parent
         );
+        entity.setBalanceAfter(op.balanceAfter());
+        return entity;
     }
 
     public BankOperation toDomain(BankOperationEntity entity) {
@@ -22,7 +24,8 @@ public class BankOperationEntityMapper {
                 entity.getId(),
                 BankOperation.OperationType.valueOf(entity.getType()),
                 new Money(entity.getAmount()),
-                entity.getTimestamp()
+                entity.getTimestamp(),
+                entity.getBalanceAfter()
         );
     }
 }
@@ -0,0 +1,76 @@
+package com.mdci.bankaccount.infrastructure.persistence.rollup;
+
+import com.mdci.bankaccount.domain.model.BankOperation;
+import com.mdci.bankaccount.domain.model.Money;
+import com.mdci.bankaccount.infrastructure.persistence.entity.DailyBalanceEntity;
+import com.mdci.bankaccount.infrastructure.persistence.jpa.DailyBalanceJpaRepository;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Tient à jour, dans la transaction de l'écriture, le cumul quotidien des opérations de chaque compte.
+ * Le solde de clôture d'une journée est la somme de toutes les opérations datées de ce jour ou avant :
+ * une opération antidatée modifie donc aussi celui des journées suivantes.
+ */
+public class DailyBalanceRollups {
+
+    private final DailyBalanceJpaRepository repository;
+
+    public DailyBalanceRollups(DailyBalanceJpaRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Ajoute les opérations au cumul de leur journée. Doit être appelé dans la transaction qui les enregistre,
+     * après la mise à jour du solde du compte qui sérialise les écritures sur ce compte.
+     */
+    public void record(String accountId, List<BankOperation> operations) {
+        Map<LocalDate, DayMovements> byDay = new TreeMap<>();
+        for (BankOperation operation : operations) {
+            byDay.computeIfAbsent(operation.timestamp().toLocalDate(), day -> new DayMovements()).add(operation);
+        }
+        byDay.forEach((day, movements) -> record(accountId, day, movements));
+    }
+
+    /**
+     * Solde de clôture de la dernière journée d'activité du compte, au plus tard {@code day}.
+     */
+    public Optional<BigDecimal> closingBalanceAt(String accountId, LocalDate day) {
+        return repository.findClosingBalancesUntil(accountId, day, Limit.of(1)).stream().findFirst();
+    }
+
+    private void record(String accountId, LocalDate day, DayMovements movements) {
+        BigDecimal delta = movements.deposits.subtract(movements.withdrawals).amount();
+        BigDecimal deposits = movements.deposits.amount();
+        BigDecimal withdrawals = movements.withdrawals.amount();
+        // Sans effet pour une opération du jour ; corrige les journées suivantes pour une opération antidatée
+        repository.shiftClosingBalancesAfter(accountId, day, delta);
+        if (repository.addToDay(accountId, day, delta, deposits, withdrawals, movements.count) > 0) {
+            return;
+        }
+        BigDecimal previousClosing = repository.findClosingBalancesBefore(accountId, day, Limit.of(1)).stream()
+                .findFirst()
+                .orElse(BigDecimal.ZERO);
+        repository.save(new DailyBalanceEntity(accountId, day, previousClosing.add(delta), deposits, withdrawals, movements.count));
+    }
+
+    private static final class DayMovements {
+        private Money deposits = Money.zero();
+        private Money withdrawals = Money.zero();
+        private long count;
+
+        void add(BankOperation operation) {
+            switch (operation.type()) {
+                case DEPOSIT -> deposits = deposits.add(operation.amount());
+                case WITHDRAWAL -> withdrawals = withdrawals.add(operation.amount());
+            }
+            count++;
+        }
+    }
+}
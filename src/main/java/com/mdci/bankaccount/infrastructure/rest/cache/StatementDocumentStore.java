@@ -0,0 +1,402 @@
+package com.mdci.bankaccount.infrastructure.rest.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Relevés PDF déjà produits, gardés sur disque sous leur ETag : un fichier par empreinte du contenu.
+ * <p>
+ * Un document est d'abord écrit dans un fichier temporaire, synchronisé sur le disque, puis renommé de façon
+ * atomique : après un arrêt brutal, un fichier final est toujours complet et les fichiers temporaires restants
+ * sont supprimés au démarrage. La place occupée est bornée par {@code maximumBytes} ; au-delà, les documents
+ * les moins récemment servis ne sont plus servis. L'ordre d'utilisation est reconstitué au démarrage à partir
+ * de la date de modification des fichiers, mise à jour à chaque document servi.
+ * <p>
+ * Un document trouvé est ouvert plus tard, par le conteneur (sendfile) ou par le thread qui écrit la réponse :
+ * son fichier n'est donc supprimé que {@code evictionDelay} après son retrait, en gardant son nom. Le même
+ * document gardé de nouveau entre-temps annule la suppression.
+ */
+public class StatementDocumentStore {
+
+    private static final String SUFFIX = ".pdf";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final Pattern KEY = Pattern.compile("[A-Za-z0-9_-]+");
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final long maximumBytes;
+    private final long evictionDelayMillis;
+    private final Clock clock;
+    // Ordre d'accès : le premier document est le moins récemment servi
+    private final LinkedHashMap<String, Long> sizes = new LinkedHashMap<>(16, 0.75f, true);
+    // Documents retirés en attente de suppression, par échéance croissante
+    private final LinkedHashMap<String, Retired> retired = new LinkedHashMap<>();
+    private long totalBytes;
+    private long retiredBytes;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter writeFailures;
+
+    public StatementDocumentStore(Path directory, long maximumBytes, Duration evictionDelay, Clock clock,
+                                  MeterRegistry meterRegistry) {
+        if (directory == null || maximumBytes <= 0 || evictionDelay.isNegative()) {
+            throw new IllegalArgumentException("Le répertoire des relevés doit être fourni, sa taille strictement positive "
+                    + "et le délai de suppression positif.");
+        }
+        this.directory = directory;
+        this.maximumBytes = maximumBytes;
+        this.evictionDelayMillis = evictionDelay.toMillis();
+        this.clock = clock;
+        this.hits = Counter.builder("bank.statement.store")
+                .description("Relevés PDF demandés, selon qu'ils étaient sur disque ou non")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("bank.statement.store")
+                .description("Relevés PDF demandés, selon qu'ils étaient sur disque ou non")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.writeFailures = Counter.builder("bank.statement.store.write.failures")
+                .description("Relevés PDF envoyés mais non gardés sur disque à la suite d'une erreur d'écriture")
+                .register(meterRegistry);
+        Gauge.builder("bank.statement.store.size", this, StatementDocumentStore::occupiedBytes)
+                .description("Place occupée sur disque par les relevés PDF gardés ou en attente de suppression")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        recover();
+    }
+
+    private StatementDocumentStore() {
+        this.directory = null;
+        this.maximumBytes = 0;
+        this.evictionDelayMillis = 0;
+        this.clock = null;
+        this.hits = null;
+        this.misses = null;
+        this.writeFailures = null;
+    }
+
+    /**
+     * Stockage inactif : rien n'est gardé ni trouvé.
+     */
+    public static StatementDocumentStore disabled() {
+        return new StatementDocumentStore();
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Document gardé sous cet ETag, {@code null} s'il n'y en a pas. Le document devient le plus récemment servi ;
+     * son fichier reste en place au moins {@code evictionDelay} même s'il est retiré entre-temps.
+     */
+    public StoredDocument find(String etag) {
+        if (!isEnabled()) {
+            return null;
+        }
+        String key = keyOf(etag);
+        Long size;
+        synchronized (this) {
+            size = sizes.get(key);
+            purge(clock.millis());
+        }
+        if (size == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        Path file = fileOf(key);
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(clock.millis()));
+        } catch (IOException e) {
+            // Supprimé entre-temps : le document est reproduit
+            forget(key);
+            return null;
+        }
+        return new StoredDocument(file, size);
+    }
+
+    /**
+     * Recopie ce qui est écrit dans {@code output} dans un fichier temporaire ; {@link Capture#complete()} le garde
+     * sous cet ETag une fois le document entièrement écrit, {@link Capture#close()} l'abandonne sinon. Une erreur
+     * d'écriture sur le disque abandonne la copie sans interrompre la réponse.
+     */
+    public Capture capture(String etag, OutputStream output) {
+        return new Capture(keyOf(etag), output);
+    }
+
+    /**
+     * Écrit le fichier dans {@code output} par blocs, sans le charger en mémoire.
+     */
+    public static void transferTo(Path file, OutputStream output) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(output);
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+    }
+
+    synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    synchronized long occupiedBytes() {
+        return totalBytes + retiredBytes;
+    }
+
+    private void recover() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> documents = new ArrayList<>();
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(TEMP_SUFFIX)) {
+                        // Écriture interrompue par un arrêt brutal
+                        Files.deleteIfExists(file);
+                    } else if (name.endsWith(SUFFIX) && KEY.matcher(keyOfFile(name)).matches()) {
+                        documents.add(file);
+                    }
+                }
+            }
+            documents.sort(Comparator.comparing(StatementDocumentStore::lastModified));
+            synchronized (this) {
+                for (Path document : documents) {
+                    register(keyOfFile(document.getFileName().toString()), Files.size(document));
+                }
+                // Rien n'est encore servi : les documents en trop sont supprimés tout de suite
+                purge(Long.MAX_VALUE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Répertoire des relevés inutilisable : " + directory, e);
+        }
+    }
+
+    /**
+     * Le fichier de ce document est déjà à sa place : il devient le plus récemment servi, et les moins récemment
+     * servis sont retirés au-delà de la place maximale. Appelé sous le verrou du stockage.
+     */
+    private void register(String key, long size) {
+        long now = clock.millis();
+        Retired pending = retired.remove(key);
+        if (pending != null) {
+            retiredBytes -= pending.size();
+        }
+        if (size > maximumBytes) {
+            retire(key, size, now);
+        } else {
+            Long previous = sizes.put(key, size);
+            totalBytes += size - (previous != null ? previous : 0);
+            Iterator<Map.Entry<String, Long>> eldest = sizes.entrySet().iterator();
+            while (totalBytes > maximumBytes && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                if (!entry.getKey().equals(key)) {
+                    totalBytes -= entry.getValue();
+                    eldest.remove();
+                    retire(entry.getKey(), entry.getValue(), now);
+                }
+            }
+        }
+        purge(now);
+    }
+
+    private void retire(String key, long size, long now) {
+        retired.put(key, new Retired(size, now + evictionDelayMillis));
+        retiredBytes += size;
+    }
+
+    /**
+     * Supprime les fichiers retirés depuis plus de {@code evictionDelay}. Appelé sous le verrou du stockage :
+     * un même document gardé de nouveau ne peut pas être renommé à sa place pendant la suppression.
+     */
+    private void purge(long now) {
+        Iterator<Map.Entry<String, Retired>> oldest = retired.entrySet().iterator();
+        while (oldest.hasNext()) {
+            Map.Entry<String, Retired> entry = oldest.next();
+            if (entry.getValue().deadline() > now) {
+                return;
+            }
+            retiredBytes -= entry.getValue().size();
+            oldest.remove();
+            try {
+                Files.deleteIfExists(fileOf(entry.getKey()));
+            } catch (IOException e) {
+                // Retenté au prochain démarrage si le fichier est encore là
+            }
+        }
+    }
+
+    private void forget(String key) {
+        synchronized (this) {
+            Long size = sizes.remove(key);
+            if (size != null) {
+                totalBytes -= size;
+            }
+        }
+    }
+
+    private Path fileOf(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+
+    private static String keyOf(String etag) {
+        String key = etag.startsWith("\"") && etag.endsWith("\"") && etag.length() > 1
+                ? etag.substring(1, etag.length() - 1)
+                : etag;
+        if (!KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("ETag inattendu : " + etag);
+        }
+        return key;
+    }
+
+    private static String keyOfFile(String name) {
+        return name.substring(0, name.length() - SUFFIX.length());
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    /**
+     * Emplacement et taille d'un document gardé.
+     */
+    public record StoredDocument(Path file, long size) {
+    }
+
+    private record Retired(long size, long deadline) {
+    }
+
+    public final class Capture extends FilterOutputStream {
+
+        private final String key;
+        private Path temp;
+        private FileChannel channel;
+        private OutputStream copy;
+        private long size;
+
+        private Capture(String key, OutputStream output) {
+            super(output);
+            this.key = key;
+            if (isEnabled()) {
+                try {
+                    temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+                    channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                    copy = new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE);
+                } catch (IOException e) {
+                    abandon();
+                }
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            if (copy != null) {
+                try {
+                    copy.write(b);
+                    size++;
+                } catch (IOException e) {
+                    abandon();
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (copy != null) {
+                try {
+                    copy.write(b, off, len);
+                    size += len;
+                } catch (IOException e) {
+                    abandon();
+                }
+            }
+        }
+
+        /**
+         * Garde le document écrit jusque-là : synchronisé sur le disque, puis renommé sous son nom définitif.
+         */
+        public void complete() {
+            if (copy == null) {
+                return;
+            }
+            try {
+                copy.flush();
+                channel.force(true);
+                channel.close();
+                synchronized (StatementDocumentStore.this) {
+                    Files.move(temp, fileOf(key), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                    copy = null;
+                    temp = null;
+                    register(key, size);
+                }
+            } catch (IOException e) {
+                abandon();
+            }
+        }
+
+        /**
+         * Abandonne une copie non terminée ; le flux de la réponse reste ouvert.
+         */
+        @Override
+        public void close() throws IOException {
+            flush();
+            if (temp != null) {
+                discard();
+            }
+        }
+
+        private void abandon() {
+            writeFailures.increment();
+            discard();
+        }
+
+        private void discard() {
+            copy = null;
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+                if (temp != null) {
+                    Files.deleteIfExists(temp);
+                }
+            } catch (IOException e) {
+                // Supprimé au prochain démarrage
+            }
+            temp = null;
+        }
+    }
+}
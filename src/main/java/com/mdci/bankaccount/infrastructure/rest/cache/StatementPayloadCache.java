@@ -0,0 +1,158 @@
+package com.mdci.bankaccount.infrastructure.rest.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mdci.bankaccount.domain.model.OperationRangeVersion;
+import com.mdci.bankaccount.domain.model.StatementVersion;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Relevés déjà produits (JSON ou PDF), gardés en mémoire sous leur ETag.
+ * <p>
+ * L'ETag est calculé à partir de la {@link StatementVersion} : un relevé dont la période reçoit une opération,
+ * même antidatée, change d'ETag et l'ancienne entrée n'est plus demandée. Le JSON porte aussi le solde actuel du
+ * compte ; le PDF d'une période close ne dépend que de ses opérations et de son solde de fin : les opérations
+ * postérieures ne le changent pas. La mémoire est bornée par la taille totale des documents gardés ; un document
+ * plus grand que {@code maximumEntryBytes} n'est pas gardé.
+ */
+public class StatementPayloadCache {
+
+    /** Octets de l'empreinte SHA-256 repris dans l'ETag. */
+    private static final int ETAG_BYTES = 18;
+
+    private final Cache<String, byte[]> payloads;
+    private final long maximumEntryBytes;
+
+    public StatementPayloadCache(long maximumBytes, long maximumEntryBytes, Duration ttl, MeterRegistry meterRegistry) {
+        if (maximumBytes <= 0 || maximumEntryBytes <= 0 || maximumEntryBytes > maximumBytes) {
+            throw new IllegalArgumentException(
+                    "La taille du cache et celle d'un document doivent être strictement positives, la seconde bornée par la première.");
+        }
+        // Poids d'une entrée : sa taille en octets
+        this.payloads = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((String etag, byte[] payload) -> payload.length)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.maximumEntryBytes = maximumEntryBytes;
+        CaffeineCacheMetrics.monitor(meterRegistry, payloads, "bank.statement.cache");
+    }
+
+    private StatementPayloadCache() {
+        this.payloads = null;
+        this.maximumEntryBytes = 0;
+    }
+
+    /**
+     * Cache inactif : rien n'est gardé, les ETags restent calculés.
+     */
+    public static StatementPayloadCache disabled() {
+        return new StatementPayloadCache();
+    }
+
+    /**
+     * ETag fort (entre guillemets) du relevé de cette version dans le format donné.
+     */
+    public static String etagOf(StatementVersion version, String format) {
+        OperationRangeVersion operations = version.operations();
+        // Le PDF n'affiche que le solde de fin de période ; le JSON porte aussi le solde actuel
+        String currentBalance = "pdf".equals(format) ? "" : version.currentBalance().stripTrailingZeros().toPlainString();
+        String fingerprint = String.join("|",
+                format,
+                version.accountId(),
+                version.from().toString(),
+                version.to().toString(),
+                Boolean.toString(version.closed()),
+                currentBalance,
+                version.closingBalance().stripTrailingZeros().toPlainString(),
+                Long.toString(operations.operationCount()),
+                String.valueOf(operations.latestTimestamp()),
+                String.valueOf(operations.maxOperationId()));
+        byte[] digest = sha256().digest(fingerprint.getBytes(StandardCharsets.UTF_8));
+        return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, ETAG_BYTES)) + '"';
+    }
+
+    /**
+     * Document gardé sous cet ETag, {@code null} s'il n'y en a pas.
+     */
+    public byte[] get(String etag) {
+        return payloads != null ? payloads.getIfPresent(etag) : null;
+    }
+
+    public void put(String etag, byte[] payload) {
+        if (payloads != null && payload.length <= maximumEntryBytes) {
+            payloads.put(etag, payload);
+        }
+    }
+
+    /**
+     * Recopie ce qui est écrit dans {@code output} ; {@link Capture#complete()} garde le document sous cet ETag
+     * une fois entièrement écrit. La copie est abandonnée dès qu'elle dépasse la taille maximale d'une entrée.
+     */
+    public Capture capture(String etag, OutputStream output) {
+        return new Capture(etag, output);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public final class Capture extends FilterOutputStream {
+
+        private final String etag;
+        private ByteArrayOutputStream copy;
+
+        private Capture(String etag, OutputStream output) {
+            super(output);
+            this.etag = etag;
+            this.copy = payloads != null ? new ByteArrayOutputStream() : null;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            if (keep(1)) {
+                copy.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (keep(len)) {
+                copy.write(b, off, len);
+            }
+        }
+
+        public void complete() {
+            if (copy != null) {
+                put(etag, copy.toByteArray());
+                copy = null;
+            }
+        }
+
+        private boolean keep(int length) {
+            if (copy != null && copy.size() + (long) length > maximumEntryBytes) {
+                copy = null;
+            }
+            return copy != null;
+        }
+    }
+}
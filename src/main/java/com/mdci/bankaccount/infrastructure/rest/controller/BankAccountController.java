@@ -1,21 +1,40 @@
 package com.mdci.bankaccount.infrastructure.rest.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mdci.bankaccount.application.dto.AccountBalanceDTO;
 import com.mdci.bankaccount.application.dto.BankAccountResponseDTO;
 import com.mdci.bankaccount.application.dto.CreateAccountRequestDTO;
+import com.mdci.bankaccount.application.dto.OperationPageDTO;
+import com.mdci.bankaccount.application.mapper.AccountBalanceMapper;
 import com.mdci.bankaccount.application.mapper.BankAccountMapper;
+import com.mdci.bankaccount.application.mapper.OperationPageMapper;
+import com.mdci.bankaccount.domain.model.AccountBalance;
 import com.mdci.bankaccount.domain.model.AccountType;
 import com.mdci.bankaccount.domain.model.BankAccount;
 import com.mdci.bankaccount.domain.model.Money;
+import com.mdci.bankaccount.domain.model.OperationCursor;
+import com.mdci.bankaccount.domain.port.in.IBalanceReportService;
 import com.mdci.bankaccount.domain.port.in.IBankAccountService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/account")
@@ -25,10 +44,27 @@ public class BankAccountController {
 
     private final IBankAccountService accountService;
     private final BankAccountMapper mapper;
+    private final OperationPageMapper operationPageMapper;
+    private final IBalanceReportService balanceReportService;
+    private final AccountBalanceMapper balanceMapper;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter balanceWriter;
 
-    public BankAccountController(IBankAccountService accountService, BankAccountMapper mapper) {
+    public BankAccountController(IBankAccountService accountService,
+                                 BankAccountMapper mapper,
+                                 OperationPageMapper operationPageMapper,
+                                 IBalanceReportService balanceReportService,
+                                 AccountBalanceMapper balanceMapper,
+                                 ObjectMapper objectMapper) {
         this.accountService = accountService;
         this.mapper = mapper;
+        this.operationPageMapper = operationPageMapper;
+        this.balanceReportService = balanceReportService;
+        this.balanceMapper = balanceMapper;
+        this.objectMapper = objectMapper;
+        // Un seul envoi par paquet plutôt qu'un par solde
+        this.balanceWriter = objectMapper.writerFor(AccountBalanceDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @Operation(
@@ -60,4 +96,59 @@ public class BankAccountController {
         BankAccount account = accountService.getAccount(id);
         return ResponseEntity.ok(mapper.toResponseDTO(account));
     }
+
+    @Operation(summary = "Historique des opérations d'un compte, page par page",
+            description = "Opérations de la plus récente à la plus ancienne. Passer nextCursor dans after pour obtenir "
+                    + "la page suivante ; nextCursor est absent sur la dernière page.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Page d'opérations"),
+                    @ApiResponse(responseCode = "400", description = "Taille de page ou curseur invalide"),
+                    @ApiResponse(responseCode = "404", description = "Compte introuvable")
+            })
+    @GetMapping("/{id}/operations")
+    public ResponseEntity<OperationPageDTO> getOperations(
+            @PathVariable String id,
+            @Parameter(description = "Nombre d'opérations par page (1 à 100)") @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Curseur renvoyé par la page précédente") @RequestParam(required = false) String after) {
+        OperationCursor cursor = after != null ? OperationCursor.parse(after) : null;
+        return ResponseEntity.ok(operationPageMapper.toDto(accountService.getOperations(id, cursor, limit)));
+    }
+
+    @Operation(summary = "Soldes de plusieurs comptes à une date donnée",
+            description = "Solde à la fin de la journée de chacun des comptes demandés, ou de tous les comptes "
+                    + "si aucun identifiant n'est fourni, par identifiant croissant. Les identifiants inconnus sont ignorés.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Soldes calculés"),
+                    @ApiResponse(responseCode = "400", description = "Date invalide")
+            })
+    @GetMapping(value = "/balances", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getBalancesAtDate(
+            @Parameter(description = "Date au format yyyy-MM-dd") @RequestParam LocalDate date,
+            @Parameter(description = "Identifiants des comptes ; tous les comptes si absent")
+            @RequestParam(required = false) List<String> ids) {
+        // Le tableau JSON est écrit paquet par paquet, sans garder l'ensemble des soldes en mémoire
+        StreamingResponseBody body = output -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+                generator.writeStartArray();
+                if (ids == null || ids.isEmpty()) {
+                    balanceReportService.forEachBalanceAtDate(date, chunk -> writeChunk(generator, chunk));
+                } else {
+                    balanceReportService.forEachBalanceAtDate(ids, date, chunk -> writeChunk(generator, chunk));
+                }
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private void writeChunk(JsonGenerator generator, List<AccountBalance> chunk) {
+        try {
+            for (AccountBalance balance : chunk) {
+                balanceWriter.writeValue(generator, balanceMapper.toDto(balance));
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -1,10 +1,20 @@
 package com.mdci.bankaccount.infrastructure.rest.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.mdci.bankaccount.application.dto.AccountStatementDTO;
 import com.mdci.bankaccount.application.mapper.StatementMapper;
 import com.mdci.bankaccount.application.port.out.DocumentGenerator;
 import com.mdci.bankaccount.domain.model.AccountStatement;
+import com.mdci.bankaccount.domain.model.AccountStatementSummary;
+import com.mdci.bankaccount.domain.model.StatementVersion;
 import com.mdci.bankaccount.domain.port.in.IBankAccountStatementService;
+import com.mdci.bankaccount.infrastructure.rest.cache.StatementDocumentStore;
+import com.mdci.bankaccount.infrastructure.rest.cache.StatementDocumentStore.StoredDocument;
+import com.mdci.bankaccount.infrastructure.rest.cache.StatementPayloadCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,12 +22,18 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 
 @Tag(name = "Relevés de compte", description = "Endpoints liés aux relevés de compte")
@@ -26,28 +42,96 @@ import java.time.LocalDateTime;
 @RequestMapping("/api/account/{id}/statement")
 public class BankAccountStatementController {
 
+    /** Relevés propres au client, à revalider par leur ETag avant toute réutilisation. */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    // Attributs de requête par lesquels Tomcat envoie un fichier après la réponse
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final IBankAccountStatementService statementService;
     private final StatementMapper statementMapper;
     private final DocumentGenerator<AccountStatementDTO> documentGenerator;
+    private final StatementPayloadCache payloadCache;
+    private final StatementDocumentStore documentStore;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter ndjsonWriter;
 
     public BankAccountStatementController(IBankAccountStatementService statementService, StatementMapper statementMapper,
-                                          DocumentGenerator<AccountStatementDTO> documentGenerator) {
+                                          DocumentGenerator<AccountStatementDTO> documentGenerator,
+                                          StatementPayloadCache payloadCache, StatementDocumentStore documentStore,
+                                          ObjectMapper objectMapper) {
         this.statementService = statementService;
         this.statementMapper = statementMapper;
         this.documentGenerator = documentGenerator;
+        this.payloadCache = payloadCache;
+        this.documentStore = documentStore;
+        this.objectMapper = objectMapper;
+        // Une valeur JSON par ligne ; le flux de la réponse est laissé ouvert au conteneur
+        this.ndjsonWriter = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @Operation(
             summary = "Obtenir un relevé de compte (JSON)",
-            description = "Retourne un relevé avec solde et liste d'opérations sur la période fournie. Dernier mois par défaut.",
+            description = "Retourne un relevé avec soldes et liste d'opérations sur la période fournie. Par défaut, du début "
+                    + "du jour il y a un mois à la fin du jour courant. currentBalance est le solde actuel du compte ; "
+                    + "closingBalance son solde à la fin de la période, égal au solde actuel tant que la période n'est pas close "
+                    + "(periodClosed : fin demandée déjà passée). "
+                    + "La réponse porte un ETag : renvoyé dans If-None-Match, il donne une réponse 304 tant que le relevé n'a pas changé.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Relevé JSON", content = @Content(schema = @Schema(implementation = AccountStatementDTO.class))),
+                    @ApiResponse(responseCode = "304", description = "Relevé inchangé"),
                     @ApiResponse(responseCode = "404", description = "Compte introuvable"),
                     @ApiResponse(responseCode = "400", description = "Période invalide")
             }
     )
     @GetMapping
-    public ResponseEntity<AccountStatementDTO> getStatement(
+    public ResponseEntity<byte[]> getStatement(
+            @PathVariable String id,
+            @Parameter(description = "Date de début (optionnelle) (format ISO, ex: 2025-03-01T00:00:00)") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+
+            @Parameter(description = "Date de fin (optionnelle)") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            WebRequest webRequest
+    ) throws IOException {
+        // Version lue sans les opérations : un relevé inchangé n'est ni relu ni reproduit
+        StatementVersion version = statementService.getStatementVersion(id, from, to);
+        String etag = StatementPayloadCache.etagOf(version, "json");
+        // Pose aussi l'en-tête ETag de la réponse
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        byte[] payload = payloadCache.get(etag);
+        if (payload == null) {
+            AccountStatement statement = statementService.generateStatementForPeriod(id, version.from(), version.to());
+            payload = objectMapper.writeValueAsBytes(statementMapper.toDto(statement));
+            payloadCache.put(etag, payload);
+        }
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(payload);
+    }
+
+    @Operation(
+            summary = "Obtenir un relevé de compte en flux (NDJSON)",
+            description = "Même relevé que l'endpoint JSON, écrit au fil de la lecture en base : une première ligne "
+                    + "d'en-tête (compte, soldes actuel et de fin de période, période, totaux), puis une ligne par opération, par date croissante.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Relevé NDJSON", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE)),
+                    @ApiResponse(responseCode = "404", description = "Compte introuvable"),
+                    @ApiResponse(responseCode = "400", description = "Période invalide")
+            }
+    )
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamStatement(
             @PathVariable String id,
             @Parameter(description = "Date de début (optionnelle) (format ISO, ex: 2025-03-01T00:00:00)") @RequestParam(required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
@@ -55,37 +139,105 @@ public class BankAccountStatementController {
             @Parameter(description = "Date de fin (optionnelle)") @RequestParam(required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
     ) {
-        AccountStatement statement = statementService.generateStatementForPeriod(id, from, to);
+        // Compte et période vérifiés avant l'envoi de la réponse : les erreurs gardent leur statut HTTP
+        AccountStatementSummary summary = statementService.summarizeStatementForPeriod(id, from, to);
 
-        return ResponseEntity.ok(statementMapper.toDto(statement));
+        StreamingResponseBody body = output -> {
+            try (SequenceWriter lines = ndjsonWriter.writeValues(output)) {
+                lines.write(statementMapper.toHeaderDto(summary));
+                statementService.forEachStatementOperation(summary, operation -> {
+                    try {
+                        lines.write(statementMapper.toOperationDto(operation));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            output.write('\n');
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @Operation(
             summary = "Exporter un relevé de compte au format PDF",
-            description = "Génère un relevé pour la période donnée. Si aucune date n’est fournie, le dernier mois est utilisé.",
+            description = "Génère un relevé pour la période donnée. Si aucune date n’est fournie, le dernier mois est utilisé, "
+                    + "du début du jour il y a un mois à la fin du jour courant.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "PDF généré", content = @Content(mediaType = "application/pdf")),
+                    @ApiResponse(responseCode = "304", description = "Relevé inchangé"),
                     @ApiResponse(responseCode = "404", description = "Compte introuvable"),
                     @ApiResponse(responseCode = "400", description = "Paramètres invalides")
             }
     )
     @GetMapping("/export/pdf")
-    public ResponseEntity<byte[]> exportStatementPdf(
+    public ResponseEntity<StreamingResponseBody> exportStatementPdf(
             @PathVariable String id,
             @Parameter(description = "Date de début de la période (format ISO, ex: 2025-03-01T00:00:00)")
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
 
             @Parameter(description = "Date de fin de la période (format ISO)")
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            WebRequest webRequest
     ) {
-        AccountStatement statement = statementService.generateStatementForPeriod(id, from, to);
+        StatementVersion version = statementService.getStatementVersion(id, from, to);
+        String etag = StatementPayloadCache.etagOf(version, "pdf");
+        // Pose aussi l'en-tête ETag de la réponse
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=releve-" + id + ".pdf")
+                .contentType(MediaType.APPLICATION_PDF);
+
+        // Période close explicitement demandée : document téléchargé de nombreuses fois, gardé sur disque ;
+        // son ETag ne dépend que de la période, de ses opérations et de son solde de fin, il ne change plus
+        boolean onDisk = documentStore.isEnabled() && version.closed();
+        StoredDocument stored = onDisk ? documentStore.find(etag) : null;
+        if (stored != null) {
+            response.contentLength(stored.size());
+            if (sendFile(webRequest, stored)) {
+                return response.build();
+            }
+            return response.body(output -> StatementDocumentStore.transferTo(stored.file(), output));
+        }
+
+        byte[] cached = onDisk ? null : payloadCache.get(etag);
+        if (cached != null) {
+            return response.body(output -> output.write(cached));
+        }
+
+        AccountStatement statement = statementService.generateStatementForPeriod(id, version.from(), version.to());
         AccountStatementDTO dto = statementMapper.toDto(statement);
 
-        byte[] pdfBytes = documentGenerator.generate(dto);
+        // Document produit et envoyé hors du thread de la requête ; gardé une fois entièrement écrit
+        StreamingResponseBody body = onDisk
+                ? output -> {
+                    try (StatementDocumentStore.Capture capture = documentStore.capture(etag, output)) {
+                        documentGenerator.generate(dto, capture);
+                        capture.complete();
+                    }
+                }
+                : output -> {
+                    StatementPayloadCache.Capture capture = payloadCache.capture(etag, output);
+                    documentGenerator.generate(dto, capture);
+                    capture.complete();
+                };
+        return response.body(body);
+    }
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=releve-" + id + ".pdf")
-                .contentType(MediaType.APPLICATION_PDF)
-                .body(pdfBytes);
+    /**
+     * Confie l'envoi du fichier au conteneur (sendfile de Tomcat) : il est copié du disque vers la connexion
+     * par le système, sans passer par la mémoire de l'application. Sans effet si le connecteur ne le permet pas.
+     */
+    private static boolean sendFile(WebRequest webRequest, StoredDocument document) {
+        if (!Boolean.TRUE.equals(webRequest.getAttribute(SENDFILE_SUPPORT, RequestAttributes.SCOPE_REQUEST))) {
+            return false;
+        }
+        webRequest.setAttribute(SENDFILE_FILENAME, document.file().toAbsolutePath().toString(), RequestAttributes.SCOPE_REQUEST);
+        webRequest.setAttribute(SENDFILE_START, 0L, RequestAttributes.SCOPE_REQUEST);
+        webRequest.setAttribute(SENDFILE_END, document.size(), RequestAttributes.SCOPE_REQUEST);
+        return true;
     }
 }
\ No newline at end of file
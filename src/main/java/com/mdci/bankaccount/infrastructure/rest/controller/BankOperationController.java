@@ -1,7 +1,17 @@
 package com.mdci.bankaccount.infrastructure.rest.controller;
 
+import com.mdci.bankaccount.application.dto.BalanceSeriesDTO;
 import com.mdci.bankaccount.application.dto.BankOperationRequestDTO;
+import com.mdci.bankaccount.application.dto.BatchOperationRequestDTO;
+import com.mdci.bankaccount.application.dto.BatchOperationResponseDTO;
+import com.mdci.bankaccount.application.mapper.BalanceSeriesMapper;
+import com.mdci.bankaccount.application.mapper.BatchOperationMapper;
+import com.mdci.bankaccount.domain.model.BalanceSeries;
+import com.mdci.bankaccount.domain.model.BatchOperationResult;
+import com.mdci.bankaccount.domain.model.Granularity;
 import com.mdci.bankaccount.domain.model.Money;
+import com.mdci.bankaccount.domain.port.in.IBalanceSeriesService;
+import com.mdci.bankaccount.domain.port.in.IBankOperationBatchService;
 import com.mdci.bankaccount.domain.port.in.IBankOperationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,6 +24,8 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/operations")
@@ -22,9 +34,21 @@ import java.time.LocalDate;
 public class BankOperationController {
 
     private final IBankOperationService operationService;
+    private final IBankOperationBatchService batchService;
+    private final BatchOperationMapper batchMapper;
+    private final IBalanceSeriesService balanceSeriesService;
+    private final BalanceSeriesMapper balanceSeriesMapper;
 
-    public BankOperationController(IBankOperationService operationService) {
+    public BankOperationController(IBankOperationService operationService,
+                                   IBankOperationBatchService batchService,
+                                   BatchOperationMapper batchMapper,
+                                   IBalanceSeriesService balanceSeriesService,
+                                   BalanceSeriesMapper balanceSeriesMapper) {
         this.operationService = operationService;
+        this.batchService = batchService;
+        this.batchMapper = batchMapper;
+        this.balanceSeriesService = balanceSeriesService;
+        this.balanceSeriesMapper = balanceSeriesMapper;
     }
 
     @Operation(summary = "Effectuer un dépôt sur un compte", responses = {
@@ -51,6 +75,20 @@ public class BankOperationController {
         return ResponseEntity.ok("Retrait effectué avec succès");
     }
 
+    @Operation(summary = "Appliquer un lot de dépôts et retraits",
+            description = "Les lignes sont appliquées dans une seule transaction. En mode ATOMIC (par défaut), "
+                    + "une ligne refusée annule tout le lot ; en mode PER_ITEM, seules les lignes refusées sont écartées.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Lot traité, issue détaillée par ligne"),
+                    @ApiResponse(responseCode = "400", description = "Requête invalide"),
+                    @ApiResponse(responseCode = "409", description = "Un compte du lot a été modifié simultanément")
+            })
+    @PostMapping("/batch")
+    public ResponseEntity<BatchOperationResponseDTO> applyBatch(@Valid @RequestBody BatchOperationRequestDTO request) {
+        List<BatchOperationResult> results = batchService.apply(batchMapper.toCommands(request.operations()), request.mode());
+        return ResponseEntity.ok(batchMapper.toResponseDTO(request.mode(), results));
+    }
+
     @Operation(summary = "Obtenir le solde d’un compte à une date donnée", responses = {
             @ApiResponse(responseCode = "200", description = "Solde récupéré avec succès"),
             @ApiResponse(responseCode = "404", description = "Compte introuvable")
@@ -61,4 +99,34 @@ public class BankOperationController {
             @RequestParam("date") @Parameter(description = "Date au format yyyy-MM-dd", example = "2025-01-15") LocalDate date) {
         return ResponseEntity.ok(operationService.getBalanceAtDate(accountId, date));
     }
+
+    @Operation(summary = "Obtenir le solde d’un compte à un instant donné", responses = {
+            @ApiResponse(responseCode = "200", description = "Solde récupéré avec succès"),
+            @ApiResponse(responseCode = "404", description = "Compte introuvable")
+    })
+    @GetMapping("/{accountId}/balance-at")
+    public ResponseEntity<BigDecimal> getBalanceAt(
+            @PathVariable String accountId,
+            @RequestParam("at") @Parameter(description = "Instant au format yyyy-MM-dd'T'HH:mm:ss", example = "2025-01-15T14:30:00") LocalDateTime at) {
+        return ResponseEntity.ok(operationService.getBalanceAt(accountId, at));
+    }
+
+    @Operation(summary = "Obtenir l’évolution du solde d’un compte sur une période",
+            description = "Un point par fin de journée, de semaine ou de mois, la fin de période demandée incluse. "
+                    + "Sur une longue période, le pas est élargi et des points sont écartés (downsampled).",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Série de soldes calculée"),
+                    @ApiResponse(responseCode = "400", description = "Dates ou granularité invalides"),
+                    @ApiResponse(responseCode = "404", description = "Compte introuvable")
+            })
+    @GetMapping("/{accountId}/balances")
+    public ResponseEntity<BalanceSeriesDTO> getBalanceSeries(
+            @PathVariable String accountId,
+            @RequestParam("from") @Parameter(description = "Date au format yyyy-MM-dd", example = "2025-01-01") LocalDate from,
+            @RequestParam("to") @Parameter(description = "Date au format yyyy-MM-dd", example = "2025-03-31") LocalDate to,
+            @RequestParam(value = "granularity", defaultValue = "day")
+            @Parameter(description = "day, week ou month", example = "week") String granularity) {
+        BalanceSeries series = balanceSeriesService.getBalanceSeries(accountId, from, to, Granularity.parse(granularity));
+        return ResponseEntity.ok(balanceSeriesMapper.toDto(series));
+    }
 }
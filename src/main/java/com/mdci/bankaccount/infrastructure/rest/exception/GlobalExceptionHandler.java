@@ -1,6 +1,7 @@
 package com.mdci.bankaccount.infrastructure.rest.exception;
 
 import com.mdci.bankaccount.domain.exception.AccountNotFoundException;
+import com.mdci.bankaccount.domain.exception.ConcurrentAccountUpdateException;
 import com.mdci.bankaccount.domain.exception.FunctionalException;
 import com.mdci.bankaccount.domain.exception.InsufficientBalanceException;
 import com.mdci.bankaccount.domain.exception.InvalidAmountException;
@@ -35,6 +36,11 @@ public class GlobalExceptionHandler {
         return buildResponse("InvalidAmount", ex.getMessage(), HttpStatus.BAD_REQUEST, request.getRequestURI());
     }
 
+    @ExceptionHandler(ConcurrentAccountUpdateException.class)
+    public ResponseEntity<ApiErrorResponse> handleConcurrentUpdate(ConcurrentAccountUpdateException ex, HttpServletRequest request) {
+        return buildResponse("ConcurrentUpdate", ex.getMessage(), HttpStatus.CONFLICT, request.getRequestURI());
+    }
+
     @ExceptionHandler(FunctionalException.class)
     public ResponseEntity<ApiErrorResponse> handleFunctionalException(FunctionalException ex, HttpServletRequest request) {
         return buildResponse("FunctionalException", ex.getMessage(), HttpStatus.BAD_REQUEST, request.getRequestURI());
@@ -58,9 +64,9 @@ public class GlobalExceptionHandler {
         String paramName = ex.getName();
         String message;
 
-        if ("date".equals(paramName) && ex.getRequiredType() == LocalDate.class) {
+        if (List.of("date", "from", "to").contains(paramName) && ex.getRequiredType() == LocalDate.class) {
             message = "La date fournie est invalide. Format attendu : yyyy-MM-dd (LocalDate).";
-        } else if (List.of("from", "to").contains(paramName) && ex.getRequiredType() == LocalDateTime.class) {
+        } else if (List.of("from", "to", "at").contains(paramName) && ex.getRequiredType() == LocalDateTime.class) {
             message = "La date fournie est invalide. Format attendu : yyyy-MM-dd'T'HH:mm:ss (LocalDateTime).";
         } else {
             message = "La valeur fournie est invalide. Type attendu : " + ex.getRequiredType().getSimpleName();
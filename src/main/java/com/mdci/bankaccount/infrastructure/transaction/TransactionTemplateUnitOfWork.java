@@ -0,0 +1,53 @@
+package com.mdci.bankaccount.infrastructure.transaction;
+
+import com.mdci.bankaccount.application.port.out.UnitOfWork;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Unité de travail adossée au gestionnaire de transactions Spring, avec une transaction préconfigurée
+ * (lecture seule, niveau d'isolation) par cas d'utilisation.
+ */
+public class TransactionTemplateUnitOfWork implements UnitOfWork {
+
+    private final Map<UseCase, TransactionTemplate> templates = new EnumMap<>(UseCase.class);
+
+    public TransactionTemplateUnitOfWork(PlatformTransactionManager transactionManager,
+                                         Map<UseCase, Isolation> isolationLevels) {
+        this(transactionManager, isolationLevels, Set.of());
+    }
+
+    /**
+     * @param externallyCommitted cas d'utilisation exécutés sans transaction propre, parce que leurs écritures
+     *                            sont validées par une autre étape (écriture groupée)
+     */
+    public TransactionTemplateUnitOfWork(PlatformTransactionManager transactionManager,
+                                         Map<UseCase, Isolation> isolationLevels,
+                                         Set<UseCase> externallyCommitted) {
+        for (UseCase useCase : UseCase.values()) {
+            if (externallyCommitted.contains(useCase)) {
+                continue;
+            }
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setName(useCase.name());
+            template.setReadOnly(useCase.isReadOnly());
+            template.setIsolationLevel(isolationLevels.getOrDefault(useCase, Isolation.DEFAULT).value());
+            templates.put(useCase, template);
+        }
+    }
+
+    @Override
+    public <T> T execute(UseCase useCase, Supplier<T> work) {
+        TransactionTemplate template = templates.get(useCase);
+        if (template == null) {
+            return work.get();
+        }
+        return template.execute(status -> work.get());
+    }
+}
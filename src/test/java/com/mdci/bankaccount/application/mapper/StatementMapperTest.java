@@ -1,6 +1,7 @@
 package com.mdci.bankaccount.application.mapper;
 
 import com.mdci.bankaccount.application.dto.AccountStatementDTO;
+import com.mdci.bankaccount.application.dto.OperationDTO;
 import com.mdci.bankaccount.domain.model.AccountStatement;
 import com.mdci.bankaccount.domain.model.AccountType;
 import com.mdci.bankaccount.domain.model.BankOperation;
@@ -39,4 +40,17 @@ class StatementMapperTest {
         assertThat(dto.recentOperations()).hasSize(2);
         assertThat(dto.recentOperations().get(0).date()).isAfter(dto.recentOperations().get(1).date());
     }
+
+    @Test
+    void should_list_operations_of_the_same_date_latest_recorded_first() {
+        LocalDateTime date = LocalDateTime.of(2025, 3, 1, 9, 0);
+        var first = new BankOperation("op-1", BankOperation.OperationType.DEPOSIT, Money.of(BigDecimal.TEN), date);
+        var second = new BankOperation("op-2", BankOperation.OperationType.DEPOSIT, Money.of(BigDecimal.ONE), date);
+        var earlier = new BankOperation("op-0", BankOperation.OperationType.DEPOSIT, Money.of(BigDecimal.ONE), date.minusDays(1));
+
+        AccountStatementDTO dto = mapper.toDto(new AccountStatement("ACC123", AccountType.COMPTE_COURANT, BigDecimal.TEN,
+                date, date.minusMonths(1), date, List.of(earlier, first, second)));
+
+        assertThat(dto.recentOperations()).extracting(OperationDTO::operationId).containsExactly("op-2", "op-1", "op-0");
+    }
 }
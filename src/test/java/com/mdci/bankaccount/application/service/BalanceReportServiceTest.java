@@ -0,0 +1,75 @@
+package com.mdci.bankaccount.application.service;
+
+import com.mdci.bankaccount.application.port.out.UnitOfWork;
+import com.mdci.bankaccount.domain.model.AccountBalance;
+import com.mdci.bankaccount.domain.model.Money;
+import com.mdci.bankaccount.domain.port.out.IBankOperationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class BalanceReportServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 1, 31);
+
+    private IBankOperationRepository operationRepository;
+    private BalanceReportService service;
+
+    @BeforeEach
+    void setUp() {
+        operationRepository = mock(IBankOperationRepository.class);
+        service = new BalanceReportService(operationRepository, UnitOfWork.none(), 2);
+    }
+
+    @Test
+    void should_walk_all_accounts_page_by_page_resuming_after_the_last_id() {
+        when(operationRepository.findBalancesAtDate(DATE, null, 2)).thenReturn(List.of(balance("A", "10"), balance("B", "0")));
+        when(operationRepository.findBalancesAtDate(DATE, "B", 2)).thenReturn(List.of(balance("C", "-5")));
+        List<List<AccountBalance>> chunks = new ArrayList<>();
+
+        service.forEachBalanceAtDate(DATE, chunks::add);
+
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks.get(0)).extracting(AccountBalance::accountId).containsExactly("A", "B");
+        assertThat(chunks.get(1)).extracting(AccountBalance::accountId).containsExactly("C");
+        // Page incomplète : pas de requête supplémentaire
+        verify(operationRepository, times(2)).findBalancesAtDate(any(LocalDate.class), any(), anyInt());
+    }
+
+    @Test
+    void should_stop_on_an_empty_page_when_the_last_page_was_full() {
+        when(operationRepository.findBalancesAtDate(DATE, null, 2)).thenReturn(List.of(balance("A", "1"), balance("B", "2")));
+        when(operationRepository.findBalancesAtDate(DATE, "B", 2)).thenReturn(List.of());
+        List<List<AccountBalance>> chunks = new ArrayList<>();
+
+        service.forEachBalanceAtDate(DATE, chunks::add);
+
+        assertThat(chunks).hasSize(1);
+    }
+
+    @Test
+    void should_query_requested_ids_sorted_without_duplicates_in_chunks() {
+        when(operationRepository.findBalancesAtDate(List.of("A", "B"), DATE)).thenReturn(List.of(balance("A", "1"), balance("B", "2")));
+        when(operationRepository.findBalancesAtDate(List.of("C"), DATE)).thenReturn(List.of());
+        List<List<AccountBalance>> chunks = new ArrayList<>();
+
+        service.forEachBalanceAtDate(List.of("C", "B", "A", "B"), DATE, chunks::add);
+
+        // Les identifiants inconnus ne produisent aucun paquet vide
+        assertThat(chunks).hasSize(1);
+        verify(operationRepository, times(2)).findBalancesAtDate(anyCollection(), any(LocalDate.class));
+    }
+
+    private static AccountBalance balance(String accountId, String amount) {
+        return new AccountBalance(accountId, new Money(new BigDecimal(amount)));
+    }
+}
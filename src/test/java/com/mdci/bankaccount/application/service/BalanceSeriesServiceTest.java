@@ -0,0 +1,94 @@
+package com.mdci.bankaccount.application.service;
+
+import com.mdci.bankaccount.application.port.out.UnitOfWork;
+import com.mdci.bankaccount.domain.exception.AccountNotFoundException;
+import com.mdci.bankaccount.domain.exception.FunctionalException;
+import com.mdci.bankaccount.domain.model.BalancePoint;
+import com.mdci.bankaccount.domain.model.BalanceSeries;
+import com.mdci.bankaccount.domain.model.DailyNetChange;
+import com.mdci.bankaccount.domain.model.Granularity;
+import com.mdci.bankaccount.domain.model.Money;
+import com.mdci.bankaccount.domain.port.out.IBankAccountRepository;
+import com.mdci.bankaccount.domain.port.out.IBankOperationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BalanceSeriesServiceTest {
+
+    private static final String ACCOUNT_ID = "ACC-1";
+
+    private IBankAccountRepository accountRepository;
+    private IBankOperationRepository operationRepository;
+    private BalanceSeriesService service;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository = mock(IBankAccountRepository.class);
+        operationRepository = mock(IBankOperationRepository.class);
+        service = new BalanceSeriesService(accountRepository, operationRepository, UnitOfWork.none(), 10);
+        when(accountRepository.existsById(ACCOUNT_ID)).thenReturn(true);
+    }
+
+    @Test
+    void should_accumulate_daily_changes_from_the_opening_balance_in_one_pass() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 1, 20);
+        when(operationRepository.findBalanceAtDate(ACCOUNT_ID, LocalDate.of(2024, 12, 31))).thenReturn(new BigDecimal("50.00"));
+        when(operationRepository.findDailyNetChanges(ACCOUNT_ID, from, to)).thenReturn(List.of(
+                change("2025-01-03", "25"),
+                change("2025-01-05", "-10"),
+                change("2025-01-06", "5"),
+                change("2025-01-20", "100")
+        ));
+
+        BalanceSeries series = service.getBalanceSeries(ACCOUNT_ID, from, to, Granularity.WEEK);
+
+        // Semaines closes les dimanches 5, 12 et 19 janvier, puis la fin de période demandée
+        assertThat(series.granularity()).isEqualTo(Granularity.WEEK);
+        assertThat(series.downsampled()).isFalse();
+        assertThat(series.points()).extracting(BalancePoint::date).containsExactly(
+                LocalDate.of(2025, 1, 5), LocalDate.of(2025, 1, 12), LocalDate.of(2025, 1, 19), to);
+        assertThat(series.points()).extracting(point -> point.balance().amount().intValueExact())
+                .containsExactly(65, 70, 70, 170);
+        verify(operationRepository, times(1)).findBalanceAtDate(any(), any());
+        verify(operationRepository, never()).findAllByAccountId(any());
+    }
+
+    @Test
+    void should_widen_the_step_then_thin_points_when_the_range_is_too_long() {
+        LocalDate from = LocalDate.of(2020, 1, 15);
+        LocalDate to = LocalDate.of(2024, 12, 31);
+        when(operationRepository.findBalanceAtDate(any(), any())).thenReturn(BigDecimal.ZERO);
+        when(operationRepository.findDailyNetChanges(ACCOUNT_ID, from, to)).thenReturn(List.of());
+
+        BalanceSeries series = service.getBalanceSeries(ACCOUNT_ID, from, to, Granularity.DAY);
+
+        // 60 fins de mois, une sur six gardée en partant de la dernière
+        assertThat(series.granularity()).isEqualTo(Granularity.MONTH);
+        assertThat(series.downsampled()).isTrue();
+        assertThat(series.points()).hasSize(10);
+        assertThat(series.points().getFirst().date()).isEqualTo(LocalDate.of(2020, 6, 30));
+        assertThat(series.points().getLast().date()).isEqualTo(to);
+    }
+
+    @Test
+    void should_reject_inverted_ranges_and_unknown_accounts() {
+        assertThatThrownBy(() -> service.getBalanceSeries(ACCOUNT_ID, LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1), Granularity.DAY))
+                .isInstanceOf(FunctionalException.class);
+        assertThatThrownBy(() -> service.getBalanceSeries("unknown", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 1), Granularity.DAY))
+                .isInstanceOf(AccountNotFoundException.class);
+    }
+
+    private static DailyNetChange change(String day, String net) {
+        return new DailyNetChange(LocalDate.parse(day), Money.of(new BigDecimal(net)));
+    }
+}
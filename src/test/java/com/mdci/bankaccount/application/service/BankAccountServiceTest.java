@@ -1,7 +1,11 @@
 package com.mdci.bankaccount.application.service;
 
 import com.mdci.bankaccount.domain.exception.AccountNotFoundException;
+import com.mdci.bankaccount.domain.exception.FunctionalException;
 import com.mdci.bankaccount.domain.model.BankAccount;
+import com.mdci.bankaccount.domain.model.BankOperation;
+import com.mdci.bankaccount.domain.model.OperationCursor;
+import com.mdci.bankaccount.domain.model.OperationPage;
 import com.mdci.bankaccount.domain.port.out.BankOperationFactory;
 import com.mdci.bankaccount.domain.model.Money;
 import com.mdci.bankaccount.domain.port.out.IBankAccountRepository;
@@ -14,7 +18,9 @@ import org.mockito.ArgumentCaptor;
 import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -61,7 +67,7 @@ class BankAccountServiceTest {
     void shouldRetrieveAccountById() {
         String accountId = UUID.randomUUID().toString();
         BankAccount account = new BankAccount(accountId, operationFactory);
-        when(accountLoader.loadWithHistory(accountId)).thenReturn(account);
+        when(accountLoader.loadWithoutHistory(accountId)).thenReturn(account);
 
         BankAccount result = service.getAccount(accountId);
 
@@ -71,11 +77,48 @@ class BankAccountServiceTest {
     @Test
     void shouldThrowWhenAccountNotFound() {
         String accountId = "not-exist-id";
-        when(accountLoader.loadWithHistory(accountId))
+        when(accountLoader.loadWithoutHistory(accountId))
                 .thenThrow(new AccountNotFoundException("Aucun compte trouvé pour l'identifiant : " + accountId));
 
         AccountNotFoundException exception = assertThrows(AccountNotFoundException.class, () ->
                 service.getAccount(accountId));
         assertEquals("Aucun compte trouvé pour l'identifiant : " + accountId, exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReturnOnePageAndACursorWhenMoreOperationsRemain() {
+        String accountId = "ACC-1";
+        BankOperation newest = operationFactory.deposit(new Money(BigDecimal.TEN));
+        BankOperation middle = operationFactory.withdrawal(new Money(BigDecimal.ONE));
+        BankOperation oldest = operationFactory.deposit(new Money(BigDecimal.TWO));
+        when(repository.existsById(accountId)).thenReturn(true);
+        when(operationRepository.findLatestByAccountId(accountId, null, 3)).thenReturn(List.of(newest, middle, oldest));
+
+        OperationPage page = service.getOperations(accountId, null, 2);
+
+        assertEquals(List.of(newest, middle), page.operations());
+        assertEquals(OperationCursor.after(middle), page.next());
+    }
+
+    @Test
+    void shouldReturnLastPageWithoutCursor() {
+        String accountId = "ACC-1";
+        OperationCursor after = new OperationCursor(LocalDateTime.of(2025, 1, 1, 0, 0), "op-2");
+        BankOperation last = operationFactory.deposit(new Money(BigDecimal.TEN));
+        when(repository.existsById(accountId)).thenReturn(true);
+        when(operationRepository.findLatestByAccountId(accountId, after, 3)).thenReturn(List.of(last));
+
+        OperationPage page = service.getOperations(accountId, after, 2);
+
+        assertEquals(List.of(last), page.operations());
+        assertNull(page.next());
+    }
+
+    @Test
+    void shouldRejectPageSizeOutOfBoundsAndUnknownAccount() {
+        assertThrows(FunctionalException.class, () -> service.getOperations("ACC-1", null, 0));
+        assertThrows(FunctionalException.class, () -> service.getOperations("ACC-1", null, BankAccountService.MAX_PAGE_SIZE + 1));
+        assertThrows(AccountNotFoundException.class, () -> service.getOperations("unknown", null, 20));
+        verifyNoInteractions(operationRepository);
+    }
+}
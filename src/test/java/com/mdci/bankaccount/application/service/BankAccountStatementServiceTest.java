@@ -1,5 +1,6 @@
 package com.mdci.bankaccount.application.service;
 
+import com.mdci.bankaccount.application.port.out.UnitOfWork;
 import com.mdci.bankaccount.domain.exception.AccountNotFoundException;
 import com.mdci.bankaccount.domain.exception.FunctionalException;
 import com.mdci.bankaccount.domain.model.*;
@@ -14,17 +15,22 @@ import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 class BankAccountStatementServiceTest {
 
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 15, 12, 0);
+
     private IBankAccountRepository accountRepository;
     private IBankOperationRepository operationRepository;
     private BankAccountStatementService service;
@@ -33,7 +39,8 @@ class BankAccountStatementServiceTest {
     void setup() {
         accountRepository = mock(IBankAccountRepository.class);
         operationRepository = mock(IBankOperationRepository.class);
-        service = new BankAccountStatementService(accountRepository, operationRepository);
+        service = new BankAccountStatementService(accountRepository, operationRepository,
+                Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC), UnitOfWork.none());
     }
 
     @Test
@@ -54,16 +61,20 @@ class BankAccountStatementServiceTest {
                 AccountType.COMPTE_COURANT
         );
 
-        LocalDateTime from = LocalDateTime.now().minusDays(30);
-        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = NOW.minusDays(30);
+        LocalDateTime to = NOW.minusHours(1);
 
         List<BankOperation> ops = List.of(
                 new BankOperation(UUID.randomUUID().toString(), BankOperation.OperationType.DEPOSIT, Money.of(BigDecimal.valueOf(300)), to.minusDays(10)),
                 new BankOperation(UUID.randomUUID().toString(), BankOperation.OperationType.WITHDRAWAL, Money.of(BigDecimal.valueOf(150)), to.minusDays(5))
         );
 
-        when(accountRepository.findById(accountId)).thenReturn(Optional.of(account));
+        when(accountRepository.findByIdWithoutHistory(accountId)).thenReturn(Optional.of(account));
         when(operationRepository.findAllByAccountIdBetweenDates(accountId, from, to)).thenReturn(ops);
+        OperationTotals totals = new OperationTotals(Money.of(BigDecimal.valueOf(300)), Money.of(BigDecimal.valueOf(150)), 2);
+        when(operationRepository.findTotalsBetweenDates(accountId, from, to)).thenReturn(totals);
+        // La fin demandée est déjà passée à l'appel : le relevé porte le solde à cette date
+        when(operationRepository.findBalanceAt(accountId, to)).thenReturn(new BigDecimal("1150.00"));
 
         // When
         AccountStatement statement = service.generateStatementForPeriod(accountId, from, to);
@@ -71,16 +82,20 @@ class BankAccountStatementServiceTest {
         // Then
         assertThat(statement.accountId()).isEqualTo(accountId);
         assertThat(statement.accountType()).isEqualTo(AccountType.COMPTE_COURANT);
-        assertThat(statement.currentBalance()).isEqualByComparingTo(account.getBalance());
+        // Solde actuel du compte (créé sans opération enregistrée), distinct de celui de fin de période
+        assertThat(statement.currentBalance()).isEqualByComparingTo("0");
+        assertThat(statement.closingBalance()).isEqualByComparingTo("1150");
+        assertThat(statement.periodClosed()).isTrue();
         assertThat(statement.operations()).hasSize(2);
         assertThat(statement.issuedAt()).isEqualTo(to);
         assertThat(statement.from()).isEqualTo(from);
         assertThat(statement.to()).isEqualTo(to);
+        assertThat(statement.totals()).isEqualTo(totals);
     }
 
     @Test
     void should_throw_if_account_not_found() {
-        when(accountRepository.findById("unknown")).thenReturn(Optional.empty());
+        when(accountRepository.findByIdWithoutHistory("unknown")).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> service.generateStatementForPeriod("unknown", null, null))
                 .isInstanceOf(AccountNotFoundException.class)
@@ -90,13 +105,101 @@ class BankAccountStatementServiceTest {
     @Test
     void should_throw_if_from_is_after_to() {
         String accountId = "ACC-002";
-        when(accountRepository.findById(accountId)).thenReturn(Optional.of(mock(BankAccount.class)));
+        when(accountRepository.findByIdWithoutHistory(accountId)).thenReturn(Optional.of(mock(BankAccount.class)));
 
-        LocalDateTime from = LocalDateTime.now();
+        LocalDateTime from = NOW;
         LocalDateTime to = from.minusDays(1);
 
         assertThatThrownBy(() -> service.generateStatementForPeriod(accountId, from, to))
                 .isInstanceOf(FunctionalException.class)
                 .hasMessageContaining("La date de début doit être antérieure");
     }
+
+    @Test
+    void should_summarize_then_stream_operations_of_the_resolved_period() {
+        // Given
+        String accountId = "ACC-003";
+        BankAccount account = new BankAccount(accountId, new FakeBankOperationFactory(Clock.systemUTC()),
+                Money.of(BigDecimal.valueOf(500)), Money.zero(), AccountType.COMPTE_COURANT);
+        when(accountRepository.findByIdWithoutHistory(accountId)).thenReturn(Optional.of(account));
+        LocalDateTime from = LocalDateTime.of(2025, 2, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 3, 1, 0, 0);
+        OperationTotals totals = new OperationTotals(Money.of(BigDecimal.valueOf(300)), Money.zero(), 1);
+        when(operationRepository.findTotalsBetweenDates(accountId, from, to)).thenReturn(totals);
+        when(operationRepository.findBalanceAt(accountId, to)).thenReturn(new BigDecimal("300.00"));
+        BankOperation deposit = new BankOperation("op-1", BankOperation.OperationType.DEPOSIT,
+                Money.of(BigDecimal.valueOf(300)), from.plusDays(1));
+        doAnswer(invocation -> {
+            invocation.<Consumer<BankOperation>>getArgument(3).accept(deposit);
+            return null;
+        }).when(operationRepository).forEachByAccountIdBetweenDates(eq(accountId), eq(from), eq(to), any());
+
+        // When
+        AccountStatementSummary summary = service.summarizeStatementForPeriod(accountId, from, to);
+        List<BankOperation> streamed = new ArrayList<>();
+        service.forEachStatementOperation(summary, streamed::add);
+
+        // Then : l'en-tête ne lit pas les opérations ; la période est close, son solde est celui de sa fin
+        assertThat(summary.currentBalance()).isEqualByComparingTo("0");
+        assertThat(summary.closingBalance()).isEqualByComparingTo("300");
+        assertThat(summary.periodClosed()).isTrue();
+        assertThat(summary.totals()).isEqualTo(totals);
+        assertThat(summary.from()).isEqualTo(from);
+        assertThat(summary.to()).isEqualTo(to);
+        assertThat(streamed).containsExactly(deposit);
+        verify(operationRepository, never()).findAllByAccountIdBetweenDates(any(), any(), any());
+    }
+
+    @Test
+    void should_compute_statement_version_without_reading_operations() {
+        // Given : période close, son solde de fin ne dépend pas des opérations postérieures
+        String accountId = "ACC-004";
+        LocalDateTime from = LocalDateTime.of(2025, 2, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 3, 1, 0, 0);
+        OperationRangeVersion operations = new OperationRangeVersion(2, from.plusDays(3), "op-2");
+        when(accountRepository.findStoredBalanceById(accountId))
+                .thenReturn(Optional.of(new StoredBalance(Money.of(BigDecimal.valueOf(300)), 4L)));
+        when(operationRepository.findOperationRangeVersion(accountId, from, to)).thenReturn(operations);
+        when(operationRepository.findBalanceAt(accountId, to)).thenReturn(new BigDecimal("120.00"));
+
+        // When
+        StatementVersion version = service.getStatementVersion(accountId, from, to);
+
+        // Then
+        assertThat(version).isEqualTo(new StatementVersion(accountId, from, to, true, new BigDecimal("300"),
+                new BigDecimal("120.00"), operations));
+        verify(accountRepository, never()).findByIdWithoutHistory(any());
+        verify(operationRepository, never()).findAllByAccountIdBetweenDates(any(), any(), any());
+        verify(operationRepository, never()).forEachByAccountIdBetweenDates(any(), any(), any(), any());
+    }
+
+    @Test
+    void should_use_the_stored_balance_in_the_version_of_an_open_period() {
+        String accountId = "ACC-006";
+        LocalDateTime from = NOW.minusDays(10);
+        OperationRangeVersion operations = new OperationRangeVersion(1, from.plusDays(1), "op-1");
+        when(accountRepository.findStoredBalanceById(accountId))
+                .thenReturn(Optional.of(new StoredBalance(Money.of(BigDecimal.valueOf(300)), 4L)));
+        when(operationRepository.findOperationRangeVersion(eq(accountId), eq(from), any())).thenReturn(operations);
+
+        StatementVersion version = service.getStatementVersion(accountId, from, null);
+
+        assertThat(version.closed()).isFalse();
+        assertThat(version.to()).isEqualTo(LocalDateTime.of(2025, 3, 15, 23, 59, 59, 999_999_000));
+        assertThat(version.currentBalance()).isEqualByComparingTo("300");
+        assertThat(version.closingBalance()).isEqualByComparingTo("300");
+        verify(operationRepository, never()).findBalanceAt(any(), any());
+    }
+
+    @Test
+    void should_refuse_statement_version_of_unknown_account_or_invalid_period() {
+        when(accountRepository.findStoredBalanceById("ACC-005"))
+                .thenReturn(Optional.of(new StoredBalance(Money.zero(), 0L)));
+
+        assertThatThrownBy(() -> service.getStatementVersion("UNKNOWN", null, null))
+                .isInstanceOf(AccountNotFoundException.class);
+        assertThatThrownBy(() -> service.getStatementVersion("ACC-005",
+                LocalDateTime.of(2025, 3, 1, 0, 0), LocalDateTime.of(2025, 2, 1, 0, 0)))
+                .isInstanceOf(FunctionalException.class);
+    }
 }
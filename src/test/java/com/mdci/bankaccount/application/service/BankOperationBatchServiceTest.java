@@ -0,0 +1,112 @@
+package com.mdci.bankaccount.application.service;
+
+import com.mdci.bankaccount.application.port.out.AccountConcurrencyControl;
+import com.mdci.bankaccount.application.port.out.UnitOfWork;
+import com.mdci.bankaccount.domain.exception.AccountNotFoundException;
+import com.mdci.bankaccount.domain.model.BankAccount;
+import com.mdci.bankaccount.domain.model.BankOperation;
+import com.mdci.bankaccount.domain.model.BatchMode;
+import com.mdci.bankaccount.domain.model.BatchOperationCommand;
+import com.mdci.bankaccount.domain.model.BatchOperationResult;
+import com.mdci.bankaccount.domain.model.BatchOperationResult.Status;
+import com.mdci.bankaccount.domain.model.Money;
+import com.mdci.bankaccount.domain.port.out.BankOperationFactory;
+import com.mdci.bankaccount.domain.port.out.IBankOperationRepository;
+import com.mdci.bankaccount.testutil.FakeBankOperationFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static com.mdci.bankaccount.domain.model.BankOperation.OperationType.DEPOSIT;
+import static com.mdci.bankaccount.domain.model.BankOperation.OperationType.WITHDRAWAL;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class BankOperationBatchServiceTest {
+
+    private BankAccountLoader accountLoader;
+    private IBankOperationRepository operationRepository;
+    private BankOperationBatchService service;
+    private BankOperationFactory operationFactory;
+
+    @BeforeEach
+    void setUp() {
+        accountLoader = mock(BankAccountLoader.class);
+        operationRepository = mock(IBankOperationRepository.class);
+        when(operationRepository.saveAll(any(), anyList())).thenAnswer(invocation -> invocation.getArgument(1));
+        operationFactory = new FakeBankOperationFactory(Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC));
+        service = new BankOperationBatchService(accountLoader, operationRepository, AccountConcurrencyControl.none(), UnitOfWork.none());
+    }
+
+    @Test
+    void shouldLoadEachAccountOnceAndCheckLinesInOrder() {
+        BankAccount first = account("ACC-1");
+        BankAccount second = account("ACC-2");
+        when(accountLoader.loadLocked("ACC-1")).thenReturn(first);
+        when(accountLoader.loadLocked("ACC-2")).thenReturn(second);
+
+        List<BatchOperationResult> results = service.apply(List.of(
+                line("ACC-2", DEPOSIT, 100),
+                line("ACC-1", DEPOSIT, 50),
+                line("ACC-2", WITHDRAWAL, 80),
+                line("ACC-1", WITHDRAWAL, 20)
+        ), BatchMode.ATOMIC);
+
+        assertThat(results).extracting(BatchOperationResult::status).containsOnly(Status.APPLIED);
+        assertThat(results).extracting(BatchOperationResult::index).containsExactly(0, 1, 2, 3);
+        assertThat(results.get(2).balanceAfter()).isEqualByComparingTo("20");
+        assertThat(results.get(3).balanceAfter()).isEqualByComparingTo("30");
+        verify(accountLoader, times(1)).loadLocked("ACC-1");
+        verify(accountLoader, times(1)).loadLocked("ACC-2");
+        verify(operationRepository).saveAll(eq(first), argThat(ops -> ops.size() == 2));
+        verify(operationRepository).saveAll(eq(second), argThat(ops -> ops.size() == 2));
+    }
+
+    @Test
+    void shouldCancelWholeBatchWhenOneLineIsRejectedInAtomicMode() {
+        when(accountLoader.loadLocked("ACC-1")).thenReturn(account("ACC-1"));
+
+        List<BatchOperationResult> results = service.apply(List.of(
+                line("ACC-1", DEPOSIT, 10),
+                line("ACC-1", WITHDRAWAL, 500)
+        ), BatchMode.ATOMIC);
+
+        assertThat(results).extracting(BatchOperationResult::status).containsExactly(Status.CANCELLED, Status.REJECTED);
+        assertThat(results.get(1).message()).contains("Solde insuffisant");
+        verify(operationRepository, never()).saveAll(any(), anyList());
+    }
+
+    @Test
+    void shouldKeepValidLinesInPerItemMode() {
+        BankAccount account = account("ACC-1");
+        when(accountLoader.loadLocked("ACC-1")).thenReturn(account);
+        when(accountLoader.loadLocked("UNKNOWN")).thenThrow(new AccountNotFoundException("Aucun compte trouvé pour l'identifiant : UNKNOWN"));
+
+        List<BatchOperationResult> results = service.apply(List.of(
+                line("ACC-1", DEPOSIT, 10),
+                line("ACC-1", WITHDRAWAL, 500),
+                line("UNKNOWN", DEPOSIT, 5),
+                line("ACC-1", WITHDRAWAL, 4)
+        ), BatchMode.PER_ITEM);
+
+        assertThat(results).extracting(BatchOperationResult::status)
+                .containsExactly(Status.APPLIED, Status.REJECTED, Status.REJECTED, Status.APPLIED);
+        assertThat(results.get(3).balanceAfter()).isEqualByComparingTo("6");
+        verify(operationRepository).saveAll(eq(account), argThat((List<BankOperation> ops) -> ops.size() == 2));
+    }
+
+    private BankAccount account(String id) {
+        return new BankAccount(id, operationFactory);
+    }
+
+    private static BatchOperationCommand line(String accountId, BankOperation.OperationType type, int amount) {
+        return new BatchOperationCommand(accountId, type, new Money(BigDecimal.valueOf(amount)));
+    }
+}
@@ -1,5 +1,7 @@
 package com.mdci.bankaccount.application.service;
 
+import com.mdci.bankaccount.application.port.out.AccountConcurrencyControl;
+import com.mdci.bankaccount.application.port.out.UnitOfWork;
 import com.mdci.bankaccount.domain.exception.AccountNotFoundException;
 import com.mdci.bankaccount.domain.exception.InsufficientBalanceException;
 import com.mdci.bankaccount.domain.model.BankAccount;
@@ -14,9 +16,8 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.time.*;
-import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -45,7 +46,7 @@ class BankOperationServiceTest {
     void shouldDepositMoneyAndSaveOperation() {
         String accountId = "acc-123";
         BankAccount account = new BankAccount(accountId, operationFactory);
-        when(accountLoader.loadWithHistory(accountId)).thenReturn(account);
+        when(accountLoader.loadForUpdate(accountId)).thenReturn(account);
 
         service.deposit(accountId, new Money(BigDecimal.valueOf(200)));
 
@@ -60,7 +61,7 @@ class BankOperationServiceTest {
         BankOperation previousDeposit = operationFactory.deposit(new Money(BigDecimal.valueOf(150)));
         account.applyOperation(previousDeposit);
 
-        when(accountLoader.loadWithHistory(accountId)).thenReturn(account);
+        when(accountLoader.loadForUpdate(accountId)).thenReturn(account);
 
         service.withdraw(accountId, new Money(BigDecimal.valueOf(50)));
 
@@ -72,7 +73,7 @@ class BankOperationServiceTest {
     void shouldThrowWhenWithdrawingMoreThanBalance() {
         String accountId = "acc-123";
         BankAccount account = new BankAccount(accountId, operationFactory);
-        when(accountLoader.loadWithHistory(accountId)).thenReturn(account);
+        when(accountLoader.loadForUpdate(accountId)).thenReturn(account);
 
         assertThrows(InsufficientBalanceException.class, () ->
                 service.withdraw(accountId, new Money(BigDecimal.valueOf(100)))
@@ -82,7 +83,7 @@ class BankOperationServiceTest {
 
     @Test
     void shouldThrowWhenAccountNotFoundOnDeposit() {
-        when(accountLoader.loadWithHistory("not-found"))
+        when(accountLoader.loadForUpdate("not-found"))
                 .thenThrow(new AccountNotFoundException("Aucun compte trouvé pour l'identifiant : not-found"));
 
         assertThrows(AccountNotFoundException.class, () ->
@@ -96,25 +97,32 @@ class BankOperationServiceTest {
         String accountId = "acc-123";
         LocalDate date = LocalDate.of(2025, 1, 10);
 
-        List<BankOperation> operations = List.of(
-                new BankOperation(UUID.randomUUID().toString(), BankOperation.OperationType.DEPOSIT,
-                        new Money(BigDecimal.valueOf(100)), LocalDateTime.of(2025, 1, 5, 10, 0)),
-                new BankOperation(UUID.randomUUID().toString(), BankOperation.OperationType.WITHDRAWAL,
-                        new Money(BigDecimal.valueOf(30)), LocalDateTime.of(2025, 1, 8, 14, 0))
-        );
-
-        BankAccount account = new BankAccount(accountId, operationFactory);
-        when(accountRepository.findById(accountId)).thenReturn(Optional.of(account));
-        when(operationRepository.findAllByAccountIdUntilDate(accountId, date)).thenReturn(operations);
+        when(accountRepository.existsById(accountId)).thenReturn(true);
+        when(operationRepository.findBalanceAtDate(accountId, date)).thenReturn(BigDecimal.valueOf(70));
 
         BigDecimal balance = service.getBalanceAtDate(accountId, date);
 
         assertEquals(BigDecimal.valueOf(70), balance);
+        verify(operationRepository, never()).findAllByAccountIdUntilDate(any(), any());
+        verify(accountRepository, never()).findById(any());
+    }
+
+    @Test
+    void shouldReadBalanceAtInstantFromRepository() {
+        String accountId = UUID.randomUUID().toString();
+        LocalDateTime at = LocalDateTime.of(2025, 1, 10, 14, 30);
+        when(accountRepository.existsById(accountId)).thenReturn(true);
+        when(operationRepository.findBalanceAt(accountId, at)).thenReturn(BigDecimal.valueOf(70));
+
+        BigDecimal balance = service.getBalanceAt(accountId, at);
+
+        assertEquals(BigDecimal.valueOf(70), balance);
+        verify(operationRepository, never()).findAllByAccountId(any());
     }
 
     @Test
     void shouldThrowWhenAccountNotFoundOnGetBalanceAtDate() {
-        when(accountRepository.findById("unknown")).thenReturn(Optional.empty());
+        when(accountRepository.existsById("unknown")).thenReturn(false);
         assertThrows(AccountNotFoundException.class, () ->
                 service.getBalanceAtDate("unknown", LocalDate.now())
         );
@@ -133,7 +141,7 @@ class BankOperationServiceTest {
                 new Money(overdraft)
         );
 
-        when(accountLoader.loadWithHistory(accountId)).thenReturn(account);
+        when(accountLoader.loadForUpdate(accountId)).thenReturn(account);
 
         service.withdraw(accountId, new Money(BigDecimal.valueOf(100)));
 
@@ -151,7 +159,7 @@ class BankOperationServiceTest {
                 new Money(BigDecimal.valueOf(100))
         );
 
-        when(accountLoader.loadWithHistory(accountId)).thenReturn(account);
+        when(accountLoader.loadForUpdate(accountId)).thenReturn(account);
 
         assertThrows(InsufficientBalanceException.class, () ->
                 service.withdraw(accountId, new Money(BigDecimal.valueOf(101)))
@@ -159,4 +167,42 @@ class BankOperationServiceTest {
 
         verify(operationRepository, never()).save(any(), any());
     }
+
+    @Test
+    void shouldRunWithdrawalThroughAccountConcurrencyControl() {
+        String accountId = "acc-123";
+        BankAccount account = new BankAccount(accountId, operationFactory, new Money(BigDecimal.ZERO), new Money(BigDecimal.valueOf(100)));
+        when(accountLoader.loadForUpdate(accountId)).thenReturn(account);
+
+        AccountConcurrencyControl control = mock(AccountConcurrencyControl.class);
+        when(control.execute(eq(accountId), any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+        BankOperationService guardedService = new BankOperationService(accountLoader, accountRepository, operationRepository, control);
+
+        guardedService.withdraw(accountId, new Money(BigDecimal.valueOf(40)));
+
+        verify(control).execute(eq(accountId), any());
+        verify(operationRepository).save(any(), any());
+    }
+
+    @Test
+    void shouldRunDepositInItsOwnUnitOfWorkInsideConcurrencyControl() {
+        String accountId = "acc-123";
+        BankAccount account = new BankAccount(accountId, operationFactory);
+        when(accountLoader.loadForUpdate(accountId)).thenReturn(account);
+
+        AccountConcurrencyControl control = mock(AccountConcurrencyControl.class);
+        when(control.execute(eq(accountId), any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+        UnitOfWork unitOfWork = mock(UnitOfWork.class);
+        when(unitOfWork.execute(eq(UnitOfWork.UseCase.DEPOSIT), any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+        BankOperationService transactionalService =
+                new BankOperationService(accountLoader, accountRepository, operationRepository, control, unitOfWork);
+
+        transactionalService.deposit(accountId, new Money(BigDecimal.valueOf(25)));
+
+        var inOrder = inOrder(control, unitOfWork, accountLoader, operationRepository);
+        inOrder.verify(control).execute(eq(accountId), any());
+        inOrder.verify(unitOfWork).execute(eq(UnitOfWork.UseCase.DEPOSIT), any());
+        inOrder.verify(accountLoader).loadForUpdate(accountId);
+        inOrder.verify(operationRepository).save(any(), any());
+    }
 }
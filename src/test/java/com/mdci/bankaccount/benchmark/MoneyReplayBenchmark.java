@@ -0,0 +1,119 @@
+package com.mdci.bankaccount.benchmark;
+
+import com.mdci.bankaccount.domain.model.AuthorizedOverdraftPolicy;
+import com.mdci.bankaccount.domain.model.BankAccount;
+import com.mdci.bankaccount.domain.model.BankAccountFactory;
+import com.mdci.bankaccount.domain.model.BankOperation;
+import com.mdci.bankaccount.domain.model.Money;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare le rejeu d'historique et le contrôle de découvert en {@link BigDecimal} (implémentation précédente)
+ * et en virgule fixe sur {@code long}.
+ * Lancement : {@code mvn test-compile} puis {@code java -cp target/test-classes:target/classes:<classpath de test>
+ * com.mdci.bankaccount.benchmark.MoneyReplayBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyReplayBenchmark {
+
+    @Param({"1000", "100000"})
+    private int operationCount;
+
+    private List<BankOperation> operations;
+    private List<LegacyOperation> legacyOperations;
+    private List<Money> withdrawals;
+    private List<BigDecimal> withdrawalAmounts;
+    private BankAccount account;
+    private final AuthorizedOverdraftPolicy policy = new AuthorizedOverdraftPolicy();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDateTime timestamp = LocalDateTime.of(2025, 1, 1, 0, 0);
+        operations = new ArrayList<>(operationCount);
+        legacyOperations = new ArrayList<>(operationCount);
+        withdrawals = new ArrayList<>(operationCount);
+        withdrawalAmounts = new ArrayList<>(operationCount);
+        for (int i = 0; i < operationCount; i++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextInt(100_000) + 1, 2);
+            boolean deposit = random.nextInt(3) > 0;
+            BankOperation.OperationType type = deposit ? BankOperation.OperationType.DEPOSIT : BankOperation.OperationType.WITHDRAWAL;
+            operations.add(new BankOperation("op-" + i, type, Money.of(amount), timestamp.plusMinutes(i)));
+            legacyOperations.add(new LegacyOperation(type, new LegacyMoney(amount)));
+            withdrawals.add(Money.of(amount));
+            withdrawalAmounts.add(amount);
+        }
+        account = new BankAccount("ACC-BENCH", null, Money.zero(), Money.of(BigDecimal.valueOf(100_000_000)));
+        account.applyOperation(new BankOperation("op-initial", BankOperation.OperationType.DEPOSIT,
+                Money.of(new BigDecimal("12345.67")), timestamp));
+    }
+
+    @Benchmark
+    public BigDecimal replayBigDecimal() {
+        BigDecimal balance = BigDecimal.ZERO;
+        for (LegacyOperation op : legacyOperations) {
+            switch (op.type()) {
+                case DEPOSIT -> balance = balance.add(op.amount().amount());
+                case WITHDRAWAL -> balance = balance.subtract(op.amount().amount());
+            }
+        }
+        return balance;
+    }
+
+    @Benchmark
+    public BigDecimal replayFixedPoint() {
+        return BankAccountFactory.computeBalanceFromOperations(operations);
+    }
+
+    @Benchmark
+    public int overdraftCheckBigDecimal() {
+        BigDecimal balance = account.getBalance();
+        BigDecimal maxOverdraft = account.getAuthorizedOverdraft().amount();
+        int accepted = 0;
+        for (BigDecimal amount : withdrawalAmounts) {
+            if (balance.subtract(amount).compareTo(maxOverdraft.negate()) >= 0) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    @Benchmark
+    public int overdraftCheckFixedPoint() {
+        int accepted = 0;
+        for (Money amount : withdrawals) {
+            policy.checkWithdrawal(account, amount);
+            accepted++;
+        }
+        return accepted;
+    }
+
+    /** Opération et montant tels qu'ils étaient représentés avant le passage en virgule fixe. */
+    record LegacyOperation(BankOperation.OperationType type, LegacyMoney amount) {
+    }
+
+    record LegacyMoney(BigDecimal amount) {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MoneyReplayBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
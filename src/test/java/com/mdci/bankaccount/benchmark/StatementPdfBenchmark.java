@@ -0,0 +1,159 @@
+package com.mdci.bankaccount.benchmark;
+
+import com.mdci.bankaccount.application.dto.AccountStatementDTO;
+import com.mdci.bankaccount.application.dto.OperationDTO;
+import com.mdci.bankaccount.domain.model.AccountType;
+import com.mdci.bankaccount.infrastructure.pdf.DocumentStatementGenerator;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare la production d'un relevé PDF par le générateur actuel et par l'implémentation précédente
+ * (un bloc de texte par cellule, {@code String.format}, tri systématique).
+ * <p>
+ * Le compteur {@code pages} donne des pages par seconde ; avec {@code -prof gc}, {@code gc.alloc.rate.norm}
+ * divisé par {@code rows} donne les octets alloués par ligne d'opération.
+ * Lancement : {@code mvn test-compile} puis {@code java -cp target/test-classes:target/classes:<classpath de test>
+ * com.mdci.bankaccount.benchmark.StatementPdfBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatementPdfBenchmark {
+
+    @Param({"100", "5000"})
+    private int rows;
+
+    private AccountStatementDTO statement;
+    private DocumentStatementGenerator generator;
+    private int pageCount;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Pages {
+        public long pages;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        LocalDateTime timestamp = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<OperationDTO> operations = new ArrayList<>(rows);
+        BigDecimal balance = BigDecimal.ZERO;
+        for (int i = 0; i < rows; i++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextInt(100_000) + 1, 2);
+            balance = balance.add(amount);
+            operations.add(new OperationDTO(UUID.randomUUID().toString(), "DEPOSIT", amount, timestamp.plusMinutes(i), balance));
+        }
+        // Ordre fourni par le relevé : plus récente d'abord
+        List<OperationDTO> newestFirst = operations.reversed();
+        statement = new AccountStatementDTO("ACC-BENCH", AccountType.COMPTE_COURANT, balance, timestamp.plusMonths(1),
+                timestamp, timestamp.plusMonths(1), List.copyOf(newestFirst));
+        generator = new DocumentStatementGenerator();
+        ByteArrayOutputStream sample = new ByteArrayOutputStream();
+        generator.generate(statement, sample);
+        try (PDDocument pdf = PDDocument.load(sample.toByteArray())) {
+            pageCount = pdf.getNumberOfPages();
+        }
+    }
+
+    @Benchmark
+    public void render(Pages pages) throws IOException {
+        generator.generate(statement, OutputStream.nullOutputStream());
+        pages.pages += pageCount;
+    }
+
+    // Pages comptées comme pour le générateur actuel : l'implémentation précédente n'en diffère au plus que d'une
+    @Benchmark
+    public void renderLegacy(Pages pages) throws IOException {
+        // L'implémentation précédente laisse PDFBox fermer le flux : un flux neuf à chaque rendu
+        LegacyRenderer.generate(statement, OutputStream.nullOutputStream());
+        pages.pages += pageCount;
+    }
+
+    /** Rendu tel qu'il était avant la réécriture du générateur. */
+    static final class LegacyRenderer {
+
+        private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+        static void generate(AccountStatementDTO dto, OutputStream output) throws IOException {
+            try (PDDocument doc = new PDDocument()) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                doc.addPage(page);
+                PDPageContentStream content = new PDPageContentStream(doc, page);
+                float y = 620;
+                float[] colWidths = {80, 80, 80, 100, 100};
+                content.setFont(PDType1Font.HELVETICA, 10);
+                List<OperationDTO> sorted = dto.recentOperations().stream()
+                        .sorted(Comparator.comparing(OperationDTO::date))
+                        .toList();
+                for (OperationDTO op : sorted) {
+                    String[] row = {
+                            op.date().format(DATE_FORMAT),
+                            op.type(),
+                            String.format("%.2f", op.amount()),
+                            op.operationId().substring(0, 8),
+                            op.balanceAfter() != null ? String.format("%.2f", op.balanceAfter()) : "-"
+                    };
+                    writeRow(content, y, colWidths, row);
+                    y -= 15;
+                    if (y < 100) {
+                        content.close();
+                        page = new PDPage(PDRectangle.A4);
+                        doc.addPage(page);
+                        content = new PDPageContentStream(doc, page);
+                        content.setFont(PDType1Font.HELVETICA, 10);
+                        y = 750;
+                    }
+                }
+                content.close();
+                doc.save(output);
+            }
+        }
+
+        private static void writeRow(PDPageContentStream content, float y, float[] colWidths, String[] values) throws IOException {
+            float x = 50;
+            content.beginText();
+            content.newLineAtOffset(x, y);
+            for (int i = 0; i < values.length; i++) {
+                content.showText(values[i]);
+                x += colWidths[i];
+                content.endText();
+                if (i < values.length - 1) {
+                    content.beginText();
+                    content.newLineAtOffset(x, y);
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StatementPdfBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
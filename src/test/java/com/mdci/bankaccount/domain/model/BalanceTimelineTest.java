@@ -0,0 +1,51 @@
+package com.mdci.bankaccount.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BalanceTimelineTest {
+
+    @Test
+    void shouldAnswerBalanceAtAnyInstantWhateverTheInsertionOrder() {
+        BalanceTimeline timeline = BalanceTimeline.of(List.of(
+                operation(BankOperation.OperationType.DEPOSIT, "50", "2025-01-05T09:00:00"),
+                operation(BankOperation.OperationType.DEPOSIT, "100", "2025-01-01T10:00:00"),
+                operation(BankOperation.OperationType.WITHDRAWAL, "30.50", "2025-01-03T12:00:00")
+        ));
+
+        assertThat(timeline.size()).isEqualTo(3);
+        assertThat(timeline.balanceAt(LocalDateTime.parse("2025-01-01T09:59:59"))).isEqualTo(Money.zero());
+        assertThat(timeline.balanceAt(LocalDateTime.parse("2025-01-01T10:00:00")).amount()).isEqualByComparingTo("100");
+        assertThat(timeline.balanceAt(LocalDateTime.parse("2025-01-03T12:00:00")).amount()).isEqualByComparingTo("69.50");
+        assertThat(timeline.balanceAtEndOf(LocalDate.of(2025, 1, 4)).amount()).isEqualByComparingTo("69.50");
+        assertThat(timeline.balanceAtEndOf(LocalDate.of(2025, 1, 5)).amount()).isEqualByComparingTo("119.50");
+        assertThat(timeline.balanceAt(LocalDateTime.MAX).amount()).isEqualByComparingTo("119.50");
+        assertThat(timeline.balanceAt(LocalDateTime.MIN)).isEqualTo(Money.zero());
+    }
+
+    @Test
+    void shouldAppendOnlyOperationsAfterTheLastKnownOne() {
+        BalanceTimeline timeline = BalanceTimeline.of(List.of());
+        for (int day = 1; day <= 40; day++) {
+            assertThat(timeline.append(operation(BankOperation.OperationType.DEPOSIT, "10",
+                    LocalDateTime.of(2025, 1, 1, 0, 0).plusDays(day).toString()))).isTrue();
+        }
+
+        assertThat(timeline.append(operation(BankOperation.OperationType.DEPOSIT, "10", "2025-01-05T00:00:00"))).isFalse();
+        assertThat(timeline.append(operation(BankOperation.OperationType.DEPOSIT, "10", "2025-02-10T00:00:00"))).isFalse();
+        assertThat(timeline.size()).isEqualTo(40);
+        assertThat(timeline.balanceAtEndOf(LocalDate.of(2025, 1, 10)).amount()).isEqualByComparingTo("90");
+    }
+
+    private static BankOperation operation(BankOperation.OperationType type, String amount, String timestamp) {
+        return new BankOperation(UUID.randomUUID().toString(), type, Money.of(new BigDecimal(amount)),
+                LocalDateTime.parse(timestamp));
+    }
+}
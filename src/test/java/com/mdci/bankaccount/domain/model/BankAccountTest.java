@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
@@ -43,6 +44,20 @@ class BankAccountTest {
         assertEquals(BigDecimal.valueOf(200), account.getBalance());
     }
 
+    @Test
+    void shouldComputeBalanceUntilDateIncludingOperationsAppliedAfterAFirstQuery() {
+        account.deposit(new Money(BigDecimal.valueOf(100)));
+        assertEquals(0, account.computeBalanceUntil(LocalDate.of(2025, 1, 1)).compareTo(BigDecimal.valueOf(100)));
+
+        // Même horodatage que le dépôt (horloge figée), puis opération antidatée
+        account.withdraw(new Money(BigDecimal.valueOf(30)));
+        account.applyOperation(new BankOperation(UUID.randomUUID().toString(), BankOperation.OperationType.DEPOSIT,
+                new Money(BigDecimal.valueOf(5)), LocalDateTime.of(2024, 12, 31, 9, 0)));
+
+        assertEquals(0, account.computeBalanceUntil(LocalDate.of(2024, 12, 31)).compareTo(BigDecimal.valueOf(5)));
+        assertEquals(0, account.computeBalanceUntil(LocalDate.of(2025, 1, 1)).compareTo(BigDecimal.valueOf(75)));
+    }
+
     @Test
     void shouldWithdrawMoney() {
         account.deposit(new Money(BigDecimal.valueOf(100)));
@@ -64,6 +64,37 @@ class MoneyTest {
         Money negative = Money.of(new BigDecimal("-10.00"));
         assertThat(negative.isNegative()).isTrue();
     }
-}
 
+    @Test
+    void should_keep_the_scale_of_the_converted_amount() {
+        assertEquals(new BigDecimal("12.50"), Money.of(new BigDecimal("12.50")).amount());
+        assertEquals(new BigDecimal("12.50"), Money.of(new BigDecimal("10")).add(Money.of(new BigDecimal("2.50"))).amount());
+        assertThat(Money.of(new BigDecimal("12.50")).minorUnits()).isEqualTo(1250L);
+    }
+
+    @Test
+    void should_give_the_amount_to_the_cent_whatever_its_scale() {
+        assertEquals(new BigDecimal("10.00"), Money.of(new BigDecimal("10")).amountToTheCent());
+        assertEquals(new BigDecimal("-1.50"), Money.of(new BigDecimal("1.5")).negate().amountToTheCent());
+    }
 
+    @Test
+    void should_accept_superfluous_zeros_but_reject_fractions_of_a_cent() {
+        assertEquals(new BigDecimal("1.5"), Money.of(new BigDecimal("1.500")).amount());
+        assertThrows(InvalidAmountException.class, () -> Money.of(new BigDecimal("1.005")));
+    }
+
+    @Test
+    void should_detect_overflow() {
+        Money max = Money.ofMinorUnits(Long.MAX_VALUE, Money.MAX_SCALE);
+        assertThrows(InvalidAmountException.class, () -> max.add(Money.of(new BigDecimal("0.01"))));
+        assertThrows(InvalidAmountException.class, () -> Money.of(new BigDecimal("1E+30")));
+        assertThrows(InvalidAmountException.class, () -> Money.of(BigDecimal.valueOf(Long.MAX_VALUE)).minorUnits());
+    }
+
+    @Test
+    void should_be_equal_regardless_of_scale() {
+        assertThat(Money.of(new BigDecimal("10.00"))).isEqualTo(Money.of(BigDecimal.TEN));
+        assertThat(Money.of(new BigDecimal("10.00")).hashCode()).isEqualTo(Money.of(BigDecimal.TEN).hashCode());
+    }
+}
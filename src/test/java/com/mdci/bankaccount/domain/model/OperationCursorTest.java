@@ -0,0 +1,31 @@
+package com.mdci.bankaccount.domain.model;
+
+import com.mdci.bankaccount.domain.exception.FunctionalException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OperationCursorTest {
+
+    @Test
+    void should_round_trip_through_an_url_safe_token() {
+        OperationCursor cursor = new OperationCursor(LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123_456_000), "op|42");
+
+        String token = cursor.encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(OperationCursor.parse(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void should_reject_tampered_tokens_as_functional_errors() {
+        assertThatThrownBy(() -> OperationCursor.parse("not a token"))
+                .isInstanceOf(FunctionalException.class)
+                .hasMessage("Curseur de pagination invalide.");
+        assertThatThrownBy(() -> OperationCursor.parse("bm8tc2VwYXJhdG9y"))
+                .isInstanceOf(FunctionalException.class);
+    }
+}
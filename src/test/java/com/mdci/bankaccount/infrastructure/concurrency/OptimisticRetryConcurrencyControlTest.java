@@ -0,0 +1,76 @@
+package com.mdci.bankaccount.infrastructure.concurrency;
+
+import com.mdci.bankaccount.domain.exception.ConcurrentAccountUpdateException;
+import com.mdci.bankaccount.domain.exception.InsufficientBalanceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OptimisticRetryConcurrencyControlTest {
+
+    private SimpleMeterRegistry registry;
+    private OptimisticRetryConcurrencyControl control;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        control = new OptimisticRetryConcurrencyControl(3, Duration.ofMillis(1), Duration.ofMillis(2), 2.0, registry);
+    }
+
+    @Test
+    void should_retry_until_the_write_succeeds() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = control.execute("ACC-1", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ConcurrentAccountUpdateException("conflit");
+            }
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(attempts).hasValue(3);
+        assertThat(registry.get("bank.account.optimistic.conflicts").counter().count()).isEqualTo(2);
+        assertThat(registry.get("bank.account.optimistic.retries").counter().count()).isEqualTo(2);
+        assertThat(registry.get("bank.account.optimistic.exhausted").counter().count()).isZero();
+    }
+
+    @Test
+    void should_give_up_after_max_attempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> control.execute("ACC-1", () -> {
+            attempts.incrementAndGet();
+            throw new ConcurrentAccountUpdateException("conflit");
+        })).isInstanceOf(ConcurrentAccountUpdateException.class);
+
+        assertThat(attempts).hasValue(3);
+        assertThat(registry.get("bank.account.optimistic.retries").counter().count()).isEqualTo(2);
+        assertThat(registry.get("bank.account.optimistic.exhausted").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_not_retry_business_errors() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> control.execute("ACC-1", () -> {
+            attempts.incrementAndGet();
+            throw new InsufficientBalanceException("Solde insuffisant.");
+        })).isInstanceOf(InsufficientBalanceException.class);
+
+        assertThat(attempts).hasValue(1);
+        assertThat(registry.get("bank.account.optimistic.conflicts").counter().count()).isZero();
+    }
+
+    @Test
+    void should_reject_a_non_positive_attempt_count() {
+        assertThatThrownBy(() -> new OptimisticRetryConcurrencyControl(0, Duration.ZERO, Duration.ZERO, 2.0, registry))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,25 @@
+package com.mdci.bankaccount.infrastructure.concurrency;
+
+import com.mdci.bankaccount.domain.exception.ConcurrentAccountUpdateException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PessimisticLockConcurrencyControlTest {
+
+    private final PessimisticLockConcurrencyControl control = new PessimisticLockConcurrencyControl();
+
+    @Test
+    void should_run_the_write_directly() {
+        assertThat(control.execute("ACC-1", () -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    void should_report_a_lock_timeout_as_a_concurrent_update() {
+        assertThatThrownBy(() -> control.execute("ACC-1", () -> {
+            throw new CannotAcquireLockException("timeout");
+        })).isInstanceOf(ConcurrentAccountUpdateException.class);
+    }
+}
@@ -0,0 +1,125 @@
+package com.mdci.bankaccount.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StripedLockConcurrencyControlTest {
+
+    private SimpleMeterRegistry registry;
+    private StripedLockConcurrencyControl control;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        control = new StripedLockConcurrencyControl(16, false, registry);
+    }
+
+    @Test
+    void should_serialize_writes_on_the_same_account() throws Exception {
+        int threads = 8;
+        int iterations = 1_000;
+        int[] counter = {0};
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < iterations; i++) {
+                        control.execute("ACC-1", () -> counter[0]++);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(counter[0]).isEqualTo(threads * iterations);
+        assertThat(registry.get("bank.account.lock.wait").timer().count()).isEqualTo(threads * iterations);
+    }
+
+    @Test
+    void should_not_block_an_account_mapped_to_another_stripe() throws Exception {
+        String busyAccount = "ACC-1";
+        String otherAccount = findAccountOnAnotherStripe(busyAccount);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            executor.submit(() -> control.execute(busyAccount, () -> {
+                locked.countDown();
+                await(release);
+                return null;
+            }));
+            locked.await(5, TimeUnit.SECONDS);
+
+            Future<String> other = executor.submit(() -> control.execute(otherAccount, () -> "ok"));
+
+            assertThat(other.get(2, TimeUnit.SECONDS)).isEqualTo("ok");
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void should_not_deadlock_when_batches_lock_the_same_accounts_in_opposite_orders() throws Exception {
+        String first = "ACC-1";
+        String second = findAccountOnAnotherStripe(first);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    control.executeAll(List.of(first, second), () -> null);
+                }
+            }));
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    control.executeAll(List.of(second, first, second), () -> null);
+                }
+            }));
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(control.stripeFor(first).isLocked()).isFalse();
+        assertThat(control.stripeFor(second).isLocked()).isFalse();
+    }
+
+    @Test
+    void should_reject_a_non_positive_stripe_count() {
+        assertThatThrownBy(() -> new StripedLockConcurrencyControl(0, false, registry))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private String findAccountOnAnotherStripe(String accountId) {
+        for (int i = 0; ; i++) {
+            String candidate = "ACC-" + i;
+            if (control.stripeFor(candidate) != control.stripeFor(accountId)) {
+                return candidate;
+            }
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.mdci.bankaccount.infrastructure.pdf;
+
+import com.mdci.bankaccount.application.dto.AccountStatementDTO;
+import com.mdci.bankaccount.application.dto.OperationDTO;
+import com.mdci.bankaccount.domain.model.AccountType;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocumentStatementGeneratorTest {
+
+    @TempDir
+    Path tempDirectory;
+
+    @Test
+    void should_write_a_multi_page_statement_to_the_stream_spilling_to_a_temp_file() throws IOException {
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<OperationDTO> operations = IntStream.range(0, 200)
+                .mapToObj(i -> new OperationDTO(UUID.randomUUID().toString(), "DEPOSIT", BigDecimal.TEN,
+                        from.plusHours(i), BigDecimal.TEN.multiply(BigDecimal.valueOf(i + 1))))
+                .toList();
+        AccountStatementDTO statement = new AccountStatementDTO("ACC-1", AccountType.COMPTE_COURANT, new BigDecimal("2000.00"),
+                from.plusMonths(1), from, from.plusMonths(1), operations);
+        ClosingAwareOutputStream output = new ClosingAwareOutputStream();
+
+        // Mémoire de travail minimale : le document passe par un fichier temporaire
+        new DocumentStatementGenerator(1024, tempDirectory.toFile()).generate(statement, output);
+
+        assertThat(output.closed).isFalse();
+        try (PDDocument pdf = PDDocument.load(output.toByteArray())) {
+            assertThat(pdf.getNumberOfPages()).isGreaterThan(1);
+            assertThat(new PDFTextStripper().getText(pdf)).contains("RÉCAPITULATIF", "Total dépôts");
+        }
+    }
+
+    @Test
+    void should_list_operations_oldest_first_in_a_single_pass() throws IOException {
+        LocalDateTime day = LocalDateTime.of(2025, 3, 1, 9, 0);
+        OperationDTO first = operation("aaaaaaaa-1", day);
+        OperationDTO second = operation("bbbbbbbb-2", day.plusDays(1));
+        OperationDTO third = operation("cccccccc-3", day.plusDays(2));
+
+        // Ordre du relevé (plus récente d'abord) lu à rebours, ordre quelconque trié
+        assertThat(DocumentStatementGenerator.chronological(List.of(third, second, first))).containsExactly(first, second, third);
+        assertThat(DocumentStatementGenerator.chronological(List.of(second, third, first))).containsExactly(first, second, third);
+        List<OperationDTO> ascending = List.of(first, second, third);
+        assertThat(DocumentStatementGenerator.chronological(ascending)).isSameAs(ascending);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new DocumentStatementGenerator().generate(new AccountStatementDTO("ACC-1", AccountType.COMPTE_COURANT, BigDecimal.TEN,
+                day, day, day.plusDays(2), List.of(third, second, first)), output);
+        try (PDDocument pdf = PDDocument.load(output.toByteArray())) {
+            String text = new PDFTextStripper().getText(pdf);
+            assertThat(text.indexOf("aaaaaaaa")).isLessThan(text.indexOf("bbbbbbbb"));
+            assertThat(text.indexOf("bbbbbbbb")).isLessThan(text.indexOf("cccccccc"));
+        }
+    }
+
+    @Test
+    void should_label_the_header_balance_after_the_state_of_the_period() throws IOException {
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        AccountStatementDTO closed = new AccountStatementDTO("ACC-1", AccountType.COMPTE_COURANT, new BigDecimal("80"),
+                new BigDecimal("1234.5"), true, from.plusMonths(1), from, from.plusMonths(1), List.of(),
+                BigDecimal.ZERO, BigDecimal.ZERO);
+        AccountStatementDTO open = new AccountStatementDTO("ACC-1", AccountType.COMPTE_COURANT, BigDecimal.TEN,
+                from.plusMonths(1), from, from.plusMonths(1), List.of());
+
+        assertThat(textOf(closed)).contains("Solde en fin de période : 1234.50 EUR").doesNotContain("Solde actuel");
+        assertThat(textOf(open)).contains("Solde actuel : 10.00 EUR").doesNotContain("Solde en fin de période");
+    }
+
+    @Test
+    void should_format_amounts_and_dates_without_locale() {
+        assertThat(DocumentStatementGenerator.formatAmount(new BigDecimal("1234.5"))).isEqualTo("1234.50");
+        assertThat(DocumentStatementGenerator.formatAmount(new BigDecimal("-0.005"))).isEqualTo("-0.01");
+        assertThat(DocumentStatementGenerator.formatAmount(new BigDecimal("1E+3"))).isEqualTo("1000.00");
+        assertThat(DocumentStatementGenerator.appendDate(new StringBuilder(), LocalDateTime.of(2025, 3, 7, 23, 59)))
+                .hasToString("07/03/2025");
+        assertThat(DocumentStatementGenerator.appendDate(new StringBuilder(), LocalDateTime.of(987, 12, 31, 0, 0)))
+                .hasToString("31/12/0987");
+    }
+
+    private static String textOf(AccountStatementDTO statement) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new DocumentStatementGenerator().generate(statement, output);
+        try (PDDocument pdf = PDDocument.load(output.toByteArray())) {
+            return new PDFTextStripper().getText(pdf);
+        }
+    }
+
+    private static OperationDTO operation(String id, LocalDateTime date) {
+        return new OperationDTO(id, "DEPOSIT", BigDecimal.ONE, date, null);
+    }
+
+    private static final class ClosingAwareOutputStream extends ByteArrayOutputStream {
+
+        private boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
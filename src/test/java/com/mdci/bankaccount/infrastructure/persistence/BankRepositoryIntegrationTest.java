@@ -1,5 +1,7 @@
 package com.mdci.bankaccount.infrastructure.persistence;
 
+import com.mdci.bankaccount.domain.exception.ConcurrentAccountUpdateException;
+import com.mdci.bankaccount.domain.exception.InsufficientBalanceException;
 import com.mdci.bankaccount.domain.model.*;
 import com.mdci.bankaccount.domain.port.out.BankOperationFactory;
 import com.mdci.bankaccount.domain.port.out.IBankAccountRepository;
@@ -10,17 +12,23 @@ import com.mdci.bankaccount.infrastructure.persistence.entity.BankAccountEntity;
 import com.mdci.bankaccount.infrastructure.persistence.entity.BankOperationEntity;
 import com.mdci.bankaccount.infrastructure.persistence.jpa.BankAccountJpaRepository;
 import com.mdci.bankaccount.infrastructure.persistence.jpa.BankOperationJpaRepository;
+import com.mdci.bankaccount.infrastructure.persistence.jpa.DailyBalanceJpaRepository;
 import com.mdci.bankaccount.infrastructure.persistence.mapper.BankAccountEntityMapper;
 import com.mdci.bankaccount.infrastructure.persistence.mapper.BankOperationEntityMapper;
+import com.mdci.bankaccount.infrastructure.persistence.rollup.DailyBalanceRollups;
 import com.mdci.bankaccount.testutil.FakeBankOperationFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.time.*;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -38,6 +46,12 @@ class BankRepositoryIntegrationTest {
     @Autowired
     private BankOperationJpaRepository operationJpaRepository;
 
+    @Autowired
+    private DailyBalanceJpaRepository dailyBalanceJpaRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
     private IBankAccountRepository accountRepository;
     private IBankOperationRepository operationRepository;
     private BankOperationFactory factory;
@@ -111,6 +125,329 @@ class BankRepositoryIntegrationTest {
         assertEquals(new Money(BigDecimal.valueOf(200)), found.get(0).amount());
     }
 
+    @Test
+    void shouldMaintainStoredBalanceAndRejectConcurrentOverdraft() {
+        // Given
+        String accountId = UUID.randomUUID().toString();
+        BankAccount account = new BankAccount(accountId, factory);
+        accountRepository.save(account);
+        operationRepository.save(account, account.deposit(new Money(BigDecimal.valueOf(100))));
+        entityManager.clear();
+
+        // Deux lectures concurrentes voient toutes deux un solde de 100
+        BankAccount first = accountRepository.findByIdWithoutHistory(accountId).orElseThrow();
+        BankAccount second = accountRepository.findByIdWithoutHistory(accountId).orElseThrow();
+        assertThat(first.getBalance()).isEqualByComparingTo("100");
+
+        // When
+        operationRepository.save(first, first.withdraw(new Money(BigDecimal.valueOf(80))));
+        BankOperation staleWithdrawal = second.withdraw(new Money(BigDecimal.valueOf(80)));
+
+        // Then
+        assertThrows(InsufficientBalanceException.class, () -> operationRepository.save(second, staleWithdrawal));
+        entityManager.clear();
+        assertThat(accountJpaRepository.findById(accountId).orElseThrow().getBalance()).isEqualByComparingTo("20");
+    }
+
+    @Test
+    void shouldKeepBalanceAfterInStatementOrderWhenAnEarlierDepositIsCommittedLast() {
+        // Given : deux dépôts concurrents chargent le compte à 100, sans contrôle de version
+        String accountId = UUID.randomUUID().toString();
+        BankAccount account = new BankAccount(accountId, factory);
+        accountRepository.save(account);
+        operationRepository.save(account, account.deposit(new Money(BigDecimal.valueOf(100))));
+        entityManager.flush();
+        entityManager.clear();
+        BankAccount first = accountRepository.findByIdWithoutHistory(accountId).orElseThrow();
+        BankAccount second = accountRepository.findByIdWithoutHistory(accountId).orElseThrow();
+        BankOperation earlier = operationAt(BankOperation.OperationType.DEPOSIT, 10, "2025-01-01T10:00:00");
+        BankOperation later = operationAt(BankOperation.OperationType.DEPOSIT, 20, "2025-01-01T10:00:01");
+
+        // When : le dépôt daté le plus tard passe la mise à jour et est validé le premier
+        BankOperation savedLater = operationRepository.save(second, later);
+        BankOperation savedEarlier = operationRepository.save(first, earlier);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then : les soldes après opération se suivent dans l'ordre du relevé
+        assertThat(savedLater.balanceAfter()).isEqualByComparingTo("120");
+        assertThat(savedEarlier.balanceAfter()).isEqualByComparingTo("110");
+        List<BankOperation> statement = operationRepository.findAllByAccountIdBetweenDates(accountId,
+                LocalDateTime.parse("2025-01-01T00:00:00"), LocalDateTime.parse("2025-01-01T23:59:59"));
+        assertThat(statement).extracting(BankOperation::id).containsExactly(statement.get(0).id(), earlier.id(), later.id());
+        assertThat(statement).extracting(BankOperation::balanceAfter)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("100"), new BigDecimal("110"), new BigDecimal("130"));
+        assertThat(accountJpaRepository.findById(accountId).orElseThrow().getBalance()).isEqualByComparingTo("130");
+    }
+
+    @Test
+    void shouldRejectWriteFromStaleVersionInOptimisticMode() {
+        // Given
+        IBankOperationRepository optimisticRepository =
+                new BankOperationRepositoryAdapter(operationJpaRepository, accountJpaRepository, mapper, true);
+        String accountId = UUID.randomUUID().toString();
+        accountRepository.save(new BankAccount(accountId, factory));
+        entityManager.flush();
+        entityManager.clear();
+
+        BankAccount first = accountRepository.findByIdWithoutHistory(accountId).orElseThrow();
+        BankAccount second = accountRepository.findByIdWithoutHistory(accountId).orElseThrow();
+
+        // When
+        optimisticRepository.save(first, first.deposit(new Money(BigDecimal.valueOf(50))));
+        BankOperation staleDeposit = second.deposit(new Money(BigDecimal.valueOf(30)));
+
+        // Then
+        assertThrows(ConcurrentAccountUpdateException.class, () -> optimisticRepository.save(second, staleDeposit));
+        entityManager.clear();
+        BankAccount reloaded = accountRepository.findByIdWithoutHistory(accountId).orElseThrow();
+        assertThat(reloaded.getBalance()).isEqualByComparingTo("50");
+        assertThat(reloaded.getVersion()).isEqualTo(first.getVersion() + 1);
+    }
+
+    @Test
+    void shouldLoadAccountWithRowLockForWrites() {
+        // Given
+        String accountId = UUID.randomUUID().toString();
+        BankAccount account = new BankAccount(accountId, factory);
+        accountRepository.save(account);
+        operationRepository.save(account, account.deposit(new Money(BigDecimal.valueOf(40))));
+        entityManager.clear();
+
+        // When : la transaction du test porte le verrou
+        Optional<BankAccount> locked = accountRepository.findByIdForUpdate(accountId);
+
+        // Then
+        assertTrue(locked.isPresent());
+        assertThat(locked.get().getBalance()).isEqualByComparingTo("40");
+        assertTrue(accountRepository.findByIdForUpdate("unknown").isEmpty());
+    }
+
+    @Test
+    void shouldSaveDepositWithoutReadingTheAccountEntity() {
+        // Given : compte chargé, son nombre d'opérations est connu
+        String accountId = UUID.randomUUID().toString();
+        accountRepository.save(new BankAccount(accountId, factory));
+        entityManager.flush();
+        entityManager.clear();
+        BankAccount account = accountRepository.findByIdWithoutHistory(accountId).orElseThrow();
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        operationRepository.save(account, account.deposit(new Money(BigDecimal.valueOf(10))));
+        entityManager.flush();
+
+        // Then : UPDATE du solde, relecture du solde, INSERT de l'opération
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSaveBatchWithOneBalanceUpdateAndRejectItFromStaleAccount() {
+        // Given
+        String accountId = UUID.randomUUID().toString();
+        accountRepository.save(new BankAccount(accountId, factory));
+        entityManager.flush();
+        entityManager.clear();
+        BankAccount account = accountRepository.findByIdWithoutHistory(accountId).orElseThrow();
+        BankAccount stale = accountRepository.findByIdWithoutHistory(accountId).orElseThrow();
+        List<BankOperation> batch = List.of(
+                account.deposit(new Money(BigDecimal.valueOf(100))),
+                account.withdraw(new Money(BigDecimal.valueOf(30))),
+                account.deposit(new Money(BigDecimal.valueOf(5)))
+        );
+
+        // When
+        List<BankOperation> saved = operationRepository.saveAll(account, batch);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        assertThat(saved).hasSize(3);
+        assertThat(saved.get(2).balanceAfter()).isEqualByComparingTo("75");
+        assertThat(accountRepository.findByIdWithoutHistory(accountId).orElseThrow().getBalance()).isEqualByComparingTo("75");
+        List<BankOperation> staleBatch = List.of(stale.deposit(new Money(BigDecimal.valueOf(1))));
+        assertThrows(ConcurrentAccountUpdateException.class, () -> operationRepository.saveAll(stale, staleBatch));
+    }
+
+    @Test
+    void shouldKeepDailyClosingBalancesUpToDateIncludingBackdatedOperations() {
+        // Given
+        IBankOperationRepository rolledUp = new BankOperationRepositoryAdapter(
+                operationJpaRepository, accountJpaRepository, mapper, false, new DailyBalanceRollups(dailyBalanceJpaRepository));
+        String accountId = UUID.randomUUID().toString();
+        BankAccount account = new BankAccount(accountId, factory);
+        accountRepository.save(account);
+
+        // When : dépôt du jour (horloge au 01/01), puis opérations datées après et avant
+        rolledUp.save(account, account.deposit(new Money(BigDecimal.valueOf(100))));
+        rolledUp.save(account, operationAt(BankOperation.OperationType.DEPOSIT, 50, "2025-01-05T09:00:00"));
+        rolledUp.save(account, operationAt(BankOperation.OperationType.WITHDRAWAL, 30, "2025-01-03T09:00:00"));
+        rolledUp.save(account, operationAt(BankOperation.OperationType.DEPOSIT, 10, "2024-12-31T09:00:00"));
+
+        // Then
+        assertThat(rolledUp.findBalanceAtDate(accountId, LocalDate.of(2024, 12, 30))).isEqualByComparingTo("0");
+        assertThat(rolledUp.findBalanceAtDate(accountId, LocalDate.of(2024, 12, 31))).isEqualByComparingTo("10");
+        assertThat(rolledUp.findBalanceAtDate(accountId, LocalDate.of(2025, 1, 1))).isEqualByComparingTo("110");
+        assertThat(rolledUp.findBalanceAtDate(accountId, LocalDate.of(2025, 1, 4))).isEqualByComparingTo("80");
+        assertThat(rolledUp.findBalanceAtDate(accountId, LocalDate.of(2025, 1, 5))).isEqualByComparingTo("130");
+    }
+
+    @Test
+    void shouldSumNetChangesPerDayInChronologicalOrder() {
+        // Given
+        String accountId = UUID.randomUUID().toString();
+        BankAccount account = new BankAccount(accountId, factory);
+        accountRepository.save(account);
+        operationRepository.save(account, operationAt(BankOperation.OperationType.DEPOSIT, 50, "2025-01-05T09:00:00"));
+        operationRepository.save(account, operationAt(BankOperation.OperationType.WITHDRAWAL, 30, "2025-01-05T23:59:59"));
+        operationRepository.save(account, operationAt(BankOperation.OperationType.DEPOSIT, 100, "2025-01-02T10:00:00"));
+        operationRepository.save(account, operationAt(BankOperation.OperationType.DEPOSIT, 7, "2025-01-08T00:00:00"));
+
+        // When
+        List<DailyNetChange> changes = operationRepository.findDailyNetChanges(accountId, LocalDate.of(2025, 1, 2), LocalDate.of(2025, 1, 7));
+
+        // Then
+        assertThat(changes).extracting(DailyNetChange::day).containsExactly(LocalDate.of(2025, 1, 2), LocalDate.of(2025, 1, 5));
+        assertThat(changes.get(0).net().amount()).isEqualByComparingTo("100");
+        assertThat(changes.get(1).net().amount()).isEqualByComparingTo("20");
+    }
+
+    @Test
+    void shouldComputeBalancesOfManyAccountsAtDateInOrderedPages() {
+        // Given : un compte actif, un compte sans opération, un compte dont les opérations sont postérieures
+        BankAccount active = new BankAccount("report-a", factory);
+        BankAccount empty = new BankAccount("report-b", factory);
+        BankAccount later = new BankAccount("report-c", factory);
+        accountRepository.save(active);
+        accountRepository.save(empty);
+        accountRepository.save(later);
+        operationRepository.save(active, operationAt(BankOperation.OperationType.DEPOSIT, 100, "2025-01-02T10:00:00"));
+        operationRepository.save(active, operationAt(BankOperation.OperationType.WITHDRAWAL, 40, "2025-01-03T23:59:59"));
+        operationRepository.save(active, operationAt(BankOperation.OperationType.DEPOSIT, 5, "2025-01-04T00:00:00"));
+        operationRepository.save(later, operationAt(BankOperation.OperationType.DEPOSIT, 70, "2025-01-10T08:00:00"));
+        LocalDate date = LocalDate.of(2025, 1, 3);
+
+        // When
+        List<AccountBalance> firstPage = operationRepository.findBalancesAtDate(date, null, 2);
+        List<AccountBalance> secondPage = operationRepository.findBalancesAtDate(date, "report-b", 2);
+        List<AccountBalance> selected = operationRepository.findBalancesAtDate(List.of("report-c", "report-a", "unknown"), date);
+
+        // Then
+        assertThat(firstPage).extracting(AccountBalance::accountId).containsExactly("report-a", "report-b");
+        assertThat(firstPage.get(0).balance().amount()).isEqualByComparingTo("60");
+        assertThat(firstPage.get(1).balance().amount()).isEqualByComparingTo("0");
+        assertThat(secondPage).extracting(AccountBalance::accountId).containsExactly("report-c");
+        assertThat(secondPage.get(0).balance().amount()).isEqualByComparingTo("0");
+        assertThat(selected).extracting(AccountBalance::accountId).containsExactly("report-a", "report-c");
+    }
+
+    @Test
+    void shouldPageThroughHistoryNewestFirstWithKeysetOnTimestampAndSequence() {
+        // Given : deux opérations partagent le même horodatage, départagées par leur ordre d'enregistrement
+        String accountId = UUID.randomUUID().toString();
+        BankAccount account = new BankAccount(accountId, factory);
+        accountRepository.save(account);
+        operationRepository.save(account, operationWithId("op-1", "2025-01-01T09:00:00"));
+        operationRepository.save(account, operationWithId("op-3", "2025-01-02T09:00:00"));
+        operationRepository.save(account, operationWithId("op-2", "2025-01-02T09:00:00"));
+        operationRepository.save(account, operationWithId("op-4", "2025-01-03T09:00:00"));
+
+        // When
+        List<BankOperation> first = operationRepository.findLatestByAccountId(accountId, null, 2);
+        List<BankOperation> second = operationRepository.findLatestByAccountId(accountId, OperationCursor.after(first.get(1)), 2);
+        List<BankOperation> third = operationRepository.findLatestByAccountId(accountId, OperationCursor.after(second.get(1)), 2);
+
+        // Then
+        assertThat(first).extracting(BankOperation::id).containsExactly("op-4", "op-2");
+        assertThat(second).extracting(BankOperation::id).containsExactly("op-3", "op-1");
+        assertThat(third).isEmpty();
+    }
+
+    @Test
+    void shouldStreamOperationsOfThePeriodInChronologicalOrder() {
+        // Given
+        String accountId = UUID.randomUUID().toString();
+        BankAccount account = new BankAccount(accountId, factory);
+        accountRepository.save(account);
+        operationRepository.save(account, operationWithId("op-late", "2025-01-03T09:00:00"));
+        operationRepository.save(account, operationWithId("op-b", "2025-01-02T09:00:00"));
+        operationRepository.save(account, operationWithId("op-a", "2025-01-02T09:00:00"));
+        operationRepository.save(account, operationWithId("op-early", "2024-12-31T09:00:00"));
+        operationRepository.save(account, operationWithId("op-first", "2025-01-01T00:00:00"));
+
+        // When
+        List<BankOperation> streamed = new ArrayList<>();
+        operationRepository.forEachByAccountIdBetweenDates(accountId,
+                LocalDateTime.parse("2025-01-01T00:00:00"), LocalDateTime.parse("2025-01-02T23:59:59"), streamed::add);
+
+        // Then : à date égale, dans l'ordre d'enregistrement
+        assertThat(streamed).extracting(BankOperation::id).containsExactly("op-first", "op-b", "op-a");
+        assertThat(operationRepository.findAllByAccountIdBetweenDates(accountId,
+                LocalDateTime.parse("2025-01-01T00:00:00"), LocalDateTime.parse("2025-01-02T23:59:59")))
+                .extracting(BankOperation::id).containsExactly("op-first", "op-b", "op-a");
+    }
+
+    @Test
+    void shouldFingerprintThePeriodAndChangeItOnBackdatedOperation() {
+        // Given
+        String accountId = UUID.randomUUID().toString();
+        BankAccount account = new BankAccount(accountId, factory);
+        accountRepository.save(account);
+        operationRepository.save(account, operationWithId("op-b", "2025-01-02T09:00:00"));
+        operationRepository.save(account, operationWithId("op-c", "2025-01-03T09:00:00"));
+        operationRepository.save(account, operationWithId("op-out", "2025-02-01T09:00:00"));
+        LocalDateTime from = LocalDateTime.parse("2025-01-01T00:00:00");
+        LocalDateTime to = LocalDateTime.parse("2025-01-31T23:59:59");
+
+        // When
+        OperationRangeVersion before = operationRepository.findOperationRangeVersion(accountId, from, to);
+        operationRepository.save(account, operationWithId("op-a", "2025-01-01T09:00:00"));
+        OperationRangeVersion after = operationRepository.findOperationRangeVersion(accountId, from, to);
+
+        // Then : l'opération antidatée ne change ni la date la plus récente ni le plus grand identifiant
+        assertThat(before).isEqualTo(new OperationRangeVersion(2, LocalDateTime.parse("2025-01-03T09:00:00"), "op-c"));
+        assertThat(after).isEqualTo(new OperationRangeVersion(3, LocalDateTime.parse("2025-01-03T09:00:00"), "op-c"));
+        assertThat(operationRepository.findOperationRangeVersion(accountId, to.plusYears(1), to.plusYears(2)))
+                .isEqualTo(new OperationRangeVersion(0, null, null));
+    }
+
+    private static BankOperation operationWithId(String id, String timestamp) {
+        return new BankOperation(id, BankOperation.OperationType.DEPOSIT, new Money(BigDecimal.ONE), LocalDateTime.parse(timestamp));
+    }
+
+    private static BankOperation operationAt(BankOperation.OperationType type, int amount, String timestamp) {
+        return new BankOperation(UUID.randomUUID().toString(), type, new Money(BigDecimal.valueOf(amount)),
+                LocalDateTime.parse(timestamp));
+    }
+
+    @Test
+    void shouldRecordBalanceAfterAndSumBalanceAtDateInDatabase() {
+        // Given
+        String accountId = UUID.randomUUID().toString();
+        BankAccount account = new BankAccount(accountId, factory);
+        accountRepository.save(account);
+
+        // When : toutes les opérations partagent le même horodatage (horloge figée)
+        operationRepository.save(account, account.deposit(new Money(BigDecimal.valueOf(100))));
+        operationRepository.save(account, account.withdraw(new Money(BigDecimal.valueOf(30))));
+        BankOperation last = operationRepository.save(account, account.deposit(new Money(BigDecimal.valueOf(5))));
+
+        // Then
+        assertThat(last.balanceAfter()).isEqualByComparingTo("75");
+        assertThat(operationRepository.findBalanceAtDate(accountId, LocalDate.of(2025, 1, 1))).isEqualByComparingTo("75");
+        assertThat(operationRepository.findBalanceAtDate(accountId, LocalDate.of(2024, 12, 31))).isEqualByComparingTo("0");
+
+        // Une opération antidatée est prise en compte aux dates postérieures
+        operationRepository.save(account, operationAt(BankOperation.OperationType.WITHDRAWAL, 20, "2024-12-31T09:00:00"));
+        assertThat(operationRepository.findBalanceAtDate(accountId, LocalDate.of(2024, 12, 31))).isEqualByComparingTo("-20");
+        assertThat(operationRepository.findBalanceAtDate(accountId, LocalDate.of(2025, 1, 1))).isEqualByComparingTo("55");
+    }
+
     @Test
     void should_return_operations_between_dates() {
         // Given
@@ -144,5 +481,12 @@ class BankRepositoryIntegrationTest {
                 op.timestamp().isAfter(now.minusDays(15).minusSeconds(1)) &&
                         op.timestamp().isBefore(now.plusSeconds(1))
         );
+
+        OperationTotals totals = adapter.findTotalsBetweenDates(accountId, now.minusDays(15), now);
+        assertThat(totals.deposits().amount()).isEqualByComparingTo("500");
+        assertThat(totals.withdrawals().amount()).isEqualByComparingTo("200");
+        assertThat(totals.count()).isEqualTo(2);
+        assertThat(adapter.findTotalsBetweenDates(accountId, now.minusDays(3), now))
+                .isEqualTo(new OperationTotals(Money.zero(), Money.zero(), 0));
     }
 }
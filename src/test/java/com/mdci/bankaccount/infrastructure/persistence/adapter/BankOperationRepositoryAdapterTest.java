@@ -1,14 +1,21 @@
 package com.mdci.bankaccount.infrastructure.persistence.adapter;
 
 import com.mdci.bankaccount.domain.exception.AccountNotFoundException;
+import com.mdci.bankaccount.domain.exception.ConcurrentAccountUpdateException;
+import com.mdci.bankaccount.domain.exception.InsufficientBalanceException;
+import com.mdci.bankaccount.domain.model.AccountType;
 import com.mdci.bankaccount.domain.model.BankAccount;
 import com.mdci.bankaccount.domain.model.BankOperation;
 import com.mdci.bankaccount.domain.port.out.BankOperationFactory;
 import com.mdci.bankaccount.domain.model.Money;
+import com.mdci.bankaccount.domain.model.OperationTotals;
 import com.mdci.bankaccount.infrastructure.persistence.entity.BankAccountEntity;
 import com.mdci.bankaccount.infrastructure.persistence.entity.BankOperationEntity;
+import com.mdci.bankaccount.infrastructure.persistence.jpa.AccountBalanceView;
 import com.mdci.bankaccount.infrastructure.persistence.jpa.BankAccountJpaRepository;
 import com.mdci.bankaccount.infrastructure.persistence.jpa.BankOperationJpaRepository;
+import com.mdci.bankaccount.infrastructure.persistence.jpa.OperationTotalsView;
+import com.mdci.bankaccount.infrastructure.persistence.mapper.BankAccountEntityMapper;
 import com.mdci.bankaccount.infrastructure.persistence.mapper.BankOperationEntityMapper;
 import com.mdci.bankaccount.testutil.FakeBankOperationFactory;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,7 +24,6 @@ import org.junit.jupiter.api.Test;
 import java.math.BigDecimal;
 import java.time.*;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -63,7 +69,9 @@ class BankOperationRepositoryAdapterTest {
                 timestamp
         );
 
-        when(accountJpaRepository.findById(accountId)).thenReturn(Optional.of(fakeAccount));
+        when(accountJpaRepository.getReferenceById(accountId)).thenReturn(fakeAccount);
+        when(accountJpaRepository.creditBalance(accountId, BigDecimal.valueOf(200), null)).thenReturn(1);
+        when(accountJpaRepository.findBalanceViewById(accountId)).thenReturn(new AccountBalanceView(BigDecimal.valueOf(700), 3));
 
         BankOperationEntity savedEntity = new BankOperationEntity();
         savedEntity.setId(operationId);
@@ -83,7 +91,80 @@ class BankOperationRepositoryAdapterTest {
         assertEquals(new Money(BigDecimal.valueOf(200)), result.amount());
         assertEquals(BankOperation.OperationType.DEPOSIT, result.type());
 
-        verify(operationJpaRepository).save(any(BankOperationEntity.class));
+        verify(accountJpaRepository).creditBalance(accountId, BigDecimal.valueOf(200), null);
+        verify(accountJpaRepository, never()).findById(any());
+        verify(operationJpaRepository).save(argThat(entity ->
+                entity.getBalanceAfter().compareTo(BigDecimal.valueOf(700)) == 0 && entity.getSequenceNumber() == 3L));
+    }
+
+    @Test
+    void shouldRejectWithdrawalWhenConditionalDebitUpdatesNoRow() {
+        // Given
+        String accountId = "account-id";
+        BankAccount account = new BankAccount(accountId, factory);
+        BankOperation operation = new BankOperation(
+                "operationId",
+                BankOperation.OperationType.WITHDRAWAL,
+                new Money(BigDecimal.valueOf(100)),
+                LocalDateTime.of(2025, 1, 1, 11, 0)
+        );
+
+        when(accountJpaRepository.existsById(accountId)).thenReturn(true);
+        when(accountJpaRepository.debitBalance(accountId, BigDecimal.valueOf(100), null)).thenReturn(0);
+
+        // Then
+        assertThrows(InsufficientBalanceException.class, () -> adapter.save(account, operation));
+        verify(operationJpaRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldReportConflictWhenVersionChangedInOptimisticMode() {
+        // Given
+        BankOperationRepositoryAdapter optimisticAdapter =
+                new BankOperationRepositoryAdapter(operationJpaRepository, accountJpaRepository, mapper, true);
+        BankAccountEntity entity = new BankAccountEntity();
+        entity.setId("account-id");
+        entity.setBalance(BigDecimal.valueOf(500));
+        entity.setAccountType(AccountType.COMPTE_COURANT);
+        entity.setVersion(4L);
+        BankAccount account = new BankAccountEntityMapper()
+                .toDomainWithStoredBalance(entity, factory);
+        BankOperation operation = account.withdraw(new Money(BigDecimal.valueOf(100)));
+
+        when(accountJpaRepository.existsById("account-id")).thenReturn(true);
+        when(accountJpaRepository.debitBalance("account-id", BigDecimal.valueOf(100), 4L)).thenReturn(0);
+
+        // Then
+        assertThrows(ConcurrentAccountUpdateException.class, () -> optimisticAdapter.save(account, operation));
+        verify(operationJpaRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldSaveWithoutReadingTheAccountBackWhenVersionIsChecked() {
+        // Given
+        BankOperationRepositoryAdapter optimisticAdapter =
+                new BankOperationRepositoryAdapter(operationJpaRepository, accountJpaRepository, mapper, true);
+        BankAccountEntity entity = new BankAccountEntity();
+        entity.setId("account-id");
+        entity.setBalance(BigDecimal.valueOf(500));
+        entity.setAccountType(AccountType.COMPTE_COURANT);
+        entity.setVersion(4L);
+        entity.setOperationCount(6);
+        BankAccount account = new BankAccountEntityMapper()
+                .toDomainWithStoredBalance(entity, factory);
+        BankOperation operation = account.deposit(new Money(BigDecimal.valueOf(100)));
+
+        when(accountJpaRepository.creditBalance("account-id", BigDecimal.valueOf(100), 4L)).thenReturn(1);
+        when(accountJpaRepository.getReferenceById("account-id")).thenReturn(fakeAccount);
+        when(operationJpaRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        optimisticAdapter.save(account, operation);
+
+        // Then : solde et rang déduits de l'état chargé, sans relire la ligne
+        verify(accountJpaRepository, never()).findBalanceViewById(any());
+        verify(operationJpaRepository).save(argThat(saved ->
+                saved.getBalanceAfter().compareTo(BigDecimal.valueOf(600)) == 0 && saved.getSequenceNumber() == 7L));
     }
 
     @Test
@@ -99,7 +180,7 @@ class BankOperationRepositoryAdapterTest {
                 LocalDateTime.of(2025, 1, 1, 11, 0)
         );
 
-        when(accountJpaRepository.findById(accountId)).thenReturn(Optional.empty());
+        when(accountJpaRepository.existsById(accountId)).thenReturn(false);
 
         // Then
         assertThrows(AccountNotFoundException.class, () -> adapter.save(account, operation));
@@ -129,5 +210,38 @@ class BankOperationRepositoryAdapterTest {
         assertEquals(new Money(BigDecimal.valueOf(100)), operations.get(0).amount());
         assertEquals(BankOperation.OperationType.DEPOSIT, operations.get(0).type());
     }
-}
 
+    @Test
+    void shouldDelegateBalanceAtDateToDatabaseAggregate() {
+        // Given
+        String accountId = "acc-123";
+        when(operationJpaRepository.sumBalanceUntil(eq(accountId), any())).thenReturn(new BigDecimal("70.00"));
+
+        // When
+        BigDecimal balance = adapter.findBalanceAtDate(accountId, LocalDate.of(2025, 1, 10));
+
+        // Then
+        assertEquals(0, balance.compareTo(BigDecimal.valueOf(70)));
+        verify(operationJpaRepository).sumBalanceUntil(accountId, LocalDateTime.of(2025, 1, 10, 23, 59, 59, 999_999_000));
+        verify(operationJpaRepository, never()).findAllByAccountIdUntilDate(any(), any());
+    }
+
+    @Test
+    void shouldMapTotalsBetweenDates() {
+        // Given
+        String accountId = "acc-123";
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 1, 31, 23, 59);
+        when(operationJpaRepository.sumTotalsBetween(accountId, from, to))
+                .thenReturn(new OperationTotalsView(new BigDecimal("150.00"), new BigDecimal("30.50"), 3));
+
+        // When
+        OperationTotals totals = adapter.findTotalsBetweenDates(accountId, from, to);
+
+        // Then
+        assertEquals(new Money(new BigDecimal("150")), totals.deposits());
+        assertEquals(new Money(new BigDecimal("30.5")), totals.withdrawals());
+        assertEquals(3, totals.count());
+        verify(operationJpaRepository, never()).findByAccountIdAndTimestampBetween(any(), any(), any());
+    }
+}
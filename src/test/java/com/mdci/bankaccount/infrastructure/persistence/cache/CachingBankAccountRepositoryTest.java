@@ -0,0 +1,101 @@
+package com.mdci.bankaccount.infrastructure.persistence.cache;
+
+import com.mdci.bankaccount.domain.model.*;
+import com.mdci.bankaccount.domain.port.out.BankOperationFactory;
+import com.mdci.bankaccount.domain.port.out.IBankAccountRepository;
+import com.mdci.bankaccount.testutil.FakeBankOperationFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class CachingBankAccountRepositoryTest {
+
+    private static final String ACCOUNT_ID = "ACC-1";
+
+    private IBankAccountRepository delegate;
+    private SimpleMeterRegistry registry;
+    private CachingBankAccountRepository repository;
+    private BankOperationFactory operationFactory;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(IBankAccountRepository.class);
+        registry = new SimpleMeterRegistry();
+        operationFactory = new FakeBankOperationFactory(Clock.systemUTC());
+        repository = new CachingBankAccountRepository(delegate, operationFactory, 100, Duration.ofMinutes(10), registry);
+    }
+
+    @Test
+    void should_serve_metadata_from_memory_and_read_only_the_balance_on_a_hit() {
+        when(delegate.findByIdWithoutHistory(ACCOUNT_ID)).thenReturn(Optional.of(savingsAccount("100.00", 3L)));
+        when(delegate.findStoredBalanceById(ACCOUNT_ID))
+                .thenReturn(Optional.of(new StoredBalance(Money.of(new BigDecimal("250.00")), 7L)));
+
+        repository.findByIdWithoutHistory(ACCOUNT_ID);
+        BankAccount cached = repository.findByIdWithoutHistory(ACCOUNT_ID).orElseThrow();
+
+        verify(delegate, times(1)).findByIdWithoutHistory(ACCOUNT_ID);
+        assertThat(cached).isInstanceOf(SavingsAccount.class);
+        assertThat(((SavingsAccount) cached).getDepositCeiling()).isEqualTo(Money.of(BigDecimal.valueOf(22950)));
+        assertThat(cached.getBalance()).isEqualByComparingTo("250.00");
+        assertThat(cached.getVersion()).isEqualTo(7L);
+        assertThat(registry.get("cache.gets").tag("cache", "bank.account.metadata").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_invalidate_the_entry_when_the_account_is_saved() {
+        BankAccount account = savingsAccount("100.00", 3L);
+        when(delegate.findByIdWithoutHistory(ACCOUNT_ID)).thenReturn(Optional.of(account));
+        repository.findByIdWithoutHistory(ACCOUNT_ID);
+
+        repository.save(account);
+        repository.findByIdWithoutHistory(ACCOUNT_ID);
+
+        verify(delegate, times(2)).findByIdWithoutHistory(ACCOUNT_ID);
+        verify(delegate, never()).findStoredBalanceById(any());
+    }
+
+    @Test
+    void should_forget_an_account_whose_row_has_disappeared() {
+        when(delegate.findByIdWithoutHistory(ACCOUNT_ID)).thenReturn(Optional.of(savingsAccount("100.00", 3L)));
+        when(delegate.findStoredBalanceById(ACCOUNT_ID)).thenReturn(Optional.empty());
+        repository.findByIdWithoutHistory(ACCOUNT_ID);
+
+        assertThat(repository.findByIdWithoutHistory(ACCOUNT_ID)).isEmpty();
+        assertThat(repository.existsById(ACCOUNT_ID)).isFalse();
+    }
+
+    @Test
+    void should_answer_existence_from_memory_for_a_known_account() {
+        when(delegate.findByIdWithoutHistory(ACCOUNT_ID)).thenReturn(Optional.of(savingsAccount("100.00", 3L)));
+        repository.findByIdWithoutHistory(ACCOUNT_ID);
+
+        assertThat(repository.existsById(ACCOUNT_ID)).isTrue();
+        verify(delegate, never()).existsById(any());
+    }
+
+    @Test
+    void should_always_lock_through_the_delegate() {
+        when(delegate.findByIdWithoutHistory(ACCOUNT_ID)).thenReturn(Optional.of(savingsAccount("100.00", 3L)));
+        when(delegate.findByIdForUpdate(ACCOUNT_ID)).thenReturn(Optional.of(savingsAccount("100.00", 3L)));
+        repository.findByIdWithoutHistory(ACCOUNT_ID);
+
+        repository.findByIdForUpdate(ACCOUNT_ID);
+
+        verify(delegate).findByIdForUpdate(ACCOUNT_ID);
+    }
+
+    private BankAccount savingsAccount(String balance, Long version) {
+        return BankAccountFactory.rehydrateWithBalanceOnly(ACCOUNT_ID, operationFactory, Money.of(new BigDecimal(balance)),
+                Money.zero(), AccountType.LIVRET, BankAccountFactory.DEPOSIT_CEILING, version);
+    }
+}
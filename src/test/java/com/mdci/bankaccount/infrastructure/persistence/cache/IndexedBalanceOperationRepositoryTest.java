@@ -0,0 +1,121 @@
+package com.mdci.bankaccount.infrastructure.persistence.cache;
+
+import com.mdci.bankaccount.domain.model.BankAccount;
+import com.mdci.bankaccount.domain.model.BankOperation;
+import com.mdci.bankaccount.domain.model.Money;
+import com.mdci.bankaccount.domain.port.out.IBankOperationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class IndexedBalanceOperationRepositoryTest {
+
+    private static final String ACCOUNT_ID = "ACC-1";
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 10);
+
+    private IBankOperationRepository delegate;
+    private IndexedBalanceOperationRepository repository;
+    private BankAccount account;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(IBankOperationRepository.class);
+        account = mock(BankAccount.class);
+        when(account.getId()).thenReturn(ACCOUNT_ID);
+        repository = new IndexedBalanceOperationRepository(delegate, 1_000, 2, Duration.ofMinutes(10), new SimpleMeterRegistry());
+        when(delegate.findAllByAccountId(ACCOUNT_ID)).thenReturn(List.of(
+                deposit("100", "2025-01-01T10:00:00"),
+                withdrawal("30", "2025-01-05T10:00:00")
+        ));
+    }
+
+    @Test
+    void should_serve_cold_accounts_from_the_database_then_index_them() {
+        when(delegate.findBalanceAtDate(ACCOUNT_ID, DAY)).thenReturn(new BigDecimal("70.00"));
+
+        assertThat(repository.findBalanceAtDate(ACCOUNT_ID, DAY)).isEqualByComparingTo("70");
+        assertThat(repository.findBalanceAtDate(ACCOUNT_ID, DAY)).isEqualByComparingTo("70");
+        assertThat(repository.findBalanceAt(ACCOUNT_ID, LocalDateTime.parse("2025-01-05T09:59:59"))).isEqualByComparingTo("100");
+        assertThat(repository.findBalanceAtDate(ACCOUNT_ID, LocalDate.of(2024, 12, 31))).isEqualByComparingTo("0");
+
+        verify(delegate, times(1)).findBalanceAtDate(any(), any());
+        verify(delegate, times(1)).findAllByAccountId(ACCOUNT_ID);
+        verify(delegate, never()).findBalanceAt(any(), any());
+    }
+
+    @Test
+    void should_extend_the_index_with_later_operations_and_rebuild_it_after_a_backdated_one() {
+        indexAccount();
+        BankOperation later = deposit("20", "2025-01-08T10:00:00");
+        when(delegate.save(account, later)).thenReturn(later);
+
+        repository.save(account, later);
+
+        assertThat(repository.findBalanceAtDate(ACCOUNT_ID, DAY)).isEqualByComparingTo("90");
+        verify(delegate, times(1)).findAllByAccountId(ACCOUNT_ID);
+
+        BankOperation backdated = deposit("5", "2025-01-02T10:00:00");
+        when(delegate.saveAll(account, List.of(backdated))).thenReturn(List.of(backdated));
+        repository.saveAll(account, List.of(backdated));
+        repository.findBalanceAtDate(ACCOUNT_ID, DAY);
+        repository.findBalanceAtDate(ACCOUNT_ID, DAY);
+
+        verify(delegate, times(2)).findAllByAccountId(ACCOUNT_ID);
+    }
+
+    @Test
+    void should_extend_the_index_only_once_the_transaction_is_committed() {
+        indexAccount();
+        BankOperation later = deposit("20", "2025-01-08T10:00:00");
+        when(delegate.save(account, later)).thenReturn(later);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            repository.save(account, later);
+            assertThat(repository.findBalanceAtDate(ACCOUNT_ID, DAY)).isEqualByComparingTo("70");
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(repository.findBalanceAtDate(ACCOUNT_ID, DAY)).isEqualByComparingTo("90");
+    }
+
+    private void indexAccount() {
+        repository.findBalanceAtDate(ACCOUNT_ID, DAY);
+        repository.findBalanceAtDate(ACCOUNT_ID, DAY);
+    }
+
+    @Test
+    void should_close_the_repository_it_decorates() throws Exception {
+        IBankOperationRepository closeable = mock(IBankOperationRepository.class, withSettings().extraInterfaces(AutoCloseable.class));
+
+        new IndexedBalanceOperationRepository(closeable, 1_000, 2, Duration.ofMinutes(10), new SimpleMeterRegistry()).close();
+
+        verify((AutoCloseable) closeable).close();
+    }
+
+    private static BankOperation deposit(String amount, String timestamp) {
+        return new BankOperation(UUID.randomUUID().toString(), BankOperation.OperationType.DEPOSIT,
+                Money.of(new BigDecimal(amount)), LocalDateTime.parse(timestamp));
+    }
+
+    private static BankOperation withdrawal(String amount, String timestamp) {
+        return new BankOperation(UUID.randomUUID().toString(), BankOperation.OperationType.WITHDRAWAL,
+                Money.of(new BigDecimal(amount)), LocalDateTime.parse(timestamp));
+    }
+}
@@ -0,0 +1,100 @@
+package com.mdci.bankaccount.infrastructure.persistence.cache;
+
+import com.mdci.bankaccount.domain.model.BankAccount;
+import com.mdci.bankaccount.domain.model.BankOperation;
+import com.mdci.bankaccount.domain.model.Money;
+import com.mdci.bankaccount.domain.port.out.IBankOperationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class PastBalanceCachingOperationRepositoryTest {
+
+    private static final String ACCOUNT_ID = "ACC-1";
+    private static final LocalDate JANUARY_END = LocalDate.of(2025, 1, 31);
+    private static final LocalDate FEBRUARY_END = LocalDate.of(2025, 2, 28);
+
+    private IBankOperationRepository delegate;
+    private SimpleMeterRegistry registry;
+    private PastBalanceCachingOperationRepository repository;
+    private BankAccount account;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(IBankOperationRepository.class);
+        registry = new SimpleMeterRegistry();
+        Clock clock = Clock.fixed(Instant.parse("2025-03-15T12:00:00Z"), ZoneOffset.UTC);
+        repository = new PastBalanceCachingOperationRepository(delegate, clock, 100, Duration.ofHours(1), registry);
+        account = mock(BankAccount.class);
+        when(account.getId()).thenReturn(ACCOUNT_ID);
+        when(delegate.findBalanceAtDate(ACCOUNT_ID, JANUARY_END)).thenReturn(new BigDecimal("100.00"));
+        when(delegate.findBalanceAtDate(ACCOUNT_ID, FEBRUARY_END)).thenReturn(new BigDecimal("150.00"));
+    }
+
+    @Test
+    void should_serve_repeated_past_dates_from_memory_and_expose_the_hit_ratio() {
+        repository.findBalanceAtDate(ACCOUNT_ID, JANUARY_END);
+        repository.findBalanceAtDate(ACCOUNT_ID, JANUARY_END);
+        repository.findBalanceAtDate(ACCOUNT_ID, JANUARY_END);
+        assertThat(repository.findBalanceAtDate(ACCOUNT_ID, JANUARY_END)).isEqualByComparingTo("100");
+
+        verify(delegate, times(1)).findBalanceAtDate(ACCOUNT_ID, JANUARY_END);
+        assertThat(registry.get("bank.balance.past.cache").tag("result", "hit").counter().count()).isEqualTo(3);
+        assertThat(registry.get("bank.balance.past.cache.hit.ratio").gauge().value()).isEqualTo(0.75);
+    }
+
+    @Test
+    void should_never_cache_today_or_future_dates() {
+        LocalDate today = LocalDate.of(2025, 3, 15);
+
+        repository.findBalanceAtDate(ACCOUNT_ID, today);
+        repository.findBalanceAtDate(ACCOUNT_ID, today);
+
+        verify(delegate, times(2)).findBalanceAtDate(ACCOUNT_ID, today);
+    }
+
+    @Test
+    void should_drop_only_dates_at_or_after_a_backdated_operation() {
+        repository.findBalanceAtDate(ACCOUNT_ID, JANUARY_END);
+        repository.findBalanceAtDate(ACCOUNT_ID, FEBRUARY_END);
+        BankOperation backdated = operationAt("2025-02-10T09:00:00");
+        when(delegate.save(account, backdated)).thenReturn(backdated);
+
+        repository.save(account, backdated);
+        repository.findBalanceAtDate(ACCOUNT_ID, JANUARY_END);
+        repository.findBalanceAtDate(ACCOUNT_ID, FEBRUARY_END);
+
+        verify(delegate, times(1)).findBalanceAtDate(ACCOUNT_ID, JANUARY_END);
+        verify(delegate, times(2)).findBalanceAtDate(ACCOUNT_ID, FEBRUARY_END);
+    }
+
+    @Test
+    void should_keep_past_dates_when_operations_are_dated_today() {
+        repository.findBalanceAtDate(ACCOUNT_ID, FEBRUARY_END);
+        List<BankOperation> batch = List.of(operationAt("2025-03-15T10:00:00"), operationAt("2025-03-15T11:00:00"));
+        when(delegate.saveAll(account, batch)).thenReturn(batch);
+
+        repository.saveAll(account, batch);
+        repository.findBalanceAtDate(ACCOUNT_ID, FEBRUARY_END);
+
+        verify(delegate, times(1)).findBalanceAtDate(ACCOUNT_ID, FEBRUARY_END);
+    }
+
+    private static BankOperation operationAt(String timestamp) {
+        return new BankOperation(UUID.randomUUID().toString(), BankOperation.OperationType.DEPOSIT,
+                Money.of(BigDecimal.TEN), LocalDateTime.parse(timestamp));
+    }
+}
@@ -0,0 +1,110 @@
+package com.mdci.bankaccount.infrastructure.persistence.groupcommit;
+
+import com.mdci.bankaccount.domain.exception.InsufficientBalanceException;
+import com.mdci.bankaccount.domain.model.BankAccount;
+import com.mdci.bankaccount.domain.model.BankOperation;
+import com.mdci.bankaccount.domain.model.Money;
+import com.mdci.bankaccount.domain.port.out.BankOperationFactory;
+import com.mdci.bankaccount.domain.port.out.IBankOperationRepository;
+import com.mdci.bankaccount.testutil.FakeBankOperationFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class GroupCommitOperationRepositoryTest {
+
+    private IBankOperationRepository delegate;
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry registry;
+    private GroupCommitOperationRepository repository;
+    private BankOperationFactory operationFactory;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(IBankOperationRepository.class);
+        when(delegate.save(any(), any())).thenAnswer(invocation -> invocation.getArgument(1));
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        registry = new SimpleMeterRegistry();
+        operationFactory = new FakeBankOperationFactory(Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC));
+        repository = new GroupCommitOperationRepository(delegate, transactionManager, Duration.ofMillis(50), 8, 100, registry);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        repository.close();
+    }
+
+    @Test
+    void should_commit_concurrent_writes_together() throws Exception {
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<BankOperation>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                BankAccount account = new BankAccount("ACC-" + i, operationFactory);
+                BankOperation deposit = account.deposit(new Money(BigDecimal.TEN));
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return repository.save(account, deposit);
+                }));
+            }
+            start.countDown();
+            for (Future<BankOperation> future : futures) {
+                assertThat(future.get(5, TimeUnit.SECONDS)).isNotNull();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(delegate, times(callers)).save(any(), any());
+        double batches = registry.get("bank.operation.group.commit.batch.size").summary().count();
+        assertThat(batches).isLessThan(callers);
+        verify(transactionManager, times((int) batches)).commit(any());
+        assertThat(registry.get("bank.operation.group.commit.latency").timer().count()).isEqualTo((long) batches);
+    }
+
+    @Test
+    void should_report_a_rejection_only_to_its_caller() {
+        BankAccount account = new BankAccount("ACC-1", operationFactory);
+        BankOperation deposit = account.deposit(new Money(BigDecimal.ONE));
+        when(delegate.save(any(), eq(deposit))).thenThrow(new InsufficientBalanceException("Solde insuffisant."));
+
+        assertThatThrownBy(() -> repository.save(account, deposit)).isInstanceOf(InsufficientBalanceException.class);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void should_delegate_directly_inside_an_existing_transaction() {
+        BankAccount account = new BankAccount("ACC-1", operationFactory);
+        BankOperation deposit = account.deposit(new Money(BigDecimal.ONE));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThat(repository.save(account, deposit)).isEqualTo(deposit);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        verify(delegate).save(account, deposit);
+        verifyNoInteractions(transactionManager);
+    }
+}
@@ -0,0 +1,174 @@
+package com.mdci.bankaccount.infrastructure.rest.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StatementDocumentStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void should_write_through_to_the_response_and_keep_the_completed_document() throws IOException {
+        StatementDocumentStore store = newStore(1024);
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+
+        store(store, "\"doc-a\"", "contenu", response);
+
+        assertThat(response.toString()).isEqualTo("contenu");
+        StatementDocumentStore.StoredDocument stored = store.find("\"doc-a\"");
+        assertThat(stored.size()).isEqualTo(7);
+        ByteArrayOutputStream served = new ByteArrayOutputStream();
+        StatementDocumentStore.transferTo(stored.file(), served);
+        assertThat(served.toString()).isEqualTo("contenu");
+        // Aucun fichier temporaire ne reste après l'écriture
+        try (var files = Files.list(directory)) {
+            assertThat(files).extracting(file -> file.getFileName().toString()).containsExactly("doc-a.pdf");
+        }
+    }
+
+    @Test
+    void should_discard_a_document_that_was_not_completed() throws IOException {
+        StatementDocumentStore store = newStore(1024);
+
+        try (StatementDocumentStore.Capture capture = store.capture("\"doc-a\"", OutputStream.nullOutputStream())) {
+            capture.write("début".getBytes());
+        }
+
+        assertThat(store.find("\"doc-a\"")).isNull();
+        try (var files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void should_remove_least_recently_served_documents_beyond_the_maximum_size() throws IOException {
+        StatementDocumentStore store = newStore(20);
+        store(store, "a", "0123456789", OutputStream.nullOutputStream());
+        store(store, "b", "0123456789", OutputStream.nullOutputStream());
+        store.find("a");
+
+        store(store, "c", "0123456789", OutputStream.nullOutputStream());
+
+        assertThat(store.find("a")).isNotNull();
+        assertThat(store.find("b")).isNull();
+        assertThat(store.find("c")).isNotNull();
+        assertThat(directory.resolve("b.pdf")).doesNotExist();
+        assertThat(store.totalBytes()).isEqualTo(20);
+    }
+
+    @Test
+    void should_delete_an_evicted_document_only_after_the_eviction_delay() throws IOException {
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        StatementDocumentStore store = new StatementDocumentStore(directory, 10, Duration.ofMinutes(1), clock,
+                new SimpleMeterRegistry());
+        store(store, "a", "0123456789", OutputStream.nullOutputStream());
+        StatementDocumentStore.StoredDocument found = store.find("a");
+
+        // Retiré pendant que son envoi n'a pas encore ouvert le fichier
+        store(store, "b", "0123456789", OutputStream.nullOutputStream());
+
+        assertThat(store.find("a")).isNull();
+        ByteArrayOutputStream served = new ByteArrayOutputStream();
+        StatementDocumentStore.transferTo(found.file(), served);
+        assertThat(served.toString()).isEqualTo("0123456789");
+        assertThat(store.occupiedBytes()).isEqualTo(20);
+
+        when(clock.millis()).thenReturn(Duration.ofMinutes(1).toMillis());
+        store.find("b");
+
+        assertThat(found.file()).doesNotExist();
+        assertThat(store.occupiedBytes()).isEqualTo(10);
+    }
+
+    @Test
+    void should_cancel_the_deletion_of_a_document_stored_again() throws IOException {
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        StatementDocumentStore store = new StatementDocumentStore(directory, 10, Duration.ofMinutes(1), clock,
+                new SimpleMeterRegistry());
+        store(store, "a", "0123456789", OutputStream.nullOutputStream());
+        store(store, "b", "0123456789", OutputStream.nullOutputStream());
+
+        store(store, "a", "0123456789", OutputStream.nullOutputStream());
+        when(clock.millis()).thenReturn(Duration.ofMinutes(1).toMillis());
+
+        assertThat(store.find("a")).isNotNull();
+        assertThat(directory.resolve("a.pdf")).exists();
+        assertThat(directory.resolve("b.pdf")).doesNotExist();
+    }
+
+    @Test
+    void should_not_keep_a_document_larger_than_the_store() throws IOException {
+        StatementDocumentStore store = newStore(5);
+
+        store(store, "a", "0123456789", OutputStream.nullOutputStream());
+
+        assertThat(store.find("a")).isNull();
+        assertThat(directory.resolve("a.pdf")).doesNotExist();
+    }
+
+    @Test
+    void should_recover_documents_in_usage_order_and_drop_interrupted_writes_on_startup() throws IOException {
+        Files.writeString(directory.resolve("old.pdf"), "0123456789");
+        Files.writeString(directory.resolve("recent.pdf"), "0123456789");
+        Files.setLastModifiedTime(directory.resolve("old.pdf"), FileTime.fromMillis(1_000));
+        Files.setLastModifiedTime(directory.resolve("recent.pdf"), FileTime.fromMillis(2_000));
+        Files.writeString(directory.resolve("crashed12345.tmp"), "partiel");
+
+        StatementDocumentStore store = newStore(20);
+        store(store, "new", "0123456789", OutputStream.nullOutputStream());
+
+        assertThat(directory.resolve("crashed12345.tmp")).doesNotExist();
+        assertThat(store.find("old")).isNull();
+        assertThat(store.find("recent")).isNotNull();
+        assertThat(store.find("new")).isNotNull();
+    }
+
+    @Test
+    void should_refuse_keys_that_are_not_etags() {
+        StatementDocumentStore store = newStore(1024);
+
+        assertThatThrownBy(() -> store.find("\"../secret\"")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void disabled_store_should_keep_nothing() throws IOException {
+        StatementDocumentStore store = StatementDocumentStore.disabled();
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+
+        store(store, "a", "contenu", response);
+
+        assertThat(store.isEnabled()).isFalse();
+        assertThat(response.toString()).isEqualTo("contenu");
+        assertThat(store.find("a")).isNull();
+    }
+
+    private StatementDocumentStore newStore(long maximumBytes) {
+        return new StatementDocumentStore(directory, maximumBytes, Duration.ZERO, Clock.systemUTC(), new SimpleMeterRegistry());
+    }
+
+    private static void store(StatementDocumentStore store, String etag, String content, OutputStream response)
+            throws IOException {
+        try (StatementDocumentStore.Capture capture = store.capture(etag, response)) {
+            capture.write(content.getBytes());
+            capture.complete();
+        }
+    }
+}
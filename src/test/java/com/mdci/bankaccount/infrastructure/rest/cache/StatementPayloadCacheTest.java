@@ -0,0 +1,104 @@
+package com.mdci.bankaccount.infrastructure.rest.cache;
+
+import com.mdci.bankaccount.domain.model.OperationRangeVersion;
+import com.mdci.bankaccount.domain.model.StatementVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementPayloadCacheTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2025, 1, 31, 23, 59);
+
+    private final StatementPayloadCache cache =
+            new StatementPayloadCache(1024, 100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+
+    @Test
+    void etag_should_depend_on_every_part_of_the_version_and_on_the_format() {
+        StatementVersion version = version("100.00", 3, "op-3");
+
+        String etag = StatementPayloadCache.etagOf(version, "pdf");
+
+        assertThat(etag).startsWith("\"").endsWith("\"");
+        assertThat(StatementPayloadCache.etagOf(version("100.00", 3, "op-3"), "pdf")).isEqualTo(etag);
+        // Même solde à une autre échelle : même relevé
+        assertThat(StatementPayloadCache.etagOf(version("100.0", 3, "op-3"), "pdf")).isEqualTo(etag);
+        assertThat(StatementPayloadCache.etagOf(version, "json")).isNotEqualTo(etag);
+        assertThat(StatementPayloadCache.etagOf(version("100.00", 4, "op-3"), "pdf")).isNotEqualTo(etag);
+        assertThat(StatementPayloadCache.etagOf(version("100.00", 3, "op-4"), "pdf")).isNotEqualTo(etag);
+        assertThat(StatementPayloadCache.etagOf(version("90.00", 3, "op-3"), "pdf")).isNotEqualTo(etag);
+    }
+
+    @Test
+    void only_the_json_etag_should_depend_on_the_current_balance() {
+        StatementVersion closed = version("150.00", "100.00");
+
+        // Le PDF n'affiche que le solde de fin de période
+        assertThat(StatementPayloadCache.etagOf(closed, "pdf"))
+                .isEqualTo(StatementPayloadCache.etagOf(version("100.00", 3, "op-3"), "pdf"));
+        assertThat(StatementPayloadCache.etagOf(closed, "json"))
+                .isNotEqualTo(StatementPayloadCache.etagOf(version("100.00", 3, "op-3"), "json"));
+    }
+
+    @Test
+    void should_keep_completed_captures_only() throws IOException {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        StatementPayloadCache.Capture completed = cache.capture("\"a\"", response);
+        completed.write("hello".getBytes());
+        completed.complete();
+
+        StatementPayloadCache.Capture interrupted = cache.capture("\"b\"", OutputStream.nullOutputStream());
+        interrupted.write("partial".getBytes());
+
+        assertThat(response.toByteArray()).isEqualTo("hello".getBytes());
+        assertThat(cache.get("\"a\"")).isEqualTo("hello".getBytes());
+        assertThat(cache.get("\"b\"")).isNull();
+    }
+
+    @Test
+    void should_still_write_but_not_keep_documents_larger_than_an_entry() throws IOException {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        StatementPayloadCache.Capture capture = cache.capture("\"big\"", response);
+        capture.write(new byte[60]);
+        capture.write(new byte[60]);
+        capture.complete();
+        cache.put("\"direct\"", new byte[101]);
+
+        assertThat(response.size()).isEqualTo(120);
+        assertThat(cache.get("\"big\"")).isNull();
+        assertThat(cache.get("\"direct\"")).isNull();
+    }
+
+    @Test
+    void disabled_cache_should_keep_nothing() throws IOException {
+        StatementPayloadCache disabled = StatementPayloadCache.disabled();
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        StatementPayloadCache.Capture capture = disabled.capture("\"a\"", response);
+        capture.write("hello".getBytes());
+        capture.complete();
+        disabled.put("\"b\"", "hello".getBytes());
+
+        assertThat(response.toByteArray()).isEqualTo("hello".getBytes());
+        assertThat(disabled.get("\"a\"")).isNull();
+        assertThat(disabled.get("\"b\"")).isNull();
+    }
+
+    private static StatementVersion version(String currentBalance, String closingBalance) {
+        return new StatementVersion("ACC-1", FROM, TO, true, new BigDecimal(currentBalance), new BigDecimal(closingBalance),
+                new OperationRangeVersion(3, TO.minusDays(1), "op-3"));
+    }
+
+    private static StatementVersion version(String balance, long count, String maxOperationId) {
+        return new StatementVersion("ACC-1", FROM, TO, true, new BigDecimal(balance), new BigDecimal(balance),
+                new OperationRangeVersion(count, TO.minusDays(1), maxOperationId));
+    }
+}
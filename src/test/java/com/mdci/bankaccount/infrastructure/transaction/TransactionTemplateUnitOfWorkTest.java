@@ -0,0 +1,68 @@
+package com.mdci.bankaccount.infrastructure.transaction;
+
+import com.mdci.bankaccount.application.port.out.UnitOfWork.UseCase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Isolation;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TransactionTemplateUnitOfWorkTest {
+
+    private PlatformTransactionManager transactionManager;
+    private TransactionStatus status;
+    private TransactionTemplateUnitOfWork unitOfWork;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        status = mock(TransactionStatus.class);
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        unitOfWork = new TransactionTemplateUnitOfWork(transactionManager, Map.of(UseCase.WITHDRAW, Isolation.SERIALIZABLE));
+    }
+
+    @Test
+    void should_open_a_read_write_transaction_with_the_configured_isolation() {
+        String result = unitOfWork.execute(UseCase.WITHDRAW, () -> "ok");
+
+        assertThat(result).isEqualTo("ok");
+        TransactionDefinition definition = capturedDefinition();
+        assertThat(definition.isReadOnly()).isFalse();
+        assertThat(definition.getIsolationLevel()).isEqualTo(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        verify(transactionManager).commit(status);
+    }
+
+    @Test
+    void should_open_a_read_only_transaction_for_reads() {
+        unitOfWork.execute(UseCase.STATEMENT, () -> null);
+
+        TransactionDefinition definition = capturedDefinition();
+        assertThat(definition.isReadOnly()).isTrue();
+        assertThat(definition.getIsolationLevel()).isEqualTo(TransactionDefinition.ISOLATION_DEFAULT);
+    }
+
+    @Test
+    void should_roll_back_when_the_work_fails() {
+        assertThatThrownBy(() -> unitOfWork.execute(UseCase.DEPOSIT, () -> {
+            throw new IllegalStateException("échec");
+        })).isInstanceOf(IllegalStateException.class);
+
+        verify(transactionManager).rollback(status);
+        verify(transactionManager, never()).commit(any());
+    }
+
+    private TransactionDefinition capturedDefinition() {
+        ArgumentCaptor<TransactionDefinition> captor = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -16,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -26,9 +27,12 @@ import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -119,5 +123,95 @@ class BankAccountIntegrationTest {
                                 """))
                 .andExpect(status().isBadRequest());
     }
-}
 
+    @Test
+    void should_stream_balances_of_all_or_selected_accounts_at_date() throws Exception {
+        String funded = createAccount("250");
+        createAccount("0");
+
+        // Dépôt initial daté du 01/03/2025 (horloge de test)
+        MvcResult all = mockMvc.perform(get("/api/account/balances").param("date", "2025-03-01"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        JsonNode balances = objectMapper.readTree(mockMvc.perform(asyncDispatch(all))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertThat(balances).hasSize(2);
+        for (JsonNode balance : balances) {
+            String expected = balance.get("accountId").asText().equals(funded) ? "250.00" : "0.00";
+            assertThat(balance.get("balance").decimalValue()).isEqualByComparingTo(expected);
+        }
+
+        MvcResult selected = mockMvc.perform(get("/api/account/balances")
+                        .param("date", "2025-02-28")
+                        .param("ids", funded, "unknown"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(selected))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].accountId", is(funded)))
+                .andExpect(jsonPath("$[0].balance", is(0.0)));
+
+        mockMvc.perform(get("/api/account/balances").param("date", "31/03/2025"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void should_page_through_operations_with_an_opaque_cursor() throws Exception {
+        String id = createAccount("100");
+        for (int i = 1; i <= 2; i++) {
+            mockMvc.perform(post("/api/operations/" + id + "/deposit")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"amount\": " + i + "}"))
+                    .andExpect(status().isOk());
+        }
+
+        String firstPage = mockMvc.perform(get("/api/account/" + id + "/operations").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.operations.length()", is(2)))
+                .andExpect(jsonPath("$.nextCursor").isString())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/account/" + id + "/operations").param("limit", "2").param("after", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.operations.length()", is(1)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/api/account/" + id + "/operations").param("after", "%%%"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/account/" + id + "/operations").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/account/unknown/operations"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void statement_of_the_default_period_should_be_revalidated() throws Exception {
+        String id = createAccount("100");
+
+        String etag = mockMvc.perform(get("/api/account/" + id + "/statement"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.currentBalance", is(100.0)))
+                .andExpect(jsonPath("$.closingBalance", is(100.0)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+
+        // Sans bornes, la période par défaut est la même d'une requête à l'autre : l'ETag aussi
+        mockMvc.perform(get("/api/account/" + id + "/statement").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    private String createAccount(String initialBalance) throws Exception {
+        CreateAccountRequestDTO request = CreateAccountRequestDTO.of(new BigDecimal(initialBalance), BigDecimal.ZERO);
+        return objectMapper.readTree(
+                mockMvc.perform(post("/api/account")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString()
+        ).get("id").asText();
+    }
+}
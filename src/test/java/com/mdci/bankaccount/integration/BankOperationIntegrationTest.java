@@ -3,6 +3,10 @@ package com.mdci.bankaccount.integration;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mdci.bankaccount.application.dto.BankOperationRequestDTO;
+import com.mdci.bankaccount.application.dto.BatchOperationItemDTO;
+import com.mdci.bankaccount.application.dto.BatchOperationRequestDTO;
+import com.mdci.bankaccount.domain.model.BankOperation;
+import com.mdci.bankaccount.domain.model.BatchMode;
 import com.mdci.bankaccount.application.dto.CreateAccountRequestDTO;
 import com.mdci.bankaccount.integration.util.DatabaseCleanup;
 import com.mdci.bankaccount.integration.util.TestBankOperationFactoryConfig;
@@ -18,7 +22,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
@@ -211,5 +217,136 @@ class BankOperationIntegrationTest {
                 .andExpect(content().string(containsString("La date fournie est invalide. Format attendu : yyyy-MM-dd (LocalDate).")));
     }
 
+    @Test
+    void shouldApplyBatchOfOperationsAcrossAccounts() throws Exception {
+        String first = createAccount();
+        String second = createAccount();
+        BatchOperationRequestDTO request = new BatchOperationRequestDTO(BatchMode.ATOMIC, List.of(
+                new BatchOperationItemDTO(first, BankOperation.OperationType.DEPOSIT, BigDecimal.valueOf(300)),
+                new BatchOperationItemDTO(second, BankOperation.OperationType.DEPOSIT, BigDecimal.valueOf(40)),
+                new BatchOperationItemDTO(first, BankOperation.OperationType.WITHDRAWAL, BigDecimal.valueOf(120))
+        ));
+
+        mockMvc.perform(post("/api/operations/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied", is(3)))
+                .andExpect(jsonPath("$.results[2].status", is("APPLIED")))
+                .andExpect(jsonPath("$.results[2].balanceAfter", is(180.0)));
+
+        mockMvc.perform(get("/api/account/" + first))
+                .andExpect(jsonPath("$.balance", is(180.0)));
+        mockMvc.perform(get("/api/account/" + second))
+                .andExpect(jsonPath("$.balance", is(40.0)));
+    }
+
+    @Test
+    void shouldNotApplyAnyLineOfAtomicBatchWhenOneIsRejected() throws Exception {
+        String id = createAccount();
+        BatchOperationRequestDTO request = new BatchOperationRequestDTO(null, List.of(
+                new BatchOperationItemDTO(id, BankOperation.OperationType.DEPOSIT, BigDecimal.valueOf(100)),
+                new BatchOperationItemDTO(id, BankOperation.OperationType.WITHDRAWAL, BigDecimal.valueOf(150))
+        ));
+
+        mockMvc.perform(post("/api/operations/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.mode", is("ATOMIC")))
+                .andExpect(jsonPath("$.applied", is(0)))
+                .andExpect(jsonPath("$.results[0].status", is("CANCELLED")))
+                .andExpect(jsonPath("$.results[1].status", is("REJECTED")));
+
+        mockMvc.perform(get("/api/account/" + id))
+                .andExpect(jsonPath("$.balance", is(0.0)));
+    }
+
+    @Test
+    void shouldReturn400IfBatchIsEmpty() throws Exception {
+        mockMvc.perform(post("/api/operations/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\": []}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Le lot doit contenir au moins une opération")));
+    }
+
+    @Test
+    void shouldReturnBalanceAtInstantBeforeAndAfterOperations() throws Exception {
+        String id = createAccount();
+        mockMvc.perform(post("/api/operations/" + id + "/deposit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BankOperationRequestDTO(BigDecimal.valueOf(120)))))
+                .andExpect(status().isOk());
+
+        // Consultations répétées : le compte passe de la base à l'index en mémoire
+        for (int i = 0; i < 4; i++) {
+            mockMvc.perform(get("/api/operations/" + id + "/balance-at").param("at", "2000-01-01T00:00:00"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("0.00"));
+            mockMvc.perform(get("/api/operations/" + id + "/balance-at").param("at", LocalDateTime.now().plusMinutes(1).toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("120.00"));
+        }
+        mockMvc.perform(get("/api/operations/" + id + "/balance-at").param("at", "not-a-date"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Format attendu : yyyy-MM-dd'T'HH:mm:ss")));
+    }
+
+    @Test
+    void shouldReturnBalanceSeriesAndDownsampleLongRanges() throws Exception {
+        String id = createAccount();
+        mockMvc.perform(post("/api/operations/" + id + "/deposit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BankOperationRequestDTO(BigDecimal.valueOf(120)))))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/operations/" + id + "/withdraw")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BankOperationRequestDTO(BigDecimal.valueOf(20)))))
+                .andExpect(status().isOk());
+
+        // Opérations datées du 01/03/2025 (horloge de test)
+        mockMvc.perform(get("/api/operations/" + id + "/balances")
+                        .param("from", "2025-02-27")
+                        .param("to", "2025-03-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity", is("DAY")))
+                .andExpect(jsonPath("$.downsampled", is(false)))
+                .andExpect(jsonPath("$.points.length()", is(4)))
+                .andExpect(jsonPath("$.points[1].date", is("2025-02-28")))
+                .andExpect(jsonPath("$.points[1].balance", is(0.0)))
+                .andExpect(jsonPath("$.points[2].date", is("2025-03-01")))
+                .andExpect(jsonPath("$.points[2].balance", is(100.0)))
+                .andExpect(jsonPath("$.points[3].balance", is(100.0)));
+
+        mockMvc.perform(get("/api/operations/" + id + "/balances")
+                        .param("from", "2000-01-01")
+                        .param("to", "2025-03-15")
+                        .param("granularity", "day"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity", is("MONTH")))
+                .andExpect(jsonPath("$.downsampled", is(true)))
+                .andExpect(jsonPath("$.points.length()", is(303)))
+                .andExpect(jsonPath("$.points[301].date", is("2025-02-28")))
+                .andExpect(jsonPath("$.points[301].balance", is(0.0)))
+                .andExpect(jsonPath("$.points[302].date", is("2025-03-15")))
+                .andExpect(jsonPath("$.points[302].balance", is(100.0)));
+
+        mockMvc.perform(get("/api/operations/" + id + "/balances")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-03-01")
+                        .param("granularity", "hour"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Granularité inconnue")));
+    }
 
+    private String createAccount() throws Exception {
+        CreateAccountRequestDTO request = CreateAccountRequestDTO.of(new BigDecimal("0.00"), new BigDecimal("0.00"));
+        return objectMapper.readTree(
+                mockMvc.perform(post("/api/account")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                        .andReturn().getResponse().getContentAsString()
+        ).get("id").asText();
+    }
 }
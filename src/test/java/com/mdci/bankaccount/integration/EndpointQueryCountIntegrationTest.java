@@ -0,0 +1,217 @@
+package com.mdci.bankaccount.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mdci.bankaccount.application.dto.BankOperationRequestDTO;
+import com.mdci.bankaccount.application.dto.CreateAccountRequestDTO;
+import com.mdci.bankaccount.integration.util.DatabaseCleanup;
+import com.mdci.bankaccount.integration.util.TestBankOperationFactoryConfig;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Nombre de requêtes SQL et de lignes chargées par point d'accès, sur un compte ayant déjà un historique :
+ * aucun ne doit dépendre de la taille de cet historique, sauf le relevé qui ne lit que sa période.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(TestBankOperationFactoryConfig.class)
+class EndpointQueryCountIntegrationTest {
+
+    private static final int HISTORY_SIZE = 30;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DatabaseCleanup cleanup;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private String accountId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cleanup.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        CreateAccountRequestDTO request = CreateAccountRequestDTO.of(BigDecimal.ZERO, BigDecimal.valueOf(100));
+        String json = mockMvc.perform(post("/api/account")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andReturn().getResponse().getContentAsString();
+        accountId = objectMapper.readTree(json).get("id").asText();
+        for (int i = 0; i < HISTORY_SIZE; i++) {
+            deposit(BigDecimal.TEN);
+        }
+        statistics.clear();
+    }
+
+    @Test
+    void getAccount_should_read_only_the_stored_balance() throws Exception {
+        mockMvc.perform(get("/api/account/" + accountId)).andExpect(status().isOk());
+
+        // Métadonnées servies par le cache : seule la ligne de solde est lue, sans charger l'entité
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void deposit_should_not_read_the_history() throws Exception {
+        deposit(BigDecimal.ONE);
+
+        // Lecture du solde, mise à jour conditionnelle du solde, relecture du solde, insertion,
+        // puis cumul du jour : report sur les journées suivantes (aucune) et ajout à la journée
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(6);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void withdraw_should_not_read_the_history() throws Exception {
+        mockMvc.perform(post("/api/operations/" + accountId + "/withdraw")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BankOperationRequestDTO(BigDecimal.ONE))))
+                .andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(6);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void balanceAtDate_should_be_a_single_lookup_of_the_closing_balance() throws Exception {
+        mockMvc.perform(get("/api/operations/" + accountId + "/balance").param("date", "2025-03-01"))
+                .andExpect(status().isOk());
+
+        // Existence du compte connue du cache, puis solde de clôture lu dans le cumul du jour
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void balances_should_take_a_fixed_number_of_statements_whatever_the_number_of_points() throws Exception {
+        mockMvc.perform(get("/api/operations/" + accountId + "/balances")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-12-31")
+                        .param("granularity", "day"))
+                .andExpect(status().isOk());
+
+        // Solde d'ouverture (aucun cumul journalier avant la première opération : repli sur la somme en base),
+        // puis variations par jour agrégées par la base, pour 365 points
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void streamed_statement_should_write_one_line_per_operation_read_through_a_single_query() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/account/" + accountId + "/statement/stream")
+                        .param("from", "2025-03-01T00:00:00")
+                        .param("to", "2025-03-02T00:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        // En-tête (totaux compris), puis une ligne par opération de la période, par date croissante :
+        // dépôt initial et dépôts suivants
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(1 + 1 + HISTORY_SIZE);
+        assertThat(objectMapper.readTree(lines.get(0)).get("totalDeposits").decimalValue())
+                .isEqualByComparingTo(BigDecimal.TEN.multiply(BigDecimal.valueOf(HISTORY_SIZE)));
+        assertThat(objectMapper.readTree(lines.get(1)).get("type").asText()).isEqualTo("DEPOSIT");
+        // Compte, solde de fin de la période close et totaux avant la réponse, puis les opérations lues
+        // en une seule requête
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+
+        mockMvc.perform(get("/api/account/unknown/statement/stream"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void statement_should_read_the_account_once_and_only_the_operations_of_the_period() throws Exception {
+        mockMvc.perform(get("/api/account/" + accountId + "/statement")
+                        .param("from", "2025-03-01T00:00:00")
+                        .param("to", "2025-03-02T00:00:00"))
+                .andExpect(status().isOk());
+
+        // Version du relevé (solde stocké, empreinte des opérations, solde de fin de la période close), puis
+        // compte, solde de fin, opérations de la période et totaux de la période cumulés par la base
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(7);
+        // Les opérations de la période : dépôt initial et dépôts suivants
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1 + HISTORY_SIZE);
+    }
+
+    @Test
+    void unchanged_statement_should_be_revalidated_without_reading_the_operations() throws Exception {
+        String etag = mockMvc.perform(get("/api/account/" + accountId + "/statement")
+                        .param("from", "2025-03-01T00:00:00")
+                        .param("to", "2025-03-02T00:00:00"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        // Compte déjà assez consulté : la revalidation suivante indexe ses soldes une fois pour toutes
+        revalidate(etag);
+        statistics.clear();
+
+        revalidate(etag);
+
+        // Solde stocké et empreinte des opérations de la période, lue dans l'index ; le solde de fin
+        // de la période close est lu dans l'index des soldes
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        // Une opération de la période change l'ETag ; le relevé est alors reproduit
+        deposit(BigDecimal.ONE);
+        mockMvc.perform(get("/api/account/" + accountId + "/statement")
+                        .param("from", "2025-03-01T00:00:00")
+                        .param("to", "2025-03-02T00:00:00")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    private void revalidate(String etag) throws Exception {
+        mockMvc.perform(get("/api/account/" + accountId + "/statement")
+                        .param("from", "2025-03-01T00:00:00")
+                        .param("to", "2025-03-02T00:00:00")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    private void deposit(BigDecimal amount) throws Exception {
+        mockMvc.perform(post("/api/operations/" + accountId + "/deposit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BankOperationRequestDTO(amount))))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,146 @@
+package com.mdci.bankaccount.integration;
+
+import com.mdci.bankaccount.BankaccountApplication;
+import com.mdci.bankaccount.domain.exception.InsufficientBalanceException;
+import com.mdci.bankaccount.domain.model.BankAccount;
+import com.mdci.bankaccount.domain.model.Money;
+import com.mdci.bankaccount.domain.port.in.IBankAccountService;
+import com.mdci.bankaccount.domain.port.in.IBankOperationService;
+import com.mdci.bankaccount.integration.util.DatabaseCleanup;
+import com.mdci.bankaccount.integration.util.TestBankOperationFactoryConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "bank.group-commit.enabled=true",
+        "bank.group-commit.window=2ms"
+})
+@ActiveProfiles("test")
+@Import(TestBankOperationFactoryConfig.class)
+class GroupCommitIntegrationTest {
+
+    @Autowired
+    private IBankAccountService accountService;
+
+    @Autowired
+    private IBankOperationService operationService;
+
+    @Autowired
+    private DatabaseCleanup cleanup;
+
+    @BeforeEach
+    void resetDatabase() {
+        cleanup.clear();
+    }
+
+    @Test
+    void shouldKeepBalanceExactUnderConcurrentGroupedWrites() throws Exception {
+        BankAccount account = accountService.createAccount(new Money(BigDecimal.ZERO), new Money(BigDecimal.ZERO));
+        int callers = 16;
+        int depositsPerCaller = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < callers; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < depositsPerCaller; i++) {
+                        operationService.deposit(account.getId(), new Money(BigDecimal.ONE));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(accountService.getAccount(account.getId()).getBalance())
+                .isEqualByComparingTo(BigDecimal.valueOf(callers * depositsPerCaller));
+    }
+
+    @Test
+    void shouldReportRejectedWithdrawalToItsCaller() {
+        BankAccount account = accountService.createAccount(new Money(BigDecimal.TEN), new Money(BigDecimal.ZERO));
+
+        assertThatThrownBy(() -> operationService.withdraw(account.getId(), new Money(BigDecimal.valueOf(11))))
+                .isInstanceOf(InsufficientBalanceException.class);
+        operationService.withdraw(account.getId(), new Money(BigDecimal.valueOf(4)));
+
+        assertThat(accountService.getAccount(account.getId()).getBalance()).isEqualByComparingTo("6");
+    }
+
+    @Test
+    void shouldDrainPendingWritesWhenTheContextCloses() throws Exception {
+        // Contexte propre au test, sur sa propre base : il est fermé pendant que des écritures attendent leur lot
+        String url = "jdbc:h2:mem:group-commit-shutdown;DB_CLOSE_DELAY=-1";
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BankaccountApplication.class)
+                .profiles("test")
+                // Arguments de ligne de commande : prioritaires sur application-test.yml
+                .run("--spring.datasource.url=" + url,
+                        "--bank.group-commit.enabled=true",
+                        "--bank.group-commit.window=1s");
+        int deposits = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(deposits);
+        try {
+            BankAccount account = context.getBean(IBankAccountService.class)
+                    .createAccount(new Money(BigDecimal.ZERO), new Money(BigDecimal.ZERO));
+            IBankOperationService service = context.getBean(IBankOperationService.class);
+            Counter queued = context.getBean(MeterRegistry.class).get("bank.operation.group.commit.queued").counter();
+            double queuedBefore = queued.count();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < deposits; i++) {
+                futures.add(executor.submit(() -> service.deposit(account.getId(), new Money(BigDecimal.ONE))));
+            }
+            awaitCount(queued, queuedBefore + deposits);
+
+            // Connexion gardée ouverte pour que la base en mémoire survive à la fermeture du contexte
+            try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+                context.close();
+
+                for (Future<?> future : futures) {
+                    future.get(5, TimeUnit.SECONDS);
+                }
+                try (ResultSet rows = connection.createStatement().executeQuery(
+                        "SELECT COUNT(*) FROM bank_operations WHERE account_id = '" + account.getId() + "'")) {
+                    rows.next();
+                    // Dépôt initial et dépôts en attente à la fermeture
+                    assertThat(rows.getInt(1)).isEqualTo(1 + deposits);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            context.close();
+        }
+    }
+
+    /**
+     * Attend que tous les dépôts soient en file : la fenêtre d'une seconde les garde ensuite en attente de leur lot.
+     */
+    private static void awaitCount(Counter queued, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queued.count() < expected) {
+            assertThat(System.nanoTime() - deadline).as("dépôts mis en file").isNegative();
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+}
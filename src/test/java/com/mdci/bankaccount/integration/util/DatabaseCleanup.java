@@ -13,6 +13,7 @@ public class DatabaseCleanup {
 
     @Transactional
     public void clear() {
+        entityManager.createNativeQuery("DELETE FROM daily_balances").executeUpdate();
         entityManager.createNativeQuery("DELETE FROM bank_operations").executeUpdate();
         entityManager.createNativeQuery("DELETE FROM bank_accounts").executeUpdate();
     }
@@ -7,24 +7,43 @@ import com.mdci.bankaccount.application.port.out.DocumentGenerator;
 import com.mdci.bankaccount.application.service.BankAccountStatementService;
 import com.mdci.bankaccount.domain.model.AccountStatement;
 import com.mdci.bankaccount.domain.model.AccountType;
+import com.mdci.bankaccount.domain.model.OperationRangeVersion;
+import com.mdci.bankaccount.domain.model.StatementVersion;
+import com.mdci.bankaccount.infrastructure.rest.cache.StatementDocumentStore;
+import com.mdci.bankaccount.infrastructure.rest.cache.StatementPayloadCache;
 import com.mdci.bankaccount.infrastructure.rest.controller.BankAccountStatementController;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.iterableWithSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -59,33 +78,157 @@ class BankAccountStatementControllerTest {
         public DocumentGenerator<AccountStatementDTO> pdfGenerator() {
             return mock(DocumentGenerator.class);
         }
+
+        @Bean
+        public StatementPayloadCache statementPayloadCache() {
+            return new StatementPayloadCache(1024 * 1024, 64 * 1024, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        }
+
+        @Bean
+        public StatementDocumentStore statementDocumentStore() {
+            return new StatementDocumentStore(storeDirectory, 1024 * 1024, Duration.ofMinutes(1), Clock.systemUTC(),
+                    new SimpleMeterRegistry());
+        }
     }
 
-    @Test
-    void should_export_statement_as_pdf() throws Exception {
-        String accountId = "ACC123";
+    @TempDir
+    static Path storeDirectory;
 
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 3, 5, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2025, 4, 5, 0, 0);
+
+    private void givenStatement(String accountId, long operationCount) throws Exception {
         AccountStatementDTO dto = new AccountStatementDTO(
                 accountId,
                 AccountType.COMPTE_COURANT,
                 new BigDecimal("840.00"),
-                LocalDateTime.of(2025, 4, 5, 10, 0),
-                LocalDateTime.of(2025, 3, 5, 0, 0),
-                LocalDateTime.of(2025, 4, 5, 0, 0),
-                List.of() // on s'en fiche ici
+                TO,
+                FROM,
+                TO,
+                List.of()
         );
-
+        // Période close quand sa fin est demandée : TO est passée
+        when(statementService.getStatementVersion(eq(accountId), any(), any())).thenAnswer(invocation -> new StatementVersion(
+                accountId, FROM, TO, invocation.getArgument(2) != null, new BigDecimal("840.00"), new BigDecimal("840.00"),
+                new OperationRangeVersion(operationCount, TO.minusDays(1), "op-" + operationCount)));
         when(statementService.generateStatementForPeriod(eq(accountId), any(), any()))
                 .thenReturn(mock(AccountStatement.class));
         when(statementMapper.toDto(any())).thenReturn(dto);
-        when(documentGenerator.generate(any())).thenReturn("fake-pdf-content".getBytes());
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write("fake-pdf-content".getBytes());
+            return null;
+        }).when(documentGenerator).generate(any(), any());
+    }
+
+    private MvcResult exportPdf(String accountId, String ifNoneMatch) throws Exception {
+        return exportPdf(get("/api/account/{id}/statement/export/pdf", accountId), ifNoneMatch);
+    }
+
+    private MvcResult exportClosedPdf(String accountId) throws Exception {
+        return exportPdf(get("/api/account/{id}/statement/export/pdf", accountId)
+                .param("from", FROM.toString())
+                .param("to", TO.toString()), null);
+    }
+
+    private MvcResult exportPdf(MockHttpServletRequestBuilder export, String ifNoneMatch) throws Exception {
+        if (ifNoneMatch != null) {
+            export.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MvcResult result = mockMvc.perform(export)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result)).andReturn();
+    }
+
+    @Test
+    void should_export_statement_as_pdf() throws Exception {
+        String accountId = "ACC123";
+        givenStatement(accountId, 3);
 
-        mockMvc.perform(get("/api/account/{id}/statement/export/pdf", accountId))
+        MvcResult result = mockMvc.perform(get("/api/account/{id}/statement/export/pdf", accountId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/pdf"))
                 .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("releve-ACC123.pdf")))
+                .andExpect(header().stringValues(HttpHeaders.ETAG, iterableWithSize(1)))
                 .andExpect(content().bytes("fake-pdf-content".getBytes()));
     }
-}
 
+    @Test
+    void should_answer_not_modified_without_regenerating_when_the_etag_matches() throws Exception {
+        String accountId = "ACC304";
+        givenStatement(accountId, 3);
+        String etag = exportPdf(accountId, null).getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/account/{id}/statement/export/pdf", accountId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(new byte[0]));
+        verify(statementService, times(1)).generateStatementForPeriod(eq(accountId), any(), any());
+    }
+
+    @Test
+    void should_serve_an_unchanged_statement_from_the_cache() throws Exception {
+        String accountId = "ACCHIT";
+        givenStatement(accountId, 3);
+        exportPdf(accountId, null);
+
+        MvcResult second = exportPdf(accountId, null);
+
+        assertThat(second.getResponse().getStatus()).isEqualTo(200);
+        assertThat(second.getResponse().getContentAsByteArray()).isEqualTo("fake-pdf-content".getBytes());
+        verify(statementService, times(1)).generateStatementForPeriod(eq(accountId), any(), any());
+    }
+
+    @Test
+    void should_change_the_etag_when_an_operation_enters_the_period() throws Exception {
+        String accountId = "ACCNEW";
+        givenStatement(accountId, 3);
+        String before = exportPdf(accountId, null).getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Opération antidatée : même date la plus récente, une opération de plus
+        givenStatement(accountId, 4);
+        MvcResult after = exportPdf(accountId, before);
+
+        assertThat(after.getResponse().getStatus()).isEqualTo(200);
+        assertThat(after.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(before);
+        verify(statementService, times(2)).generateStatementForPeriod(eq(accountId), any(), any());
+    }
+
+    @Test
+    void should_keep_a_closed_period_on_disk_and_serve_it_from_the_file() throws Exception {
+        String accountId = "ACCDISK";
+        givenStatement(accountId, 3);
+        exportClosedPdf(accountId);
+
+        MvcResult second = exportClosedPdf(accountId);
+
+        assertThat(second.getResponse().getStatus()).isEqualTo(200);
+        assertThat(second.getResponse().getContentAsByteArray()).isEqualTo("fake-pdf-content".getBytes());
+        assertThat(second.getResponse().getContentLengthLong()).isEqualTo("fake-pdf-content".length());
+        verify(statementService, times(1)).generateStatementForPeriod(eq(accountId), any(), any());
+    }
 
+    @Test
+    void should_hand_a_stored_document_to_the_container_when_it_supports_sendfile() throws Exception {
+        String accountId = "ACCSENDFILE";
+        givenStatement(accountId, 3);
+        exportClosedPdf(accountId);
+
+        // Relevé gardé : réponse synchrone, sans corps, le fichier est envoyé par le conteneur
+        MvcResult result = mockMvc.perform(get("/api/account/{id}/statement/export/pdf", accountId)
+                        .param("from", FROM.toString())
+                        .param("to", TO.toString())
+                        .requestAttr("org.apache.tomcat.sendfile.support", Boolean.TRUE))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, "fake-pdf-content".length()))
+                .andReturn();
+
+        String file = (String) result.getRequest().getAttribute("org.apache.tomcat.sendfile.filename");
+        assertThat(Files.readAllBytes(Path.of(file))).isEqualTo("fake-pdf-content".getBytes());
+        assertThat(result.getRequest().getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo((long) "fake-pdf-content".length());
+        assertThat(result.getResponse().getContentAsByteArray()).isEmpty();
+    }
+}